@@ -149,6 +149,14 @@ public abstract class AggregateFunction
                 .getUnsupported();
     }
 
+    public int epochDayInitialValue()
+    {
+        throw exceptionByKey("AGG_NO_INITIAL_VALUE")
+                .with("operation", this.getName())
+                .with("type", "date")
+                .getUnsupported();
+    }
+
     public Object objectInitialValue()
     {
         throw exceptionByKey("AGG_NO_INITIAL_VALUE")
@@ -173,6 +181,14 @@ public abstract class AggregateFunction
                 .getUnsupported();
     }
 
+    protected int epochDayAccumulator(int currentAggregate, int newValue)
+    {
+        throw exceptionByKey("AGG_NO_ACCUMULATOR")
+                .with("operation", this.getName())
+                .with("type", "date")
+                .getUnsupported();
+    }
+
     protected Object objectAccumulator(Object currentAggregate, Object newValue)
     {
         throw exceptionByKey("AGG_NO_ACCUMULATOR")
@@ -225,6 +241,11 @@ public abstract class AggregateFunction
         return ((DfDoubleColumn) sourceColumn).getDouble(sourceRowIndex);
     }
 
+    public int getEpochDayValue(DfColumn sourceColumn, int sourceRowIndex)
+    {
+        return ((DfDateColumn) sourceColumn).getEpochDay(sourceRowIndex);
+    }
+
     public Object getObjectValue(DfColumn sourceColumn, int sourceRowIndex)
     {
         return sourceColumn.getObject(sourceRowIndex);
@@ -244,6 +265,10 @@ public abstract class AggregateFunction
         {
             ((DfLongColumnStored) accumulatorColumn).setLong(accumulatorRowIndex, this.longInitialValue());
         }
+        else if (accumulatorColumn.getType().isDate() && this.aggregatesDatesAsEpochDays())
+        {
+            ((DfDateColumnStored) accumulatorColumn).setEpochDay(accumulatorRowIndex, this.epochDayInitialValue());
+        }
         else
         {
             accumulatorColumn.setObject(accumulatorRowIndex, this.objectInitialValue());
@@ -270,6 +295,59 @@ public abstract class AggregateFunction
                 this.doubleAccumulator(currentAggregatedValue, this.getDoubleValue(sourceColumn, sourceRowIndex)));
     }
 
+    public void aggregateValueIntoDate(
+            DfDateColumnStored targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (this.aggregatesDatesAsEpochDays())
+        {
+            int currentAggregatedValue = targetColumn.getEpochDay(targetRowIndex);
+            targetColumn.setEpochDay(
+                    targetRowIndex,
+                    this.epochDayAccumulator(currentAggregatedValue, this.getEpochDayValue(sourceColumn, sourceRowIndex)));
+        }
+        else
+        {
+            targetColumn.setObject(
+                    targetRowIndex,
+                    this.objectAccumulator(targetColumn.getObject(targetRowIndex), this.getObjectValue(sourceColumn, sourceRowIndex)));
+        }
+    }
+
+    /**
+     * aggregates a value into a column storing values that are aggregated as objects, such as a string or a date-time
+     * column
+     */
+    public void aggregateValueIntoObject(
+            DfColumn targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        targetColumn.setObject(
+                targetRowIndex,
+                this.objectAccumulator(targetColumn.getObject(targetRowIndex), this.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    public void aggregateValueIntoDecimal(
+            DfDecimalColumnStored targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        targetColumn.setObject(
+                targetRowIndex,
+                this.objectAccumulator(targetColumn.getObject(targetRowIndex), this.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    /**
+     * Date values can be aggregated either as {@code LocalDate} objects, using the object initial value and the object
+     * accumulator, or as primitive epoch day values, using the epoch day initial value and the epoch day accumulator.
+     * Override this method to return <code>true</code> if this aggregation function works with epoch day values.
+     *
+     * @return <code>true</code> if dates are aggregated as epoch days, <code>false</code> otherwise
+     */
+    public boolean aggregatesDatesAsEpochDays()
+    {
+        return false;
+    }
+
     /**
      * by default aggregators treat null values as "poisonous" - that is any null value passed in the aggregator will
      * cause the result of the entire aggregation to be null, which is a sensible behavior for most aggregation
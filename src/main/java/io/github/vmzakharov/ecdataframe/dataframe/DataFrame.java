@@ -1,23 +1,33 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
 import io.github.vmzakharov.ecdataframe.dsl.DataFrameEvalContext;
 import io.github.vmzakharov.ecdataframe.dsl.EvalContext;
 import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
 import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.ExpressionOptimizingVisitor;
 import io.github.vmzakharov.ecdataframe.dsl.visitor.InMemoryEvaluationVisitor;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.ReferencedVariablesVisitor;
 import io.github.vmzakharov.ecdataframe.dsl.visitor.TypeInferenceVisitor;
 import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
 import org.eclipse.collections.api.DoubleIterable;
 import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.block.function.Function0;
+import org.eclipse.collections.api.block.comparator.primitive.IntComparator;
 import org.eclipse.collections.api.block.function.primitive.IntIntToIntFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToObjectFunction;
 import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.block.predicate.primitive.LongPredicate;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.list.primitive.IntList;
-import org.eclipse.collections.api.list.primitive.MutableBooleanList;
 import org.eclipse.collections.api.list.primitive.MutableIntList;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
@@ -26,31 +36,47 @@ import org.eclipse.collections.api.tuple.Triplet;
 import org.eclipse.collections.api.tuple.Twin;
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
-import org.eclipse.collections.impl.list.mutable.primitive.BooleanArrayList;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ArrayIterate;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.ASC;
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
 public class DataFrame
+implements AutoCloseable
 {
+    // rows evaluated by a single task when filtering in parallel, a multiple of the compiled filter block size
+    private static final int FILTER_CHUNK_SIZE = 16 * DfExpressionCompiler.BLOCK_SIZE;
+
     private final String name;
     private final MutableMap<String, DfColumn> columnsByName = Maps.mutable.of();
     private final MutableList<DfColumn> columns = Lists.mutable.of();
     private int rowCount = 0;
 
-    private final DataFrameEvalContext evalContext; // todo: thread safety?
+    private final DataFrameEvalContext evalContext; // tracks the evaluated row for each thread
     private IntList virtualRowMap = null;
     private boolean poolingEnabled = false;
+    private boolean compactingOnSeal = false;
+    private boolean cachingComputedValues = false;
+    private DfBufferAllocator bufferAllocator = null;
+    private ForkJoinPool filterPool = null; // null if filters are evaluated sequentially
+
+    private int schemaVersion = 0;
+    private int valuesVersion = 0;
+    private final MutableMap<String, Function0<DfExpressionCompiler.BooleanBlock>> compiledFilters = Maps.mutable.of(); // by expression text
 
-    private MutableBooleanList bitmap = null;
+    private DfBitmap bitmap = null;
 
     private MutableList<MutableIntList> aggregateIndex = null;
 
@@ -180,12 +206,18 @@ public class DataFrame
 
         this.columnsByName.put(newColumn.getName(), newColumn);
         this.columns.add(newColumn);
+        this.schemaChanged();
 
         if (this.isPoolingEnabled())
         {
             newColumn.enablePooling();
         }
 
+        if (this.isStoringOffHeap())
+        {
+            newColumn.enableOffHeapStorage();
+        }
+
         return newColumn;
     }
 
@@ -200,6 +232,170 @@ public class DataFrame
         return this.poolingEnabled;
     }
 
+    /**
+     * Stored columns keep their values in fixed size chunks so that adding values to them does not copy the values
+     * already added. Enabling compaction on seal makes the columns copy their values into a single array when the data
+     * frame is sealed, trading a one-time copy for a more compact layout. Long columns are also re-encoded using the
+     * narrowest primitive type that can hold all of their values. Columns re-encoded this way are decoded back if
+     * values are added to or changed in them after the data frame is sealed.
+     */
+    public void enableCompactionOnSeal()
+    {
+        this.compactingOnSeal = true;
+    }
+
+    public boolean isCompactingOnSeal()
+    {
+        return this.compactingOnSeal;
+    }
+
+    /**
+     * Computed columns keep their values once they are first accessed, so that each value is computed only once
+     * rather than every time it is accessed. The values are computed again after rows are added, values are changed,
+     * columns are added or removed or the data frame is sealed. Accessing any row of a computed column computes the
+     * values of all rows, so caching suits data frames whose computed columns are read in full, by sorting,
+     * aggregation or filtering, rather than a few rows at a time between changes.
+     */
+    public void enableComputedValueCaching()
+    {
+        this.cachingComputedValues = true;
+    }
+
+    public boolean isCachingComputedValues()
+    {
+        return this.cachingComputedValues;
+    }
+
+    /**
+     * Filters (see {@link #selectBy(String)}, {@link #partition(String)} and {@link #flagRowsBy(String)}) split the
+     * rows of the data frame into ranges evaluated in parallel on the common fork-join pool. The rows selected in each
+     * range are then copied to the result in their original order, so the result is the same as when the filter is
+     * evaluated sequentially. Data frames with fewer than two ranges worth of rows are still filtered sequentially.
+     * Functions called from filters are evaluated concurrently as well, so functions added with
+     * {@code BuiltInFunctions.addFunctionDescriptor} must be thread safe.
+     */
+    public void enableParallelFiltering()
+    {
+        this.enableParallelFiltering(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #enableParallelFiltering()} but evaluates the filters on the provided pool
+     *
+     * @param pool the pool to evaluate the filters on
+     */
+    public void enableParallelFiltering(ForkJoinPool pool)
+    {
+        this.filterPool = pool;
+    }
+
+    public boolean isFilteringInParallel()
+    {
+        return this.filterPool != null;
+    }
+
+    /**
+     * to be called when rows are added or the values of stored columns change: the values cached by computed columns
+     * are discarded the next time they are accessed
+     */
+    void valuesChanged()
+    {
+        this.valuesVersion++;
+    }
+
+    /**
+     * @return a number that changes every time the values of this data frame may have changed
+     */
+    int getValuesVersion()
+    {
+        return this.valuesVersion;
+    }
+
+    /**
+     * Stored columns move their values out of the Java heap, into native memory, as the values are added, a buffer of
+     * values at a time, and move the rest of the values when the data frame is sealed. The values then neither take
+     * heap space nor need to be copied by the garbage collector. The dictionaries of string columns and the null flags
+     * remain on the heap. The native memory is released when the data frame is closed, see {@link #close()}. The data
+     * frames derived from this one, such as the results of filtering, aggregation and joins, store their values on the
+     * heap unless off-heap storage is enabled for them as well, which moves the values they already have. A copy of
+     * this data frame shares its values with this one until either of them is modified, so the shared values are
+     * released once both are closed.
+     */
+    public void enableOffHeapStorage()
+    {
+        this.storeOffHeap(DfDirectBufferAllocator.INSTANCE);
+    }
+
+    /**
+     * Stored columns move their values into temporary files in the specified directory, which are memory mapped, as
+     * the values are added, a buffer of values at a time, and move the rest of the values when the data frame is
+     * sealed. The operating system then pages the values in and out of memory as needed, so data frames larger than
+     * the available physical memory can be loaded, sorted, aggregated and joined as usual. The files are deleted when
+     * the data frame is closed, see {@link #close()}, or when the JVM exits. The data frames derived from this one store
+     * their values on the heap unless spill storage is enabled for them as well, in which case they need to be closed
+     * to delete their files.
+     *
+     * @param spillDirectory the directory to create the files in
+     */
+    public void enableSpillStorage(Path spillDirectory)
+    {
+        this.storeOffHeap(new DfMappedFileBufferAllocator(spillDirectory));
+    }
+
+    private void storeOffHeap(DfBufferAllocator allocator)
+    {
+        this.bufferAllocator = allocator;
+        this.columns.forEach(DfColumn::enableOffHeapStorage);
+    }
+
+    public boolean isStoringOffHeap()
+    {
+        return this.bufferAllocator != null;
+    }
+
+    DfBufferAllocator getBufferAllocator()
+    {
+        return this.bufferAllocator;
+    }
+
+    /**
+     * Releases the memory held by the columns of this data frame outside of the Java heap and removes the columns from
+     * the data frame. Neither this data frame nor the slices of it can be used after it is closed. Closing a data
+     * frame that does not store its values off heap only removes its columns.
+     */
+    @Override
+    public void close()
+    {
+        this.columns.forEach(DfColumn::releaseStorage);
+
+        this.columns.clear();
+        this.columnsByName.clear();
+        this.schemaChanged();
+        this.rowCount = 0;
+        this.unsort();
+        this.resetBitmap();
+    }
+
+    /**
+     * to be called when columns are added, removed or replaced: discards the expressions compiled against the previous
+     * columns, the values cached by computed columns and the resolution of variables to columns
+     */
+    private void schemaChanged()
+    {
+        this.schemaVersion++;
+        this.valuesChanged();
+        this.compiledFilters.clear();
+        this.evalContext.resetResolvedVariables();
+    }
+
+    /**
+     * @return a number that changes every time columns are added to, removed from or replaced in this data frame
+     */
+    int getSchemaVersion()
+    {
+        return this.schemaVersion;
+    }
+
     public DfColumn getColumnNamed(String columnName)
     {
         DfColumn column = this.columnsByName.get(columnName);
@@ -281,6 +477,7 @@ public class DataFrame
     {
         this.columns.forEach(DfColumn::addEmptyValue);
         this.rowCount++;
+        this.valuesChanged();
         return this;
     }
 
@@ -296,6 +493,7 @@ public class DataFrame
 
         ArrayIterate.forEachWithIndex(values, (v, i) -> this.columns.get(i).addObject(v));
         this.rowCount++;
+        this.valuesChanged();
         return this;
     }
 
@@ -573,7 +771,10 @@ public class DataFrame
      */
     public DataFrame seal()
     {
-        MutableIntList storedColumnsSizes = this.columns.select(DfColumn::isStored).collectInt(DfColumn::getSize);
+        // the columns of a slice do not store values but have a fixed size too
+        MutableIntList storedColumnsSizes = this.columns
+                .select(column -> column.isStored() || column instanceof DfColumnView)
+                .collectInt(DfColumn::getSize);
         if (storedColumnsSizes.size() == 0)
         {
             this.rowCount = 0;
@@ -588,8 +789,10 @@ public class DataFrame
         }
 
         this.resetBitmap();
+        this.valuesChanged();
 
         this.columns.forEach(DfColumn::seal);
+        this.columns.select(DfColumn::isStored).forEach(DfColumn::statistics);
         return this;
     }
 
@@ -698,25 +901,21 @@ public class DataFrame
                 .collect(AggregateFunction::getTargetColumnName)
                 .collect(aggregatedDataFrame::getColumnNamed);
 
-        DfIndexKeeper index = new DfIndexKeeper(aggregatedDataFrame, columnsToGroupByNames);
+        DfIndexKeeper index = new DfIndexKeeper(
+                aggregatedDataFrame, columnsToGroupByNames, this.estimateDistinctRowCount(columnsToGroupByNames));
 
         for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
         {
-            ListIterable<Object> keyValue = index.computeKeyFrom(this, rowIndex);
-
-            int accumulatorRowIndex;
-            if (index.doesNotContain(keyValue))
+            int accumulatorRowIndex = index.getRowIndexMatching(this, rowIndex);
+            if (accumulatorRowIndex == -1)
             {
                 // new entry in the aggregated data frame - need to initialize accumulators
-                accumulatorRowIndex = index.getRowIndexAtKeyIfAbsentAdd(keyValue);
+                int newAccumulatorRowIndex = index.getRowIndexMatchingIfAbsentAdd(this, rowIndex);
 
                 aggregators.forEachInBoth(accumulatorColumns,
-                        (aggregateFunction, accumulatorColumn) -> aggregateFunction.initializeValue(accumulatorColumn, accumulatorRowIndex));
-            }
-            else
-            {
-                // an existing entry so just a lookup
-                accumulatorRowIndex = index.getRowIndexAtKeyIfAbsentAdd(keyValue);
+                        (aggregateFunction, accumulatorColumn) -> aggregateFunction.initializeValue(accumulatorColumn, newAccumulatorRowIndex));
+
+                accumulatorRowIndex = newAccumulatorRowIndex;
             }
 
             if (createSourceRowIdIndex)
@@ -784,40 +983,65 @@ public class DataFrame
 
         uniqueColumns.forEach(col  -> result.addColumn(col.getName(), col.getType()));
 
-        DfIndexKeeper index = new DfIndexKeeper(result, columnNames);
+        DfIndexKeeper index = new DfIndexKeeper(result, columnNames, this.estimateDistinctRowCount(columnNames));
 
         for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
         {
-            ListIterable<Object> keyValue = index.computeKeyFrom(this, rowIndex);
-            index.getRowIndexAtKeyIfAbsentAdd(keyValue);
+            index.getRowIndexMatchingIfAbsentAdd(this, rowIndex);
         }
 
         return result;
     }
 
+    /**
+     * Estimates the number of distinct combinations of values in the specified columns based on the column statistics,
+     * which is used to pre-size the hash tables keyed by these values
+     *
+     * @return the estimate or 0 if there is no estimate, because some of the columns are computed
+     */
+    private int estimateDistinctRowCount(ListIterable<String> columnNames)
+    {
+        ListIterable<DfColumn> columnsToEstimate = columnNames.collect(this::getColumnNamed);
+        if (!columnsToEstimate.allSatisfy(DfColumn::isStored))
+        {
+            return 0;
+        }
+
+        long estimate = 1;
+        for (int i = 0; i < columnsToEstimate.size() && estimate < this.rowCount; i++)
+        {
+            DfColumnStatistics statistics = columnsToEstimate.get(i).statistics();
+            // null is a distinct value too
+            estimate *= statistics.getDistinctCountEstimate() + (statistics.getNullCount() > 0 ? 1 : 0);
+        }
+
+        return (int) Math.min(estimate, this.rowCount);
+    }
+
     public Twin<DataFrame> partition(String filterExpressionString)
     {
         DataFrame selected = this.cloneStructure(this.name + "-selected");
         DataFrame rejected = this.cloneStructure(this.name + "-rejected");
 
-        DataFrameEvalContext context = new DataFrameEvalContext(this);
-        Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
-        InMemoryEvaluationVisitor evaluationVisitor = new InMemoryEvaluationVisitor(context);
+        IntList selectedRows = this.selectRows(filterExpressionString);
 
+        MutableIntList rejectedRows = IntLists.mutable.withInitialCapacity(this.rowCount - selectedRows.size());
+        int selectedIndex = 0;
         for (int i = 0; i < this.rowCount; i++)
         {
-            context.setRowIndex(i);
-            Value select = filterExpression.evaluate(evaluationVisitor);
-            if (((BooleanValue) select).isTrue())
+            if (selectedIndex < selectedRows.size() && selectedRows.get(selectedIndex) == i)
             {
-                selected.copyRowFrom(this, i);
+                selectedIndex++;
             }
             else
             {
-                rejected.copyRowFrom(this, i);
+                rejectedRows.add(i);
             }
         }
 
+        selected.copyRowsFrom(this, selectedRows);
+        rejected.copyRowsFrom(this, rejectedRows);
+
         selected.seal();
         rejected.seal();
 
@@ -827,39 +1051,275 @@ public class DataFrame
     public DataFrame selectBy(String filterExpressionString)
     {
         DataFrame filtered = this.cloneStructure(this.getName() + "-selected");
+        filtered.copyRowsFrom(this, this.selectRows(filterExpressionString));
+        filtered.seal();
+        return filtered;
+    }
+
+    /**
+     * Creates a read only data frame containing the rows of this data frame for which the filter expression is true,
+     * like {@link #selectBy(String)} does, but without copying the rows. The columns of the new data frame are views
+     * of the columns of this data frame over the selected rows (see {@link #slice(int, int)}), so the result can be
+     * aggregated, sorted or printed directly. Use {@link #copy(String)} to materialize the selected rows as a
+     * modifiable data frame.
+     *
+     * @param filterExpressionString the filter expression
+     * @return a data frame referring to the rows of this data frame matching the filter, in the order of the rows in
+     * this data frame ignoring the sort order
+     */
+    public DataFrame selectViewBy(String filterExpressionString)
+    {
+        IntList selectedRows = this.selectRows(filterExpressionString).toImmutable();
+
+        return this.viewOf(this.getName() + "-selected", new DfRowRange(0, selectedRows.size(), selectedRows));
+    }
+
+    /**
+     * Evaluates the filter expression for all rows of this data frame, in parallel if enabled (see
+     * {@link #enableParallelFiltering()}).
+     *
+     * @param filterExpressionString the filter expression
+     * @return the physical indices of the rows for which the filter is true, in ascending order
+     */
+    private IntList selectRows(String filterExpressionString)
+    {
+        Function0<IntPredicate> filterFactory = this.rowFilterFactory(filterExpressionString);
+
+        if (this.filterPool == null || this.rowCount < 2 * FILTER_CHUNK_SIZE)
+        {
+            return this.selectRows(filterFactory.value(), 0, this.rowCount);
+        }
+
+        MutableList<ForkJoinTask<MutableIntList>> chunks = Lists.mutable.of();
+        for (int chunkStart = 0; chunkStart < this.rowCount; chunkStart += FILTER_CHUNK_SIZE)
+        {
+            int from = chunkStart;
+            int to = Math.min(chunkStart + FILTER_CHUNK_SIZE, this.rowCount);
+            chunks.add(this.filterPool.submit(() -> this.selectRows(filterFactory.value(), from, to)));
+        }
+
+        ListIterable<MutableIntList> selectedByChunk = chunks.collect(ForkJoinTask::join);
+
+        MutableIntList selected = IntLists.mutable.withInitialCapacity((int) selectedByChunk.sumOfInt(MutableIntList::size));
+        selectedByChunk.forEach(selected::addAll);
+
+        return selected;
+    }
+
+    private MutableIntList selectRows(IntPredicate filter, int from, int to)
+    {
+        MutableIntList selected = IntLists.mutable.empty();
+        for (int i = from; i < to; i++)
+        {
+            if (filter.accept(i))
+            {
+                selected.add(i);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Creates a factory of predicates on the (physical, not affected by sorting) row indices of this data frame that
+     * evaluate the filter expression for a row. A predicate can only be used by one thread at a time, while the
+     * factory can be used to create predicates for different threads. The expression is optimized first, folding its
+     * constant parts and replacing the variables that are not columns with their values (see
+     * {@link ExpressionOptimizingVisitor}). Comparisons of a dictionary encoded string column to a string literal for
+     * (in)equality are done on the dictionary codes without evaluating the expression. Other expressions are compiled
+     * into closures reading the column values directly if possible (see {@link DfExpressionCompiler}), which are
+     * evaluated a block of rows at a time, and evaluated row by row otherwise. The compiled filters are kept for as
+     * long as the columns of the data frame stay the same.
+     */
+    private Function0<IntPredicate> rowFilterFactory(String filterExpressionString)
+    {
+        // the variables other than the columns do not change while the filter is evaluated
         DataFrameEvalContext context = new DataFrameEvalContext(this);
-        Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
+        Expression filterExpression = new ExpressionOptimizingVisitor(context, variableName -> !this.hasColumn(variableName))
+                .optimize(ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString));
+
+        IntPredicate dictionaryCodeFilter = this.dictionaryCodeFilter(filterExpression);
+        if (dictionaryCodeFilter != null)
+        {
+            return () -> dictionaryCodeFilter;
+        }
+
+        Function0<IntPredicate> longValueFilterFactory = this.longValueFilterFactory(filterExpression);
+        if (longValueFilterFactory != null)
+        {
+            return longValueFilterFactory;
+        }
+
+        Function0<DfExpressionCompiler.BooleanBlock> compiledFilter;
+        // filters can be evaluated concurrently, the factory of a compiled filter is stateless
+        synchronized (this.compiledFilters)
+        {
+            compiledFilter = this.compiledFilters.getIfAbsentPut(
+                    filterExpressionString,
+                    () -> DfExpressionCompiler.compileBlockFilter(this, filterExpression));
+        }
+
+        if (compiledFilter != null)
+        {
+            // each predicate keeps its own block of results and the scratch arrays of the compiled filter
+            return () -> DfExpressionCompiler.blockwise(compiledFilter.value(), this.rowCount);
+        }
+
         InMemoryEvaluationVisitor evaluationVisitor = new InMemoryEvaluationVisitor(context);
-        for (int i = 0; i < this.rowCount; i++)
+
+        // the context tracks the evaluated row for each thread
+        IntPredicate interpretedFilter = rowIndex -> {
+            context.setRowIndex(rowIndex);
+            return ((BooleanValue) filterExpression.evaluate(evaluationVisitor)).isTrue();
+        };
+
+        return () -> interpretedFilter;
+    }
+
+    private IntPredicate dictionaryCodeFilter(Expression filterExpression)
+    {
+        if (!(filterExpression instanceof BinaryExpr))
+        {
+            return null;
+        }
+
+        BinaryExpr comparison = (BinaryExpr) filterExpression;
+        boolean isEquals = comparison.getOperation() == ComparisonOp.EQ;
+        if (!isEquals && comparison.getOperation() != ComparisonOp.NE)
+        {
+            return null;
+        }
+
+        Expression variable = comparison.getOperand1();
+        Expression literal = comparison.getOperand2();
+        if (literal instanceof VarExpr)
+        {
+            variable = comparison.getOperand2();
+            literal = comparison.getOperand1();
+        }
+
+        if (!(variable instanceof VarExpr) || !(literal instanceof StringValue))
+        {
+            return null;
+        }
+
+        String columnName = ((VarExpr) variable).getVariableName();
+        if (!this.hasColumn(columnName) || !(this.getColumnNamed(columnName) instanceof DfStringColumnStored))
+        {
+            return null;
+        }
+
+        IntPredicate valueEquals = ((DfStringColumnStored) this.getColumnNamed(columnName)).valueEquals(((StringValue) literal).stringValue());
+
+        return isEquals ? valueEquals : rowIndex -> !valueEquals.accept(rowIndex);
+    }
+
+    /**
+     * recognizes comparisons of a stored long column to a long literal, which can be evaluated on the column values
+     * directly, without the expression evaluation overhead. The predicates on run length encoded columns keep track of
+     * the current run, so the factory creates a new one for every caller.
+     */
+    private Function0<IntPredicate> longValueFilterFactory(Expression filterExpression)
+    {
+        if (!(filterExpression instanceof BinaryExpr)
+                || !(((BinaryExpr) filterExpression).getOperation() instanceof ComparisonOp))
+        {
+            return null;
+        }
+
+        BinaryExpr comparison = (BinaryExpr) filterExpression;
+        ComparisonOp operation = (ComparisonOp) comparison.getOperation();
+
+        boolean literalFirst = comparison.getOperand1() instanceof LongValue;
+        Expression variable = literalFirst ? comparison.getOperand2() : comparison.getOperand1();
+        Expression literal = literalFirst ? comparison.getOperand1() : comparison.getOperand2();
+
+        if (!(variable instanceof VarExpr) || !(literal instanceof LongValue))
         {
-            context.setRowIndex(i);
-            Value select = filterExpression.evaluate(evaluationVisitor);
-            if (((BooleanValue) select).isTrue())
+            return null;
+        }
+
+        String columnName = ((VarExpr) variable).getVariableName();
+        if (!this.hasColumn(columnName) || !(this.getColumnNamed(columnName) instanceof DfLongColumnStored))
+        {
+            return null;
+        }
+
+        DfLongColumnStored column = (DfLongColumnStored) this.getColumnNamed(columnName);
+
+        boolean isEquality = operation == ComparisonOp.EQ || operation == ComparisonOp.NE;
+        if (column.hasNulls() && !isEquality)
+        {
+            // leave the handling of ordering null values to the expression evaluation
+            return null;
+        }
+
+        long literalLong = ((LongValue) literal).longValue();
+
+        DfColumnStatistics statistics = column.statistics();
+        if (statistics.getMin() != null)
+        {
+            // short-circuit the comparisons to a value outside the range of the column values
+            long min = (Long) statistics.getMin();
+            long max = (Long) statistics.getMax();
+
+            if (isEquality)
             {
-                filtered.copyRowFrom(this, i);
+                if (literalLong < min || literalLong > max)
+                {
+                    boolean allMatch = operation == ComparisonOp.NE;
+                    IntPredicate allOrNone = rowIndex -> allMatch;
+                    return () -> allOrNone;
+                }
+            }
+            else
+            {
+                // the ordering comparisons are monotonic, so if they agree for both ends of the range, they agree for
+                // all the values in between
+                boolean minMatches = (literalFirst ? operation.applyLong(literalLong, min) : operation.applyLong(min, literalLong)).isTrue();
+                boolean maxMatches = (literalFirst ? operation.applyLong(literalLong, max) : operation.applyLong(max, literalLong)).isTrue();
+                if (minMatches == maxMatches)
+                {
+                    IntPredicate allOrNone = rowIndex -> minMatches;
+                    return () -> allOrNone;
+                }
             }
         }
-        filtered.seal();
-        return filtered;
+
+        LongPredicate valuePredicate = literalFirst
+                ? value -> operation.applyLong(literalLong, value).isTrue()
+                : value -> operation.applyLong(value, literalLong).isTrue();
+        boolean nullsMatch = operation == ComparisonOp.NE;
+
+        return () -> column.rowsMatching(valuePredicate, nullsMatch);
     }
 
-    private DataFrame selectByMarkValue(IntPredicate flaggedAtIndex, String description)
+    private DataFrame selectByMarkValue(boolean flagged, String description)
     {
         DataFrame filtered = this.cloneStructure(this.getName() + "-" + description);
 
-        for (int i = 0; i < this.rowCount; i++)
+        int flaggedCount = this.bitmap.cardinality();
+        MutableIntList rowIndices = IntLists.mutable.withInitialCapacity(flagged ? flaggedCount : this.bitmap.size() - flaggedCount);
+        if (flagged)
         {
-            if (flaggedAtIndex.accept(i))
-            {
-                filtered.copyRowFrom(this, this.rowIndexMap(i));
-            }
+            this.bitmap.forEachSetBit(i -> rowIndices.add(this.rowIndexMap(i)));
+        }
+        else
+        {
+            this.bitmap.forEachClearBit(i -> rowIndices.add(this.rowIndexMap(i)));
         }
+
+        filtered.copyRowsFrom(this, rowIndices);
         filtered.seal();
 
         return filtered;
     }
 
-    private void copyRowFrom(DataFrame source, int rowIndex)
+    /**
+     * Copies the rows with the provided physical row indices from the source data frame, which has the same schema as
+     * this one, a column at a time (see {@link DfColumn#gatherInto(DfColumn, IntList)}), after sizing the empty stored
+     * columns of this data frame to fit them
+     */
+    private void copyRowsFrom(DataFrame source, IntList rowIndices)
     {
         for (int columnIndex = 0; columnIndex < this.columns.size(); columnIndex++)
         {
@@ -867,16 +1327,16 @@ public class DataFrame
 
             if (thisColumn.isStored())
             {
-                source.getColumnAt(columnIndex).addRowToColumn(rowIndex, thisColumn);
+                if (thisColumn.getSize() == 0)
+                {
+                    ((DfColumnStored) thisColumn).ensureInitialCapacity(rowIndices.size());
+                }
+
+                source.getColumnAt(columnIndex).gatherInto(thisColumn, rowIndices);
             }
         }
     }
 
-    private void copyIndexedRowFrom(DataFrame source, int rowIndex)
-    {
-        this.copyRowFrom(source, source.rowIndexMap(rowIndex));
-    }
-
     public DataFrame cloneStructure(String newName)
     {
         DataFrame cloned = new DataFrame(newName);
@@ -902,6 +1362,112 @@ public class DataFrame
         return cloned;
     }
 
+    /**
+     * Replaces the computed columns of this data frame with stored columns of the same names and types holding their
+     * values. The values are computed in a single pass over the rows, evaluating the computed columns in the order of
+     * their dependencies on each other, so that each value is computed exactly once and the expressions referring to
+     * other computed columns read their already computed values.
+     *
+     * @return this data frame
+     */
+    public DataFrame materializeComputedColumns()
+    {
+        ListIterable<DfColumnComputed> computedColumns = this.computedColumnsInEvaluationOrder();
+        if (computedColumns.isEmpty())
+        {
+            return this;
+        }
+
+        ListIterable<Expression> expressions = computedColumns.collect(DfColumnComputed::getExpression);
+        ListIterable<DfColumnStored> storedColumns = computedColumns.collect(
+                computed -> this.createStoredColumn(computed.getName(), computed.getType()));
+
+        storedColumns.forEachWithIndex((stored, i) -> {
+            this.columns.set(this.columns.indexOf(computedColumns.get(i)), stored);
+            this.columnsByName.put(stored.getName(), stored);
+            stored.ensureInitialCapacity(this.rowCount);
+        });
+
+        this.schemaChanged();
+
+        boolean materialized = false;
+        try
+        {
+            InMemoryEvaluationVisitor evaluationVisitor = new InMemoryEvaluationVisitor(this.evalContext);
+            int columnCount = storedColumns.size();
+            for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
+            {
+                this.evalContext.setRowIndex(rowIndex);
+                for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+                {
+                    storedColumns.get(columnIndex).addValue(expressions.get(columnIndex).evaluate(evaluationVisitor));
+                }
+            }
+            materialized = true;
+        }
+        finally
+        {
+            if (!materialized)
+            {
+                // an expression failed, put the computed columns back so the data frame is left as it was
+                computedColumns.forEachWithIndex((computed, i) -> {
+                    DfColumnStored stored = storedColumns.get(i);
+                    this.columns.set(this.columns.indexOf(stored), computed);
+                    this.columnsByName.put(computed.getName(), computed);
+                    stored.releaseStorage();
+                });
+
+                this.schemaChanged();
+            }
+        }
+
+        return this.seal();
+    }
+
+    /**
+     * @return the computed columns of this data frame ordered so that each column comes after the computed columns its
+     * expression refers to
+     */
+    private ListIterable<DfColumnComputed> computedColumnsInEvaluationOrder()
+    {
+        MutableList<DfColumnComputed> computedColumns = this.columns.selectInstancesOf(DfColumnComputed.class);
+        MutableMap<String, DfColumnComputed> computedColumnsByName = computedColumns.groupByUniqueKey(DfColumn::getName);
+
+        MutableList<DfColumnComputed> ordered = Lists.mutable.withInitialCapacity(computedColumns.size());
+        MutableSet<DfColumnComputed> visiting = Sets.mutable.of();
+
+        computedColumns.forEach(column -> this.addInEvaluationOrder(column, computedColumnsByName, visiting, ordered));
+
+        return ordered;
+    }
+
+    private void addInEvaluationOrder(
+            DfColumnComputed column,
+            MapIterable<String, DfColumnComputed> computedColumnsByName,
+            MutableSet<DfColumnComputed> visiting,
+            MutableList<DfColumnComputed> ordered)
+    {
+        if (ordered.contains(column))
+        {
+            return;
+        }
+
+        if (!visiting.add(column))
+        {
+            exceptionByKey("DF_CALC_COL_CYCLE")
+                    .with("dataFrameName", this.getName())
+                    .with("columnNames", visiting.collect(DfColumn::getName).toSortedList().makeString())
+                    .fire();
+        }
+
+        ReferencedVariablesVisitor.variablesReferencedIn(column.getExpression())
+                .collectIf(computedColumnsByName::containsKey, computedColumnsByName::get)
+                .forEach(dependency -> this.addInEvaluationOrder(dependency, computedColumnsByName, visiting, ordered));
+
+        visiting.remove(column);
+        ordered.add(column);
+    }
+
     /**
      * creates a copy of the whole data frame with the same schema as the original, including computed columns that
      * are converted to stored columns of the same type
@@ -925,7 +1491,7 @@ public class DataFrame
      */
     public DataFrame copy(String newName, ListIterable<String> columnNamesToCopy)
     {
-        DataFrame copied =  new DataFrame(newName);
+        DataFrame copied = new DataFrame(newName);
 
         ((columnNamesToCopy == null)
                 ? this.columns
@@ -936,6 +1502,89 @@ public class DataFrame
         return copied;
     }
 
+    /**
+     * Creates a read only data frame containing a range of rows of this data frame, in the order the rows are in this
+     * data frame (i.e. if the data frame is sorted, the rows in the range are in the sort order). The columns of the
+     * new data frame are views of the columns of this data frame, so no values are copied. Changes to the values in
+     * the rows of this data frame are visible in the slice, while the slice itself cannot be modified. Use
+     * {@link #copy(String)} to get a modifiable data frame with the same rows.
+     *
+     * @param from the index of the first row in the range, inclusive
+     * @param to the index of the last row in the range, exclusive
+     * @return a data frame containing the rows in the specified range
+     */
+    public DataFrame slice(int from, int to)
+    {
+        if (from < 0 || to > this.rowCount || from > to)
+        {
+            exceptionByKey("DF_SLICE_BAD_RANGE")
+                    .with("from", from)
+                    .with("to", to)
+                    .with("dataFrameName", this.getName())
+                    .with("rowCount", this.rowCount)
+                    .fire();
+        }
+
+        return this.viewOf(this.getName() + "-slice", new DfRowRange(from, to - from, this.virtualRowMap));
+    }
+
+    private DataFrame viewOf(String newName, DfRowRange rows)
+    {
+        DataFrame view = new DataFrame(newName);
+
+        this.columns.each(column -> view.attachColumn(view.createColumnView(column, rows)));
+
+        view.rowCount = rows.size();
+        view.resetBitmap();
+
+        return view;
+    }
+
+    /**
+     * Creates a read only view of the first rows of this data frame, see {@link #slice(int, int)}
+     *
+     * @param rowCountToKeep the number of rows to keep, if the data frame has fewer rows all of them are kept
+     * @return a data frame containing the first rows of this data frame
+     */
+    public DataFrame head(int rowCountToKeep)
+    {
+        return this.slice(0, Math.min(rowCountToKeep, this.rowCount));
+    }
+
+    /**
+     * Creates a read only view of the last rows of this data frame, see {@link #slice(int, int)}
+     *
+     * @param rowCountToKeep the number of rows to keep, if the data frame has fewer rows all of them are kept
+     * @return a data frame containing the last rows of this data frame
+     */
+    public DataFrame tail(int rowCountToKeep)
+    {
+        return this.slice(Math.max(0, this.rowCount - rowCountToKeep), this.rowCount);
+    }
+
+    private DfColumnView createColumnView(DfColumn column, DfRowRange rows)
+    {
+        switch (column.getType())
+        {
+            case LONG:
+                return new DfLongColumnView(this, (DfLongColumn) column, rows);
+            case DOUBLE:
+                return new DfDoubleColumnView(this, (DfDoubleColumn) column, rows);
+            case STRING:
+                return new DfStringColumnView(this, (DfStringColumn) column, rows);
+            case DATE:
+                return new DfDateColumnView(this, (DfDateColumn) column, rows);
+            case DATE_TIME:
+                return new DfDateTimeColumnView(this, (DfDateTimeColumn) column, rows);
+            case DECIMAL:
+                return new DfDecimalColumnView(this, (DfDecimalColumn) column, rows);
+            default:
+                throw exceptionByKey("DF_ADD_COL_UNKNOWN_TYPE")
+                        .with("columnName", column.getName()).with("type", column.getType())
+                        .get();
+        }
+    }
+
     public DataFrame sortBy(ListIterable<String> columnsToSortByNames)
     {
         return this.sortBy(columnsToSortByNames, null);
@@ -954,24 +1603,58 @@ public class DataFrame
             return this;
         }
 
-        DfTuple[] tuples = new DfTuple[this.rowCount];
-        for (int i = 0; i < this.rowCount; i++)
+        if (this.isAlreadySortedBy(columnsToSortBy, sortOrders))
         {
-            tuples[i] = this.rowToTuple(i, columnsToSortBy);
+            this.virtualRowMap = IntInterval.zeroTo(this.rowCount - 1);
+            return this;
         }
 
-        if (sortOrders == null)
+        int columnCount = columnsToSortBy.size();
+        ListIterable<IntComparator> columnComparators = columnsToSortBy.collect(column -> column.rowComparator(column));
+
+        // comparing the values in place rather than extracting them into tuples, so the columns can compare their
+        // values without creating objects. Ties are broken by the row index to keep the sort stable
+        IntComparator rowComparator = (rowIndex1, rowIndex2) -> {
+            for (int i = 0; i < columnCount; i++)
+            {
+                int result = columnComparators.get(i).compare(rowIndex1, rowIndex2);
+                if (result != 0)
+                {
+                    return sortOrders == null ? result : sortOrders.get(i).order(result);
+                }
+            }
+
+            return Integer.compare(rowIndex1, rowIndex2);
+        };
+
+        this.virtualRowMap = IntInterval.zeroTo(this.rowCount - 1).toList().sortThis(rowComparator);
+
+        return this;
+    }
+
+    /**
+     * The rows are in the requested order if each of the stored columns to sort by is sorted in its respective order -
+     * then for any two rows the values in the first column are in order, and if they are equal the values in the
+     * next column are in order, and so on.
+     */
+    private boolean isAlreadySortedBy(ListIterable<DfColumn> columnsToSortBy, ListIterable<DfColumnSortOrder> sortOrders)
+    {
+        if (!columnsToSortBy.allSatisfy(DfColumn::isStored))
         {
-            Arrays.sort(tuples);
+            return false;
         }
-        else
+
+        for (int i = 0; i < columnsToSortBy.size(); i++)
         {
-            Arrays.sort(tuples, (t1, t2) -> t1.compareTo(t2, sortOrders));
+            DfColumnSortOrder sortOrder = sortOrders == null ? ASC : sortOrders.get(i);
+            DfColumnStatistics statistics = columnsToSortBy.get(i).statistics();
+            if (statistics.getSize() != this.rowCount || !statistics.isSortedIn(sortOrder))
+            {
+                return false;
+            }
         }
 
-        this.virtualRowMap = ArrayIterate.collectInt(tuples, DfTuple::order);
-
-        return this;
+        return true;
     }
 
     public DataFrame sortByExpression(String expressionString)
@@ -988,12 +1671,18 @@ public class DataFrame
             return this;
         }
 
-        Expression expression = ExpressionParserHelper.DEFAULT.toExpression(expressionString);
+        Expression expression = new ExpressionOptimizingVisitor(this.getEvalContext(), variableName -> !this.hasColumn(variableName))
+                .optimize(ExpressionParserHelper.DEFAULT.toExpression(expressionString));
+
+        IntToObjectFunction<Value> compiledExpression = DfExpressionCompiler.compileValue(this, expression);
+        IntToObjectFunction<Value> expressionValue = compiledExpression != null
+                ? compiledExpression
+                : rowIndex -> this.evaluateExpression(expression, rowIndex);
 
         DfTuple[] tuples = new DfTuple[this.rowCount];
         for (int i = 0; i < this.rowCount; i++)
         {
-            tuples[i] = new DfTuple(i, new Object[] {this.evaluateExpression(expression, i)});
+            tuples[i] = new DfTuple(i, new Object[] {expressionValue.valueOf(i)});
         }
 
         Arrays.sort(tuples, (t1, t2) -> t1.compareTo(t2, Lists.immutable.of(sortOrder)));
@@ -1003,24 +1692,20 @@ public class DataFrame
         return this;
     }
 
+    /**
+     * Evaluates the expression for a row of this data frame. Expressions can be evaluated concurrently by different
+     * threads as long as this data frame is not modified at the same time.
+     *
+     * @param expression the expression to evaluate
+     * @param rowIndex the (physical) index of the row to evaluate the expression for
+     * @return the value of the expression
+     */
     public Value evaluateExpression(Expression expression, int rowIndex)
     {
         this.getEvalContext().setRowIndex(rowIndex);
         return expression.evaluate(new InMemoryEvaluationVisitor(this.evalContext));
     }
 
-    private DfTuple rowToTuple(int rowIndex, ListIterable<DfColumn> columnsToCollect)
-    {
-        int size = columnsToCollect.size();
-        Object[] values = new Object[size];
-        for (int i = 0; i < size; i++)
-        {
-            values[i] = columnsToCollect.get(i).getObject(rowIndex);
-        }
-
-        return new DfTuple(rowIndex, values);
-    }
-
     public void unsort()
     {
         this.virtualRowMap = null;
@@ -1060,12 +1745,40 @@ public class DataFrame
      */
     public void resetBitmap()
     {
-        this.bitmap = BooleanArrayList.newWithNValues(this.rowCount, false);
+        this.bitmap = new DfBitmap(this.rowCount);
+    }
+
+    /**
+     * @return the bitmap of row flags of this data frame, changes to it are reflected in the flags
+     */
+    public DfBitmap getBitmap()
+    {
+        return this.bitmap;
+    }
+
+    /**
+     * Replaces the row flags of this data frame, for example with a combination of bitmaps created by filters (see
+     * {@link #bitmapBy(String)})
+     *
+     * @param newBitmap the bitmap of row flags, the size of which must match the row count of this data frame
+     */
+    public void setBitmap(DfBitmap newBitmap)
+    {
+        if (newBitmap.size() != this.rowCount)
+        {
+            exceptionByKey("DF_BITMAP_BAD_SIZE")
+                    .with("size", newBitmap.size())
+                    .with("dataFrameName", this.getName())
+                    .with("rowCount", this.rowCount)
+                    .fire();
+        }
+
+        this.bitmap = newBitmap;
     }
 
     public void setFlag(int rowIndex)
     {
-        this.bitmap.set(rowIndex, true);
+        this.bitmap.set(rowIndex);
     }
 
     public boolean isFlagged(int rowIndex)
@@ -1086,7 +1799,7 @@ public class DataFrame
      */
     public DataFrame selectFlagged()
     {
-        return this.selectByMarkValue(this::isFlagged, "flagged");
+        return this.selectByMarkValue(true, "flagged");
     }
 
     /**
@@ -1097,7 +1810,7 @@ public class DataFrame
      */
     public DataFrame selectNotFlagged()
     {
-        return this.selectByMarkValue(this::notFlagged, "not flagged");
+        return this.selectByMarkValue(false, "not flagged");
     }
 
     /**
@@ -1107,21 +1820,25 @@ public class DataFrame
      */
     public void flagRowsBy(String filterExpressionString)
     {
-        this.bitmap = BooleanArrayList.newWithNValues(this.rowCount, false);
+        this.bitmap = this.bitmapBy(filterExpressionString);
+    }
 
-        DataFrameEvalContext context = new DataFrameEvalContext(this);
-        Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
-        InMemoryEvaluationVisitor evaluationVisitor = new InMemoryEvaluationVisitor(context);
+    /**
+     * Creates a bitmap with the flags set for the rows of this data frame for which the filter expression is true,
+     * without changing the row flags of this data frame. The bitmaps can be combined, e.g.
+     * {@code bitmapBy(a).andNot(bitmapBy(b))}, and used as the row flags of the data frame (see
+     * {@link #setBitmap(DfBitmap)}).
+     *
+     * @param filterExpressionString the filter expression
+     * @return the bitmap of the rows matching the filter
+     */
+    public DfBitmap bitmapBy(String filterExpressionString)
+    {
+        DfBitmap rowsMatching = new DfBitmap(this.rowCount);
 
-        for (int i = 0; i < this.rowCount; i++)
-        {
-            context.setRowIndex(i);
-            BooleanValue evalResult = (BooleanValue) filterExpression.evaluate(evaluationVisitor);
-            if (evalResult.isTrue())
-            {
-                this.bitmap.set(i, true);
-            }
-        }
+        this.selectRows(filterExpressionString).forEach(rowsMatching::set);
+
+        return rowsMatching;
     }
 
     /**
@@ -1137,6 +1854,7 @@ public class DataFrame
 
         this.columns.remove(dropped);
         this.columnsByName.remove(columnName);
+        this.schemaChanged();
 
         return this;
     }
@@ -1410,6 +2128,10 @@ public class DataFrame
         DataFrame thisComplementOther = this.cloneStructureAsStored(this.getName() + "-" + other.getName());
         DataFrame otherComplementThis = other.cloneStructureAsStored(other.getName() + "-" + this.getName());
 
+        // the physical indices of the rows without a match, copied to the complements after the join
+        MutableIntList thisComplementRows = IntLists.mutable.of();
+        MutableIntList otherComplementRows = IntLists.mutable.of();
+
         MapIterable<String, String> otherColumnNameMap = this.resolveDuplicateNames(
                 this.columns.collect(DfColumn::getName),
                 other.columns.collect(DfColumn::getName));
@@ -1441,13 +2163,19 @@ public class DataFrame
                 .collect(DfColumn::getName)
                 .reject(otherJoinColumnNames::contains);
 
+        ListIterable<DfColumn> thisJoinColumns = this.columnsNamed(thisJoinColumnNames);
+        ListIterable<DfColumn> otherJoinColumns = other.columnsNamed(otherJoinColumnNames);
+        int joinColumnCount = thisJoinColumns.size();
+        ListIterable<IntComparator> joinColumnComparators = thisJoinColumns.collectWithIndex(
+                (column, i) -> column.rowComparator(otherJoinColumns.get(i)));
+
         IntIntToIntFunction keyComparator = (thisIndex, otherIndex) -> {
-            for (int i = 0; i < thisJoinColumnNames.size(); i++)
+            int thisMappedIndex = this.rowIndexMap(thisIndex);
+            int otherMappedIndex = other.rowIndexMap(otherIndex);
+
+            for (int i = 0; i < joinColumnCount; i++)
             {
-                int result = DfTuple.compareMindingNulls(
-                        this.getObject(thisJoinColumnNames.get(i), thisIndex),
-                        other.getObject(otherJoinColumnNames.get(i), otherIndex)
-                );
+                int result = joinColumnComparators.get(i).compare(thisMappedIndex, otherMappedIndex);
                 if (result != 0)
                 {
                     return result;
@@ -1487,7 +2215,7 @@ public class DataFrame
                     }
                     else if (joinType.isJoinWithComplements())
                     {
-                        thisComplementOther.copyIndexedRowFrom(this, thisMakeFinal);
+                        thisComplementRows.add(this.rowIndexMap(thisMakeFinal));
                     }
                     thisRowIndex++;
                 }
@@ -1509,7 +2237,7 @@ public class DataFrame
                     }
                     else if (joinType.isJoinWithComplements())
                     {
-                        otherComplementThis.copyIndexedRowFrom(other, otherMakeFinal);
+                        otherComplementRows.add(other.rowIndexMap(otherMakeFinal));
                     }
                     otherRowIndex++;
                 }
@@ -1553,17 +2281,20 @@ public class DataFrame
         {
             while (thisRowIndex < thisRowCount)
             {
-                thisComplementOther.copyIndexedRowFrom(this, thisRowIndex);
+                thisComplementRows.add(this.rowIndexMap(thisRowIndex));
                 thisRowIndex++;
             }
 
             while (otherRowIndex < otherRowCount)
             {
-                otherComplementThis.copyIndexedRowFrom(other, otherRowIndex);
+                otherComplementRows.add(other.rowIndexMap(otherRowIndex));
                 otherRowIndex++;
             }
         }
 
+        thisComplementOther.copyRowsFrom(this, thisComplementRows);
+        otherComplementThis.copyRowsFrom(other, otherComplementRows);
+
         thisComplementOther.seal();
         otherComplementThis.seal();
         return Tuples.triplet(thisComplementOther, joined, otherComplementThis);
@@ -1604,6 +2335,7 @@ public class DataFrame
 
         this.columns.removeAllIterable(columnsToDrop);
         this.columnsByName.removeAllKeys(columnNamesToDrop.toSet());
+        this.schemaChanged();
 
         return this;
     }
@@ -0,0 +1,194 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.procedure.primitive.IntProcedure;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A fixed size set of flags, one per row of a data frame, packed into an array of {@code long} words. The bitmaps of
+ * the same size can be combined using set operations, which produce new bitmaps leaving the operands unchanged, so
+ * bitmaps created by different filters can be kept and combined as needed (see {@link DataFrame#bitmapBy(String)}).
+ */
+final public class DfBitmap
+{
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final long[] words;
+    private final int size;
+
+    public DfBitmap(int newSize)
+    {
+        this(new long[wordIndex(newSize - 1) + 1], newSize);
+    }
+
+    private DfBitmap(long[] newWords, int newSize)
+    {
+        this.words = newWords;
+        this.size = newSize;
+    }
+
+    private static int wordIndex(int index)
+    {
+        return index >> ADDRESS_BITS_PER_WORD;
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean get(int index)
+    {
+        this.checkIndex(index);
+        return (this.words[wordIndex(index)] & (1L << index)) != 0;
+    }
+
+    public void set(int index)
+    {
+        this.checkIndex(index);
+        this.words[wordIndex(index)] |= 1L << index;
+    }
+
+    public void clear(int index)
+    {
+        this.checkIndex(index);
+        this.words[wordIndex(index)] &= ~(1L << index);
+    }
+
+    /**
+     * @return the number of flags set in this bitmap
+     */
+    public int cardinality()
+    {
+        int cardinality = 0;
+        for (long word : this.words)
+        {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    public DfBitmap and(DfBitmap other)
+    {
+        this.checkSameSize(other);
+
+        long[] result = new long[this.words.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = this.words[i] & other.words[i];
+        }
+        return new DfBitmap(result, this.size);
+    }
+
+    public DfBitmap or(DfBitmap other)
+    {
+        this.checkSameSize(other);
+
+        long[] result = new long[this.words.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = this.words[i] | other.words[i];
+        }
+        return new DfBitmap(result, this.size);
+    }
+
+    /**
+     * @param other the flags to exclude
+     * @return a bitmap with the flags set in this bitmap and not set in the other one
+     */
+    public DfBitmap andNot(DfBitmap other)
+    {
+        this.checkSameSize(other);
+
+        long[] result = new long[this.words.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = this.words[i] & ~other.words[i];
+        }
+        return new DfBitmap(result, this.size);
+    }
+
+    public DfBitmap xor(DfBitmap other)
+    {
+        this.checkSameSize(other);
+
+        long[] result = new long[this.words.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = this.words[i] ^ other.words[i];
+        }
+        return new DfBitmap(result, this.size);
+    }
+
+    /**
+     * @return a bitmap with the flags set where they are not set in this bitmap
+     */
+    public DfBitmap not()
+    {
+        long[] result = new long[this.words.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = ~this.words[i];
+        }
+        return new DfBitmap(result, this.size).clearUnused();
+    }
+
+    public DfBitmap copy()
+    {
+        return new DfBitmap(this.words.clone(), this.size);
+    }
+
+    /**
+     * calls the procedure for the index of each set flag in ascending order, skipping the words with no flags set
+     *
+     * @param procedure the procedure to call
+     */
+    public void forEachSetBit(IntProcedure procedure)
+    {
+        for (int wordIndex = 0; wordIndex < this.words.length; wordIndex++)
+        {
+            long word = this.words[wordIndex];
+            while (word != 0)
+            {
+                procedure.value((wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * calls the procedure for the index of each flag that is not set in ascending order
+     *
+     * @param procedure the procedure to call
+     */
+    public void forEachClearBit(IntProcedure procedure)
+    {
+        this.not().forEachSetBit(procedure);
+    }
+
+    private DfBitmap clearUnused()
+    {
+        int usedBits = this.size & ((1 << ADDRESS_BITS_PER_WORD) - 1);
+        if (usedBits != 0)
+        {
+            this.words[this.words.length - 1] &= (1L << usedBits) - 1;
+        }
+        return this;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + " Size: " + this.size);
+        }
+    }
+
+    private void checkSameSize(DfBitmap other)
+    {
+        if (this.size != other.size)
+        {
+            exceptionByKey("DF_BITMAP_DIFF_SIZES").with("size", this.size).with("otherSize", other.size).fire();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+/**
+ * Provides the memory for the values of stored columns kept outside of the Java heap. The values of a column are
+ * split across several buffers, so a column is not limited by the maximum capacity of a single buffer. The buffers
+ * holding the values of a column are requested one at a time, as the column is loaded, from a group of buffers
+ * dedicated to the column.
+ */
+interface DfBufferAllocator
+{
+    /**
+     * @return a new group with no buffers in it
+     */
+    DfBufferGroup newBufferGroup();
+}
@@ -0,0 +1,28 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The buffers, provided by a {@link DfBufferAllocator}, holding the values of a single list outside of the Java heap.
+ * The buffers are added to the group as the list grows and are released all together once the list is no longer used.
+ */
+interface DfBufferGroup
+{
+    /**
+     * @param capacity the capacity of the new buffer in bytes
+     * @return a new buffer in native byte order, added to the end of the group
+     */
+    ByteBuffer addBuffer(int capacity);
+
+    /**
+     * Releases the memory held by the buffer most recently added to the group. The buffer must not be accessed after
+     * it is released.
+     */
+    void removeLastBuffer();
+
+    /**
+     * Releases the memory held by all the buffers in the group. The buffers must not be accessed after they are
+     * released.
+     */
+    void release();
+}
@@ -0,0 +1,541 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An append-only list of primitive values stored in fixed size chunks. Unlike an array backed list, growing the list
+ * never copies the values already added to it (other than while the first chunk is filling up), so loading a large
+ * column does not require extra memory for a copy of the column and does not leave large arrays behind to be garbage
+ * collected. Accessing an element by index is a shift and a mask.
+ * <p>
+ * Once no more values will be added, the list can be compacted into a single array. A compacted list can still be
+ * added to, in which case it grows like an array backed list.
+ * <p>
+ * The values can also be stored outside of the Java heap, in buffers provided by a {@link DfBufferAllocator}. The
+ * values are then added to the chunks on the heap until they fill a buffer, at which point they are moved into a new
+ * buffer, so at most one buffer worth of values is on the heap at any time. Sealing the list moves the remaining
+ * values into a last, partially filled, buffer. The values in the buffers can be read and updated, adding a value
+ * after the list is sealed moves the values of the partially filled buffer back to the heap.
+ * <p>
+ * This class keeps track of the chunks and the buffers, the subclasses read and write the values of a specific
+ * primitive type.
+ *
+ * @param <A> the type of the arrays holding the values, such as {@code long[]}
+ */
+abstract class DfChunkedList<A>
+{
+    static final int CHUNK_SHIFT = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    static private final int MIN_FIRST_CHUNK_SIZE = 16;
+    static private final int COMPACTED_SHIFT = 31; // a non-negative index shifted by 31 is always zero
+    static private final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    static private final ByteBuffer[] NO_BUFFERS = new ByteBuffer[0];
+    static private final int BUFFER_SHIFT = 20;
+    static private final int BUFFER_SIZE = 1 << BUFFER_SHIFT;
+    static private final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final A[] noChunks;
+    private final int valueBytes;
+    private final int firstChunkSize;
+
+    // the values at the indices starting from bufferedSize, the chunk indices are relative to bufferedSize
+    private A[] chunks;
+    private int chunkCount = 0;
+    private int lastChunkLength = 0;
+    private int size = 0;
+    private int shift = CHUNK_SHIFT;
+    private int mask = CHUNK_SIZE - 1;
+
+    // the values at the indices below bufferedSize, only the last buffer can be partially filled
+    private ByteBuffer[] buffers = NO_BUFFERS;
+    private int bufferCount = 0;
+    private int bufferedSize = 0;
+    private DfBufferAllocator bufferAllocator = null;
+    private DfBufferGroup bufferGroup = null;
+
+    private int referenceCount = 1; // the number of columns sharing this list, see retain()
+
+    /**
+     * @param newNoChunks an empty array of chunks of the type used by the subclass
+     * @param newValueBytes the number of bytes a value takes in a buffer
+     * @param initialCapacity the expected number of values, used to size the first chunk
+     */
+    protected DfChunkedList(A[] newNoChunks, int newValueBytes, int initialCapacity)
+    {
+        this.noChunks = newNoChunks;
+        this.chunks = newNoChunks;
+        this.valueBytes = newValueBytes;
+        this.firstChunkSize = Math.min(Math.max(initialCapacity, MIN_FIRST_CHUNK_SIZE), CHUNK_SIZE);
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * releases the unused capacity of the last chunk
+     */
+    public void trim()
+    {
+        if (this.chunkCount == 0)
+        {
+            return;
+        }
+
+        int lastChunkIndex = this.chunkCount - 1;
+        int lastChunkSize = this.size - this.bufferedSize - (lastChunkIndex << this.shift);
+        if (this.lastChunkLength > lastChunkSize)
+        {
+            this.chunks[lastChunkIndex] = this.copyOf(this.chunks[lastChunkIndex], lastChunkSize);
+        }
+
+        if (this.chunks.length > this.chunkCount)
+        {
+            this.chunks = Arrays.copyOf(this.chunks, this.chunkCount);
+        }
+    }
+
+    /**
+     * prepares the list for read only access
+     *
+     * @param compact if <code>true</code>, the values are copied into a single array, otherwise only the unused
+     *                capacity is released. The values of a list stored outside of the Java heap are moved into
+     *                buffers instead.
+     */
+    public void seal(boolean compact)
+    {
+        if (this.bufferAllocator != null)
+        {
+            this.moveHeapValuesToBuffers(true);
+        }
+        else if (compact)
+        {
+            this.compact();
+        }
+        else
+        {
+            this.trim();
+        }
+    }
+
+    /**
+     * copies the values into a single array of the exact size of the list
+     */
+    public void compact()
+    {
+        if (this.bufferCount > 0)
+        {
+            return;
+        }
+
+        if (this.chunkCount <= 1)
+        {
+            this.trim();
+        }
+        else
+        {
+            A values = this.toArray();
+            this.chunks = Arrays.copyOf(this.noChunks, 1);
+            this.chunks[0] = values;
+            this.chunkCount = 1;
+            this.lastChunkLength = this.size;
+        }
+
+        this.shift = COMPACTED_SHIFT;
+        this.mask = Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return a new array of the size of the list with all of its values
+     */
+    public A toArray()
+    {
+        A result = this.newArray(this.size);
+        for (int i = 0; i < this.bufferCount; i++)
+        {
+            ByteBuffer buffer = this.buffers[i].duplicate().order(this.buffers[i].order());
+            buffer.clear();
+            this.getValues(buffer, result, i << BUFFER_SHIFT, buffer.capacity() / this.valueBytes);
+        }
+
+        this.copyHeapValues(0, result, this.bufferedSize, this.size - this.bufferedSize);
+        return result;
+    }
+
+    /**
+     * stores the values of this list outside of the Java heap, in buffers provided by the allocator. The values that
+     * fill whole buffers are moved into the buffers right away, the rest are moved when the list is sealed or fills
+     * up another buffer. Has no effect if the list already stores its values outside of the heap.
+     *
+     * @param allocator the allocator to get the buffers from
+     */
+    public void storeOffHeap(DfBufferAllocator allocator)
+    {
+        if (this.bufferAllocator != null)
+        {
+            return;
+        }
+
+        this.bufferAllocator = allocator;
+        this.moveHeapValuesToBuffers(false);
+    }
+
+    /**
+     * @return <code>true</code> if the values are stored outside of the Java heap, <code>false</code> otherwise
+     */
+    public boolean isOffHeap()
+    {
+        return this.bufferAllocator != null;
+    }
+
+    /**
+     * registers one more owner of this list, such as a column sharing the list with another column, so that the list
+     * keeps its buffers outside of the Java heap until all of its owners release it
+     */
+    public synchronized void retain()
+    {
+        this.referenceCount++;
+    }
+
+    /**
+     * releases the list on behalf of one of its owners, once all of them have released it the buffers outside of the
+     * Java heap holding the values, if any, are released and the list becomes empty
+     */
+    public synchronized void release()
+    {
+        this.referenceCount--;
+        if (this.referenceCount == 0 && this.bufferAllocator != null)
+        {
+            if (this.bufferGroup != null)
+            {
+                this.bufferGroup.release();
+            }
+
+            this.bufferGroup = null;
+            this.bufferAllocator = null;
+            this.buffers = NO_BUFFERS;
+            this.bufferCount = 0;
+            this.bufferedSize = 0;
+            this.chunks = this.noChunks;
+            this.chunkCount = 0;
+            this.lastChunkLength = 0;
+            this.size = 0;
+        }
+    }
+
+    /**
+     * @param length the length of the array
+     * @return a new array of the type holding the values
+     */
+    protected abstract A newArray(int length);
+
+    /**
+     * reads values from a buffer starting at its position, without changing the position
+     */
+    protected abstract void getValues(ByteBuffer buffer, A target, int targetOffset, int count);
+
+    /**
+     * writes values to a buffer starting at its position, without changing the position
+     */
+    protected abstract void putValues(ByteBuffer buffer, A source, int sourceOffset, int count);
+
+    protected final void checkIndex(int index)
+    {
+        if (index < 0 || index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + " Size: " + this.size);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the value at the index is in a buffer, <code>false</code> if it is on the heap
+     */
+    protected final boolean isBuffered(int index)
+    {
+        return index < this.bufferedSize;
+    }
+
+    protected final ByteBuffer bufferOf(int index)
+    {
+        return this.buffers[index >>> BUFFER_SHIFT];
+    }
+
+    /**
+     * @return the position of the value at the index in its buffer, in values rather than bytes
+     */
+    protected final int bufferOffsetOf(int index)
+    {
+        return index & BUFFER_MASK;
+    }
+
+    /**
+     * @return the index of a value on the heap relative to the first value on the heap
+     */
+    protected final int heapIndexOf(int index)
+    {
+        return index - this.bufferedSize;
+    }
+
+    protected final A chunkOf(int heapIndex)
+    {
+        return this.chunks[heapIndex >>> this.shift];
+    }
+
+    protected final int chunkOffsetOf(int heapIndex)
+    {
+        return heapIndex & this.mask;
+    }
+
+    /**
+     * prepares the list for adding a value, moving the values of a partially filled last buffer back to the heap
+     *
+     * @return the heap index of the value to add
+     */
+    protected final int heapIndexToAddAt()
+    {
+        if ((this.bufferedSize & BUFFER_MASK) != 0)
+        {
+            this.moveLastBufferToHeap();
+        }
+
+        return this.size - this.bufferedSize;
+    }
+
+    /**
+     * @return the chunk with room for a value at the heap index, which is the first index past the end of the list
+     */
+    protected final A chunkWithRoomAt(int heapIndex)
+    {
+        int chunkIndex = heapIndex >>> this.shift;
+        if (chunkIndex == this.chunkCount)
+        {
+            if (this.chunkCount == this.chunks.length)
+            {
+                this.chunks = Arrays.copyOf(this.chunks, Math.max(this.chunks.length * 2, 4));
+            }
+
+            this.lastChunkLength = chunkIndex == 0 && this.bufferedSize == 0 ? this.firstChunkSize : CHUNK_SIZE;
+            this.chunks[chunkIndex] = this.newArray(this.lastChunkLength);
+            this.chunkCount++;
+        }
+        else if ((heapIndex & this.mask) == this.lastChunkLength)
+        {
+            // the first chunk filling up, a trimmed last chunk, or a compacted list
+            int maxLength = this.shift == COMPACTED_SHIFT ? MAX_ARRAY_SIZE : CHUNK_SIZE;
+            int newLength = (int) Math.min((long) this.lastChunkLength * 2 + 1, maxLength);
+            this.chunks[chunkIndex] = this.copyOf(this.chunks[chunkIndex], newLength);
+        }
+
+        return this.chunks[chunkIndex];
+    }
+
+    /**
+     * completes adding values written to the chunks returned by {@link #chunkWithRoomAt(int)}, moving them into a
+     * buffer once they fill it
+     *
+     * @param count the number of values added
+     */
+    protected final void added(int count)
+    {
+        this.size += count;
+
+        if (this.bufferAllocator != null && this.size - this.bufferedSize == BUFFER_SIZE)
+        {
+            this.moveHeapValuesToBuffers(false);
+        }
+    }
+
+    /**
+     * appends all the values from another chunked list to the end of this one, copying them a chunk at a time
+     *
+     * @param other the list to append
+     */
+    protected final void addAllChunked(DfChunkedList<A> other)
+    {
+        A bufferValues = other.bufferCount == 0 ? null : this.newArray(CHUNK_SIZE);
+        for (int i = 0; i < other.bufferCount; i++)
+        {
+            // the buffer is duplicated so that reading it does not change the position of the buffer shared by readers
+            ByteBuffer buffer = other.buffers[i].duplicate().order(other.buffers[i].order());
+            buffer.clear();
+            while (buffer.hasRemaining())
+            {
+                int count = Math.min(CHUNK_SIZE, buffer.remaining() / this.valueBytes);
+                this.getValues(buffer, bufferValues, 0, count);
+                buffer.position(buffer.position() + count * this.valueBytes);
+                this.addValues(bufferValues, 0, count);
+            }
+        }
+
+        int otherHeapSize = other.size - other.bufferedSize;
+        int copied = 0;
+        while (copied < otherHeapSize)
+        {
+            int sourceOffset = copied & other.mask;
+            int count = Math.min(otherHeapSize - copied, other.chunkLength(copied >>> other.shift) - sourceOffset);
+            this.addValues(other.chunks[copied >>> other.shift], sourceOffset, count);
+            copied += count;
+        }
+    }
+
+    /**
+     * @param copy an empty list to copy the values of this list into
+     * @param allocator the allocator of the buffers to store the values of the copy in, {@code null} to store them on
+     * the Java heap
+     * @return the copy
+     */
+    protected final <L extends DfChunkedList<A>> L copyInto(L copy, DfBufferAllocator allocator)
+    {
+        if (allocator != null)
+        {
+            copy.storeOffHeap(allocator);
+        }
+
+        copy.addAllChunked(this);
+        return copy;
+    }
+
+    private void addValues(A source, int sourceOffset, int count)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        this.heapIndexToAddAt();
+
+        int addedCount = 0;
+        while (addedCount < count)
+        {
+            int heapSize = this.size - this.bufferedSize;
+            A chunk = this.chunkWithRoomAt(heapSize);
+            int offset = heapSize & this.mask;
+
+            int addCount = Math.min(count - addedCount, this.lastChunkLength - offset);
+            if (this.bufferAllocator != null)
+            {
+                addCount = Math.min(addCount, BUFFER_SIZE - heapSize);
+            }
+
+            System.arraycopy(source, sourceOffset + addedCount, chunk, offset, addCount);
+            addedCount += addCount;
+            this.added(addCount);
+        }
+    }
+
+    /**
+     * moves the values on the heap into new buffers, leaving on the heap the values that do not fill a whole buffer
+     * unless all the values are to be moved
+     *
+     * @param all if <code>true</code>, all the values are moved, so the last buffer can be partially filled
+     */
+    private void moveHeapValuesToBuffers(boolean all)
+    {
+        int heapSize = this.size - this.bufferedSize;
+        int moveCount = all ? heapSize : heapSize & ~BUFFER_MASK;
+        if (moveCount == 0)
+        {
+            return;
+        }
+
+        if (this.bufferGroup == null)
+        {
+            this.bufferGroup = this.bufferAllocator.newBufferGroup();
+        }
+
+        int moved = 0;
+        while (moved < moveCount)
+        {
+            int bufferSize = Math.min(BUFFER_SIZE, moveCount - moved);
+            ByteBuffer buffer = this.bufferGroup.addBuffer(bufferSize * this.valueBytes);
+            int written = 0;
+            while (written < bufferSize)
+            {
+                int heapIndex = moved + written;
+                int offset = heapIndex & this.mask;
+                int count = Math.min(bufferSize - written, this.chunkLength(heapIndex >>> this.shift) - offset);
+
+                this.putValues(buffer, this.chunks[heapIndex >>> this.shift], offset, count);
+                buffer.position(buffer.position() + count * this.valueBytes);
+                written += count;
+            }
+            buffer.clear();
+
+            if (this.bufferCount == this.buffers.length)
+            {
+                this.buffers = Arrays.copyOf(this.buffers, Math.max(this.buffers.length * 2, 4));
+            }
+            this.buffers[this.bufferCount++] = buffer;
+            moved += bufferSize;
+        }
+
+        // the values left on the heap, only if the list was moved off heap after it had grown past a buffer
+        A remaining = this.newArray(heapSize - moveCount);
+        this.copyHeapValues(moveCount, remaining, 0, heapSize - moveCount);
+
+        this.bufferedSize += moveCount;
+        this.resetHeapValues();
+
+        this.addValues(remaining, 0, heapSize - moveCount);
+    }
+
+    private void moveLastBufferToHeap()
+    {
+        ByteBuffer lastBuffer = this.buffers[this.bufferCount - 1];
+        ByteBuffer buffer = lastBuffer.duplicate().order(lastBuffer.order());
+        buffer.clear();
+        int count = buffer.capacity() / this.valueBytes;
+        A values = this.newArray(count);
+        this.getValues(buffer, values, 0, count);
+
+        this.bufferGroup.removeLastBuffer();
+        this.bufferCount--;
+        this.buffers[this.bufferCount] = null;
+        this.bufferedSize -= count;
+        this.resetHeapValues();
+
+        this.addValues(values, 0, count);
+    }
+
+    private void resetHeapValues()
+    {
+        this.chunks = this.noChunks;
+        this.chunkCount = 0;
+        this.lastChunkLength = 0;
+        this.shift = CHUNK_SHIFT;
+        this.mask = CHUNK_SIZE - 1;
+        this.size = this.bufferedSize;
+    }
+
+    private void copyHeapValues(int fromHeapIndex, A target, int targetOffset, int count)
+    {
+        int copied = 0;
+        while (copied < count)
+        {
+            int heapIndex = fromHeapIndex + copied;
+            int offset = heapIndex & this.mask;
+            int copyCount = Math.min(count - copied, this.chunkLength(heapIndex >>> this.shift) - offset);
+            System.arraycopy(this.chunks[heapIndex >>> this.shift], offset, target, targetOffset + copied, copyCount);
+            copied += copyCount;
+        }
+    }
+
+    /**
+     * @return the length of the chunk at the index, all the chunks but the last one are full
+     */
+    private int chunkLength(int chunkIndex)
+    {
+        return chunkIndex == this.chunkCount - 1 ? this.lastChunkLength : CHUNK_SIZE;
+    }
+
+    private A copyOf(A chunk, int newLength)
+    {
+        A copy = this.newArray(newLength);
+        System.arraycopy(chunk, 0, copy, 0, Math.min(this.lastChunkLength, newLength));
+        this.lastChunkLength = newLength;
+        return copy;
+    }
+}
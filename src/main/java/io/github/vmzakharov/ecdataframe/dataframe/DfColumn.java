@@ -2,6 +2,8 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.block.comparator.primitive.IntComparator;
+import org.eclipse.collections.api.list.primitive.IntList;
 
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
@@ -61,6 +63,20 @@ public interface DfColumn
 
     void addRowToColumn(int rowIndex, DfColumn target);
 
+    /**
+     * Adds the values in the rows of this column with the specified indices to the target column, in the order of
+     * the indices. The target column is a stored column of the same type as this one. Equivalent to calling
+     * {@link #addRowToColumn(int, DfColumn)} for each row, the column types storing primitive values override this to
+     * copy them directly.
+     *
+     * @param target the column to add the values to
+     * @param rowIndices the indices of the rows of this column to add
+     */
+    default void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        rowIndices.forEach(rowIndex -> this.addRowToColumn(rowIndex, target));
+    }
+
     default void seal()
     {
         // nothing
@@ -71,6 +87,23 @@ public interface DfColumn
         // nothing
     }
 
+    /**
+     * Makes this column store its values outside of the Java heap, in the buffers provided by the allocator of its
+     * data frame, see {@link DataFrame#enableOffHeapStorage()}.
+     */
+    default void enableOffHeapStorage()
+    {
+        // nothing
+    }
+
+    /**
+     * Releases the memory held by this column outside of the Java heap, if any. The column cannot be used afterwards.
+     */
+    default void releaseStorage()
+    {
+        // nothing
+    }
+
     DfColumn mergeWithInto(DfColumn other, DataFrame target);
 
     DfColumn copyTo(DataFrame target);
@@ -83,6 +116,48 @@ public interface DfColumn
                 .getUnsupported();
     }
 
+    /**
+     * Compares the value in the specified row of this column to the value in the specified row of another column of
+     * the same type. Null values are considered to be less than any non-null value. The row indices are the indices
+     * of the rows in the respective data frames, i.e. they are not affected by the data frame sort order.
+     *
+     * @param thisRowIndex the index of the row in this column
+     * @param otherColumn the column to compare to, can be this column
+     * @param otherRowIndex the index of the row in the other column
+     * @return a negative integer, zero, or a positive integer as the value in this column is less than, equal to, or
+     * greater than the value in the other column
+     */
+    default int compareMindingNulls(int thisRowIndex, DfColumn otherColumn, int otherRowIndex)
+    {
+        return DfTuple.compareMindingNulls(this.getObject(thisRowIndex), otherColumn.getObject(otherRowIndex));
+    }
+
+    /**
+     * Creates a comparator of the values in the rows of this column (the first argument of the comparator) to the
+     * values in the rows of another column of the same type (the second argument). The same rules as for
+     * {@link #compareMindingNulls(int, DfColumn, int)} apply. Columns can override this method to prepare for a large
+     * number of comparisons, for example sorting or joining.
+     *
+     * @param otherColumn the column to compare to, can be this column
+     * @return a comparator of row values
+     */
+    default IntComparator rowComparator(DfColumn otherColumn)
+    {
+        return (thisRowIndex, otherRowIndex) -> this.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+    }
+
+    /**
+     * Returns the statistics describing the values in this column. Stored columns collect their statistics when the data
+     * frame they belong to is sealed and keep them until the column is changed, computed columns collect them every
+     * time this method is called.
+     *
+     * @return the statistics of the values in this column
+     */
+    default DfColumnStatistics statistics()
+    {
+        return DfColumnStatistics.of(this);
+    }
+
     default int dataFrameRowIndex(int virtualRowIndex)
     {
         return this.getDataFrame().rowIndexMap(virtualRowIndex);
@@ -14,6 +14,8 @@ implements DfColumn
 
     private DataFrame dataFrame;
 
+    private DfColumnStatistics statistics = null;
+
     public DfColumnAbstract(DataFrame newDataFrame, String newName)
     {
         this.dataFrame = newDataFrame;
@@ -51,6 +53,12 @@ implements DfColumn
     @Override
     public DfColumn cloneSchemaAndAttachTo(DataFrame attachTo, String newName)
     {
+        if (this instanceof DfColumnView)
+        {
+            // a view cannot exist on its own, so it is cloned as a stored column
+            return attachTo.newColumn(newName, this.getType());
+        }
+
         DfColumn clonedColumn;
         try
         {
@@ -74,6 +82,46 @@ implements DfColumn
         return attachTo.attachColumn(clonedColumn);
     }
 
+    @Override
+    public DfColumnStatistics statistics()
+    {
+        if (!this.isStored())
+        {
+            return DfColumn.super.statistics();
+        }
+
+        // appending values to the column changes its size, other changes invalidate the statistics explicitly
+        if (this.statistics == null || this.statistics.getSize() != this.getSize())
+        {
+            this.statistics = DfColumnStatistics.of(this);
+        }
+
+        return this.statistics;
+    }
+
+    /**
+     * to be called by stored columns when a value in the column is changed in place, the cached values of computed
+     * columns that may depend on the changed value are discarded as well
+     */
+    protected void invalidateStatistics()
+    {
+        this.statistics = null;
+
+        if (this.dataFrame != null)
+        {
+            this.dataFrame.valuesChanged();
+        }
+    }
+
+    /**
+     * to be called by stored columns sharing their values with another column, so that the statistics are not
+     * collected again for the same values
+     */
+    protected void shareStatisticsWith(DfColumnAbstract target)
+    {
+        target.statistics = this.statistics;
+    }
+
     protected DfColumn validateAndCreateTargetColumn(DfColumn other, DataFrame target)
     {
         if (!this.getType().equals(other.getType()))
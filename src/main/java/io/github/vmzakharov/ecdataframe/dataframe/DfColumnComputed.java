@@ -4,6 +4,7 @@ import io.github.vmzakharov.ecdataframe.dsl.DataFrameEvalContext;
 import io.github.vmzakharov.ecdataframe.dsl.Expression;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.visitor.InMemoryEvaluationVisitor;
+import org.eclipse.collections.api.block.procedure.primitive.ObjectIntProcedure;
 
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
@@ -28,6 +29,17 @@ extends DfColumn
 
     @Override
     default Value getValue(int rowIndex)
+    {
+        return this.evaluate(rowIndex);
+    }
+
+    /**
+     * evaluates the expression of this column for the specified row, bypassing the cached values if any
+     *
+     * @param rowIndex the row to evaluate the expression for
+     * @return the value of the expression
+     */
+    default Value evaluate(int rowIndex)
     {
         // todo: column in the variable expr or some other optimization?
         DataFrameEvalContext evalContext = this.getDataFrame().getEvalContext();
@@ -36,6 +48,31 @@ extends DfColumn
         return this.getExpression().evaluate(new InMemoryEvaluationVisitor(evalContext));
     }
 
+    /**
+     * evaluates the expression of this column for each row, for example to cache the values. The values can be
+     * computed while the value of another expression is being evaluated, so the row of the evaluation context is
+     * restored afterwards.
+     *
+     * @param procedure the procedure to call with each value and its row index
+     */
+    default void evaluateEachRow(ObjectIntProcedure<Value> procedure)
+    {
+        DataFrameEvalContext evalContext = this.getDataFrame().getEvalContext();
+        int currentRowIndex = evalContext.getRowIndex();
+        try
+        {
+            int size = this.getSize();
+            for (int rowIndex = 0; rowIndex < size; rowIndex++)
+            {
+                procedure.value(this.evaluate(rowIndex), rowIndex);
+            }
+        }
+        finally
+        {
+            evalContext.setRowIndex(currentRowIndex);
+        }
+    }
+
     @Override
     default void addEmptyValue()
     {
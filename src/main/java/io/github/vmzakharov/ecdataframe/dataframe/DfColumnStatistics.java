@@ -0,0 +1,237 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.comparator.primitive.IntComparator;
+
+import java.util.BitSet;
+
+/**
+ * Lightweight statistics describing the values of a column: the number of null values, the smallest and the largest
+ * non-null values, whether the values are sorted, and an estimate of the number of distinct non-null values. The
+ * statistics are collected in a single pass over the column. The values are ordered the same way they are ordered
+ * when a data frame is sorted by the column, with null values being the smallest.
+ */
+final public class DfColumnStatistics
+{
+    private static final int MIN_DISTINCT_COUNTER_BITS = 1 << 10;
+    private static final int MAX_DISTINCT_COUNTER_BITS = 1 << 24;
+
+    private final int size;
+    private final int nullCount;
+    private final Object min;
+    private final Object max;
+    private final boolean ascending;
+    private final boolean descending;
+    private final int distinctCountEstimate;
+
+    private DfColumnStatistics(
+            int newSize, int newNullCount, Object newMin, Object newMax,
+            boolean newAscending, boolean newDescending, int newDistinctCountEstimate)
+    {
+        this.size = newSize;
+        this.nullCount = newNullCount;
+        this.min = newMin;
+        this.max = newMax;
+        this.ascending = newAscending;
+        this.descending = newDescending;
+        this.distinctCountEstimate = newDistinctCountEstimate;
+    }
+
+    static DfColumnStatistics of(DfColumn column)
+    {
+        int size = column.getSize();
+        IntComparator comparator = column.rowComparator(column);
+
+        int nullCount = 0;
+        int minIndex = -1;
+        int maxIndex = -1;
+        boolean ascending = true;
+        boolean descending = true;
+
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            if (rowIndex > 0 && (ascending || descending))
+            {
+                int result = comparator.compare(rowIndex - 1, rowIndex);
+                ascending &= result <= 0;
+                descending &= result >= 0;
+            }
+
+            if (column.isNull(rowIndex))
+            {
+                nullCount++;
+            }
+            else
+            {
+                if (minIndex == -1 || comparator.compare(rowIndex, minIndex) < 0)
+                {
+                    minIndex = rowIndex;
+                }
+
+                if (maxIndex == -1 || comparator.compare(rowIndex, maxIndex) > 0)
+                {
+                    maxIndex = rowIndex;
+                }
+            }
+        }
+
+        return new DfColumnStatistics(
+                size,
+                nullCount,
+                minIndex == -1 ? null : column.getObject(minIndex),
+                maxIndex == -1 ? null : column.getObject(maxIndex),
+                ascending,
+                descending,
+                estimateDistinctCount(column, size - nullCount));
+    }
+
+    /**
+     * Dictionary encoded columns are counted exactly by their codes, for the other columns the distinct count is
+     * estimated using linear counting of the value hashes
+     */
+    private static int estimateDistinctCount(DfColumn column, int nonNullCount)
+    {
+        if (nonNullCount <= 1)
+        {
+            return nonNullCount;
+        }
+
+        int size = column.getSize();
+
+        if (column instanceof DfStringColumnStored)
+        {
+            DfStringColumnStored stringColumn = (DfStringColumnStored) column;
+            BitSet codesSeen = new BitSet(stringColumn.dictionarySize());
+            for (int rowIndex = 0; rowIndex < size; rowIndex++)
+            {
+                if (!stringColumn.isNull(rowIndex))
+                {
+                    codesSeen.set(stringColumn.getCode(rowIndex));
+                }
+            }
+            return codesSeen.cardinality();
+        }
+
+        int bitCount = Math.min(MAX_DISTINCT_COUNTER_BITS, Math.max(MIN_DISTINCT_COUNTER_BITS, Integer.highestOneBit(nonNullCount) << 1));
+        BitSet hashesSeen = new BitSet(bitCount);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            if (!column.isNull(rowIndex))
+            {
+                hashesSeen.set((int) (mix(valueHash(column, rowIndex)) & (bitCount - 1)));
+            }
+        }
+
+        int unsetBits = bitCount - hashesSeen.cardinality();
+        if (unsetBits == 0)
+        {
+            return nonNullCount;
+        }
+
+        long estimate = Math.round(bitCount * Math.log((double) bitCount / unsetBits));
+        return (int) Math.max(1, Math.min(nonNullCount, estimate));
+    }
+
+    private static long valueHash(DfColumn column, int rowIndex)
+    {
+        if (column instanceof DfLongColumn)
+        {
+            return ((DfLongColumn) column).getLong(rowIndex);
+        }
+
+        if (column instanceof DfDoubleColumn)
+        {
+            return Double.doubleToLongBits(((DfDoubleColumn) column).getDouble(rowIndex));
+        }
+
+        if (column instanceof DfDateColumn)
+        {
+            return ((DfDateColumn) column).getEpochDay(rowIndex);
+        }
+
+        return column.getObject(rowIndex).hashCode();
+    }
+
+    /**
+     * the finalization step of the MurmurHash3 64-bit hash, spreads the bits of the value across the hash
+     */
+    private static long mix(long value)
+    {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * @return the number of values the statistics have been collected for
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    public int getNullCount()
+    {
+        return this.nullCount;
+    }
+
+    /**
+     * @return the smallest non-null value or <code>null</code> if there are no non-null values
+     */
+    public Object getMin()
+    {
+        return this.min;
+    }
+
+    /**
+     * @return the largest non-null value or <code>null</code> if there are no non-null values
+     */
+    public Object getMax()
+    {
+        return this.max;
+    }
+
+    public boolean isAscending()
+    {
+        return this.ascending;
+    }
+
+    public boolean isDescending()
+    {
+        return this.descending;
+    }
+
+    /**
+     * @param sortOrder the sort order to check
+     * @return <code>true</code> if the values are sorted in the specified order, <code>false</code> otherwise
+     */
+    public boolean isSortedIn(DfColumnSortOrder sortOrder)
+    {
+        return sortOrder == DfColumnSortOrder.DESC ? this.descending : this.ascending;
+    }
+
+    /**
+     * @return an estimate of the number of distinct non-null values, exact for dictionary encoded string columns
+     */
+    public int getDistinctCountEstimate()
+    {
+        return this.distinctCountEstimate;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DfColumnStatistics{"
+                + "size=" + this.size
+                + ", nullCount=" + this.nullCount
+                + ", min=" + this.min
+                + ", max=" + this.max
+                + ", ascending=" + this.ascending
+                + ", descending=" + this.descending
+                + ", distinctCountEstimate=" + this.distinctCountEstimate
+                + '}';
+    }
+}
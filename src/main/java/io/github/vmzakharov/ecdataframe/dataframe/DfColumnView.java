@@ -0,0 +1,79 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A read only column of a data frame slice or of a filtered view, which does not have values of its own but refers to
+ * a range of rows of a column of another data frame, without copying them.
+ */
+public interface DfColumnView
+extends DfColumn
+{
+    @Override
+    default boolean isStored()
+    {
+        return false;
+    }
+
+    /**
+     * @return the column this column is a view of
+     */
+    DfColumn getSourceColumn();
+
+    /**
+     * @param rowIndex the index of a row in this column
+     * @return the index of the row in the source column
+     */
+    int sourceRowIndex(int rowIndex);
+
+    @Override
+    default Value getValue(int rowIndex)
+    {
+        return this.getSourceColumn().getValue(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    default void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        this.getSourceColumn().gatherInto(target, rowIndices.collectInt(this::sourceRowIndex, IntLists.mutable.withInitialCapacity(rowIndices.size())));
+    }
+
+    @Override
+    default void setObject(int rowIndex, Object anObject)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    @Override
+    default void addEmptyValue()
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    @Override
+    default void addValue(Value value)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    @Override
+    default void addObject(Object newObject)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    @Override
+    default void applyAggregator(int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregateFunction)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    default void throwUnmodifiableColumnException()
+    {
+        throw exceptionByKey("DF_VIEW_COL_MODIFICATION").with("columnName", this.getName()).getUnsupported();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+import java.util.function.IntFunction;
+
+/**
+ * The values of a computed column evaluated for all the rows of its data frame, kept for as long as the values of the
+ * data frame stay the same (see {@link DataFrame#enableComputedValueCaching()}). The cached values are an array of the
+ * type suitable for the column, {@code long[]} for long columns for example, and a null map.
+ * <p>
+ * The values are tagged with the values version of the data frame they were evaluated for, a cache with a different
+ * version is stale and evaluated again on the next access. The values and the version are published together, so
+ * the cache can be read concurrently.
+ *
+ * @param <A> the type of the array of the cached values
+ */
+final class DfComputedValueCache<A>
+{
+    private final DfColumnComputed column;
+    private final IntFunction<A> arrayFactory;
+    private final ValueSetter<A> valueSetter;
+
+    private volatile Cached<A> cached = null;
+
+    DfComputedValueCache(DfColumnComputed newColumn, IntFunction<A> newArrayFactory, ValueSetter<A> newValueSetter)
+    {
+        this.column = newColumn;
+        this.arrayFactory = newArrayFactory;
+        this.valueSetter = newValueSetter;
+    }
+
+    /**
+     * Evaluates the values of all rows, unless they have been evaluated since the values of the data frame last
+     * changed, so accessing a single row of a computed column evaluates the whole column. That pays off when the
+     * column is read in full, by sorting, aggregation or filtering, and costs an evaluation of the whole column when
+     * only a few rows are read between the changes.
+     *
+     * @return the values of the column or {@code null} if the data frame is not caching computed values
+     */
+    Cached<A> getValues()
+    {
+        DataFrame dataFrame = this.column.getDataFrame();
+        if (!dataFrame.isCachingComputedValues())
+        {
+            return null;
+        }
+
+        int valuesVersion = dataFrame.getValuesVersion();
+        Cached<A> current = this.cached;
+        if (current == null || current.valuesVersion != valuesVersion)
+        {
+            A values = this.arrayFactory.apply(this.column.getSize());
+            DfNullMap nullMap = new DfNullMap();
+            this.column.evaluateEachRow((result, rowIndex) -> {
+                nullMap.add(result.isVoid());
+                if (!result.isVoid())
+                {
+                    this.valueSetter.set(values, rowIndex, result);
+                }
+            });
+
+            current = new Cached<>(valuesVersion, values, nullMap);
+            this.cached = current;
+        }
+
+        return current;
+    }
+
+    interface ValueSetter<A>
+    {
+        void set(A values, int rowIndex, Value value);
+    }
+
+    static final class Cached<A>
+    {
+        private final int valuesVersion;
+        private final A values;
+        private final DfNullMap nullMap;
+
+        private Cached(int newValuesVersion, A newValues, DfNullMap newNullMap)
+        {
+            this.valuesVersion = newValuesVersion;
+            this.values = newValues;
+            this.nullMap = newNullMap;
+        }
+
+        A values()
+        {
+            return this.values;
+        }
+
+        boolean isNull(int rowIndex)
+        {
+            return this.nullMap.isNull(rowIndex);
+        }
+    }
+}
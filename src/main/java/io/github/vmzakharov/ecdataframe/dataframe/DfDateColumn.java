@@ -4,6 +4,7 @@ import io.github.vmzakharov.ecdataframe.dataframe.compare.DateComparisonResult;
 import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.block.function.primitive.IntIntToIntFunction;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -34,7 +35,37 @@ extends DfObjectColumn<LocalDate>
     @Override
     default void addRowToColumn(int rowIndex, DfColumn target)
     {
-        ((DfDateColumnStored) target).addMyType(this.getTypedObject(rowIndex));
+        ((DfDateColumnStored) target).addDate(this.getTypedObject(rowIndex));
+    }
+
+    default int getEpochDay(int rowIndex)
+    {
+        return (int) this.getTypedObject(rowIndex).toEpochDay();
+    }
+
+    /**
+     * Folds the epoch day values of this column using the provided function. If a null value is encountered, the
+     * method stops and returns null
+     *
+     * @param initialEpochDay the initial value of the accumulated result
+     * @param function the function to combine the accumulated value with the epoch day value of the current row
+     * @return the result of the fold as a date or null if the column contains null values
+     */
+    default LocalDate injectIntoEpochDaysBreakOnNulls(int initialEpochDay, IntIntToIntFunction function)
+    {
+        int result = initialEpochDay;
+
+        for (int i = 0; i < this.getSize(); i++)
+        {
+            if (this.isNull(i))
+            {
+                return null;
+            }
+
+            result = function.valueOf(result, this.getEpochDay(i));
+        }
+
+        return LocalDate.ofEpochDay(result);
     }
 
     @Override
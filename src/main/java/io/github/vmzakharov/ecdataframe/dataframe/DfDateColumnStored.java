@@ -1,15 +1,33 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dataframe.compare.DateComparisonResult;
 import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.impl.factory.Lists;
 
 import java.time.LocalDate;
 
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A stored date column. Rather than keeping a {@code LocalDate} instance per row, the dates are stored as primitive
+ * epoch day values (see {@link LocalDate#toEpochDay()}) alongside a bitmap of null markers. {@code LocalDate}
+ * instances are only created when requested by the caller.
+ */
 public class DfDateColumnStored
-extends DfObjectColumnStored<LocalDate>
-implements DfDateColumn
+extends DfObjectColumnAbstract<LocalDate>
+implements DfDateColumn, DfColumnStored
 {
+    static private final int NULL_FILLER = 0; // not the actual null marker
+
+    private DfIntChunkedList values = new DfIntChunkedList();
+    private DfNullMap nullMap = new DfNullMap();
+    private boolean sharingValues = false; // the values are shared with a copy of this column, see copyTo()
+
     public DfDateColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
@@ -17,13 +35,14 @@ implements DfDateColumn
 
     public DfDateColumnStored(DataFrame owner, String newName, ListIterable<LocalDate> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
     public void addObject(Object newObject)
     {
-        this.addMyType((LocalDate) newObject);
+        this.addDate((LocalDate) newObject);
     }
 
     @Override
@@ -31,15 +50,327 @@ implements DfDateColumn
     {
         if (value.isVoid())
         {
-            this.addObject(null);
+            this.addEmptyValue();
         }
         else if (value.isDate())
         {
-            this.addMyType(((DateValue) value).dateValue());
+            this.addDate(((DateValue) value).dateValue());
         }
         else
         {
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    public void addDate(LocalDate aDate)
+    {
+        if (aDate == null)
+        {
+            this.addEmptyValue();
+        }
+        else
+        {
+            this.addEpochDay(this.toEpochDay(aDate), false);
+        }
+    }
+
+    public void addEpochDay(int epochDay, boolean isNullValue)
+    {
+        this.unshareValues();
+        this.values.add(isNullValue ? NULL_FILLER : epochDay);
+        this.nullMap.add(isNullValue);
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.addEpochDay(NULL_FILLER, true);
+    }
+
+    /**
+     * returns the date value at the specified row as the number of days since the epoch (1970-01-01) without creating
+     * a {@code LocalDate} instance
+     *
+     * @param rowIndex the row index
+     * @return the epoch day value of the date in the specified row
+     */
+    @Override
+    public int getEpochDay(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.values.get(rowIndex);
+    }
+
+    public void setEpochDay(int rowIndex, int epochDay)
+    {
+        this.invalidateStatistics();
+        this.unshareValues();
+        this.values.set(rowIndex, epochDay);
+        this.nullMap.clearNull(rowIndex);
+    }
+
+    @Override
+    public LocalDate getTypedObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return LocalDate.ofEpochDay(this.values.get(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.nullMap.isNull(rowIndex);
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.invalidateStatistics();
+        if (anObject == null)
+        {
+            this.unshareValues();
+            this.values.set(rowIndex, NULL_FILLER);
+            this.nullMap.setNull(rowIndex);
+        }
+        else
+        {
+            this.setEpochDay(rowIndex, this.toEpochDay((LocalDate) anObject));
+        }
+    }
+
+    @Override
+    public void seal()
+    {
+        this.values.seal(this.getDataFrame().isCompactingOnSeal());
+        this.nullMap.trim();
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap())
+        {
+            this.values.storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        // the values shared with a copy of this column are released when the last of the columns releases them, the
+        // column falls back to an empty list on the heap
+        this.values.release();
+        this.values = new DfIntChunkedList();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.values.size();
+    }
+
+    @Override
+    public ImmutableList<LocalDate> toList()
+    {
+        int size = this.getSize();
+        MutableList<LocalDate> result = Lists.mutable.withInitialCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            result.add(this.getTypedObject(rowIndex));
+        }
+
+        return result.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        aggregator.aggregateValueIntoDate(this, rowIndex, sourceColumn, sourceRowIndex);
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.values.release();
+        this.values = new DfIntChunkedList(newCapacity);
+        this.enableOffHeapStorage();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<LocalDate> items)
+    {
+        items.forEach(this::addDate);
+    }
+
+    private void addAllItemsFrom(DfDateColumn dateColumn)
+    {
+        if (dateColumn instanceof DfDateColumnStored)
+        {
+            DfDateColumnStored storedColumn = (DfDateColumnStored) dateColumn;
+            this.unshareValues();
+            this.values.addAll(storedColumn.values);
+            this.nullMap.addAll(storedColumn.nullMap);
+        }
+        else
+        {
+            this.addAllItems(dateColumn.toList());
+        }
+    }
+
+    @Override
+    public DfColumn mergeWithInto(DfColumn other, DataFrame target)
+    {
+        DfDateColumnStored mergedCol = (DfDateColumnStored) this.validateAndCreateTargetColumn(other, target);
+
+        mergedCol.addAllItemsFrom(this);
+        mergedCol.addAllItemsFrom((DfDateColumn) other);
+        return mergedCol;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfDateColumnStored targetCol = (DfDateColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.values.release();
+        targetCol.values = this.values;
+        this.values.retain();
+        targetCol.nullMap = this.nullMap;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
+    }
+
+    /**
+     * gives this column its own copy of the values if they are shared with another column, to be called before the
+     * values are modified
+     */
+    private void unshareValues()
+    {
+        if (this.sharingValues)
+        {
+            DfIntChunkedList sharedValues = this.values;
+            this.values = sharedValues.copy(this.getDataFrame().getBufferAllocator());
+            sharedValues.release();
+            this.nullMap = this.nullMap.copy();
+            this.sharingValues = false;
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        ((DfDateColumnStored) target).addEpochDay(this.values.get(rowIndex), this.isNull(rowIndex));
+    }
+
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfDateColumnStored targetColumn = (DfDateColumnStored) target;
+        targetColumn.unshareValues();
+
+        int count = rowIndices.size();
+        boolean hasNulls = this.nullMap.hasNulls();
+        for (int i = 0; i < count; i++)
+        {
+            int rowIndex = rowIndices.get(i);
+            boolean isNull = hasNulls && this.nullMap.isNull(rowIndex);
+            targetColumn.values.add(isNull ? NULL_FILLER : this.values.get(rowIndex));
+            targetColumn.nullMap.add(isNull);
+        }
+    }
+
+    @Override
+    public int compareMindingNulls(int thisRowIndex, DfColumn otherColumn, int otherRowIndex)
+    {
+        if (!(otherColumn instanceof DfDateColumnStored))
+        {
+            return DfDateColumn.super.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+        }
+
+        DfDateColumnStored otherDateColumn = (DfDateColumnStored) otherColumn;
+
+        boolean thisIsNull = this.isNull(thisRowIndex);
+        boolean otherIsNull = otherDateColumn.isNull(otherRowIndex);
+
+        if (thisIsNull || otherIsNull)
+        {
+            return thisIsNull ? (otherIsNull ? 0 : -1) : 1;
+        }
+
+        return Integer.compare(this.values.get(thisRowIndex), otherDateColumn.values.get(otherRowIndex));
+    }
+
+    @Override
+    public DfCellComparator columnComparator(DfColumn otherColumn)
+    {
+        if (!(otherColumn instanceof DfDateColumnStored))
+        {
+            return DfDateColumn.super.columnComparator(otherColumn);
+        }
+
+        DfDateColumnStored otherDateColumn = (DfDateColumnStored) otherColumn;
+
+        return (thisRowIndex, otherRowIndex) -> {
+            int thisMappedIndex = this.dataFrameRowIndex(thisRowIndex);
+            int otherMappedIndex = otherDateColumn.dataFrameRowIndex(otherRowIndex);
+
+            return new DateComparisonResult(
+                    () -> this.values.get(thisMappedIndex),
+                    () -> otherDateColumn.values.get(otherMappedIndex),
+                    this.isNull(thisMappedIndex),
+                    otherDateColumn.isNull(otherMappedIndex)
+            );
+        };
+    }
+
+    private int toEpochDay(LocalDate aDate)
+    {
+        long epochDay = aDate.toEpochDay();
+
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE)
+        {
+            exceptionByKey("DF_DATE_OUT_OF_RANGE")
+                    .with("value", aDate)
+                    .with("columnName", this.getName())
+                    .fire();
+        }
+
+        return (int) epochDay;
+    }
 }
@@ -0,0 +1,19 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.time.LocalDate;
+
+public class DfDateColumnView
+extends DfObjectColumnView<LocalDate>
+implements DfDateColumn
+{
+    DfDateColumnView(DataFrame newDataFrame, DfDateColumn newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource, newRows);
+    }
+
+    @Override
+    public int getEpochDay(int rowIndex)
+    {
+        return ((DfDateColumn) this.getSourceColumn()).getEpochDay(this.sourceRowIndex(rowIndex));
+    }
+}
@@ -34,7 +34,7 @@ extends DfObjectColumn<LocalDateTime>
     @Override
     default void addRowToColumn(int rowIndex, DfColumn target)
     {
-        ((DfDateTimeColumnStored) target).addMyType(this.getTypedObject(rowIndex));
+        ((DfDateTimeColumnStored) target).addDateTime(this.getTypedObject(rowIndex));
     }
 
     @Override
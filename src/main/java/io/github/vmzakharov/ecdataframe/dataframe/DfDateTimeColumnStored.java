@@ -2,14 +2,35 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.value.DateTimeValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+/**
+ * A stored date-time column. Rather than keeping a {@code LocalDateTime} instance per row, the values are stored as
+ * primitive seconds since the epoch (1970-01-01T00:00:00, the offset is always UTC so this is a local time and not an
+ * instant) with a separate list of nano-of-second values, which is only allocated if the column contains values with
+ * a fraction of a second. Nulls are tracked in a bitmap. {@code LocalDateTime} instances are only created when
+ * requested by the caller.
+ */
 public class DfDateTimeColumnStored
-extends DfObjectColumnStored<LocalDateTime>
-implements DfDateTimeColumn
+extends DfObjectColumnAbstract<LocalDateTime>
+implements DfDateTimeColumn, DfColumnStored
 {
+    static private final long NULL_FILLER = 0L; // not the actual null marker
+
+    private DfLongChunkedList epochSeconds = new DfLongChunkedList();
+    private MutableIntList nanos = null;
+    private DfNullMap nullMap = new DfNullMap();
+    private boolean sharingValues = false; // the values are shared with a copy of this column, see copyTo()
+
     public DfDateTimeColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
@@ -17,13 +38,14 @@ implements DfDateTimeColumn
 
     public DfDateTimeColumnStored(DataFrame owner, String newName, ListIterable<LocalDateTime> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
     public void addObject(Object newObject)
     {
-        this.addMyType((LocalDateTime) newObject);
+        this.addDateTime((LocalDateTime) newObject);
     }
 
     @Override
@@ -31,15 +53,346 @@ implements DfDateTimeColumn
     {
         if (value.isVoid())
         {
-            this.addObject(null);
+            this.addEmptyValue();
         }
         else if (value.isDateTime())
         {
-            this.addMyType(((DateTimeValue) value).dateTimeValue());
+            this.addDateTime(((DateTimeValue) value).dateTimeValue());
         }
         else
         {
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    public void addDateTime(LocalDateTime aDateTime)
+    {
+        if (aDateTime == null)
+        {
+            this.addEmptyValue();
+        }
+        else
+        {
+            this.addEpochSecond(aDateTime.toEpochSecond(ZoneOffset.UTC), aDateTime.getNano(), false);
+        }
+    }
+
+    /**
+     * adds a date-time value represented by the number of seconds since the epoch and the nano-of-second adjustment
+     *
+     * @param epochSecond the number of seconds since 1970-01-01T00:00:00
+     * @param nanoOfSecond the nanosecond adjustment, from 0 to 999,999,999
+     * @param isNullValue true if the value being added is null (in which case the other parameters are ignored)
+     */
+    public void addEpochSecond(long epochSecond, int nanoOfSecond, boolean isNullValue)
+    {
+        this.unshareValues();
+        int rowIndex = this.epochSeconds.size();
+
+        this.epochSeconds.add(isNullValue ? NULL_FILLER : epochSecond);
+        this.nullMap.add(isNullValue);
+        this.addNano(rowIndex, isNullValue ? 0 : nanoOfSecond);
+    }
+
+    /**
+     * adds the nano-of-second value of the row just added, the nanos are only kept once a row has a non-zero value
+     */
+    private void addNano(int rowIndex, int nanoOfSecond)
+    {
+        if (this.nanos != null)
+        {
+            this.nanos.add(nanoOfSecond);
+        }
+        else if (nanoOfSecond != 0)
+        {
+            this.initializeNanos();
+            this.nanos.set(rowIndex, nanoOfSecond);
+        }
+    }
+
+    private void initializeNanos()
+    {
+        int size = this.epochSeconds.size();
+        this.nanos = IntLists.mutable.withInitialCapacity(size);
+        for (int i = 0; i < size; i++)
+        {
+            this.nanos.add(0);
+        }
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.addEpochSecond(NULL_FILLER, 0, true);
+    }
+
+    public long getEpochSecond(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.epochSeconds.get(rowIndex);
+    }
+
+    public int getNano(int rowIndex)
+    {
+        return this.nanos == null ? 0 : this.nanos.get(rowIndex);
+    }
+
+    @Override
+    public LocalDateTime getTypedObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return LocalDateTime.ofEpochSecond(this.epochSeconds.get(rowIndex), this.getNano(rowIndex), ZoneOffset.UTC);
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.nullMap.isNull(rowIndex);
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.invalidateStatistics();
+        this.unshareValues();
+        if (anObject == null)
+        {
+            this.epochSeconds.set(rowIndex, NULL_FILLER);
+            this.setNano(rowIndex, 0);
+            this.nullMap.setNull(rowIndex);
+        }
+        else
+        {
+            LocalDateTime dateTime = (LocalDateTime) anObject;
+            this.epochSeconds.set(rowIndex, dateTime.toEpochSecond(ZoneOffset.UTC));
+            this.setNano(rowIndex, dateTime.getNano());
+            this.nullMap.clearNull(rowIndex);
+        }
+    }
+
+    private void setNano(int rowIndex, int nanoOfSecond)
+    {
+        if (this.nanos == null)
+        {
+            if (nanoOfSecond == 0)
+            {
+                return;
+            }
+
+            this.initializeNanos();
+        }
+
+        this.nanos.set(rowIndex, nanoOfSecond);
+    }
+
+    @Override
+    public void seal()
+    {
+        this.epochSeconds.seal(this.getDataFrame().isCompactingOnSeal());
+        this.nullMap.trim();
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap())
+        {
+            this.epochSeconds.storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        // the values shared with a copy of this column are released when the last of the columns releases them, the
+        // column falls back to an empty list on the heap
+        this.epochSeconds.release();
+        this.epochSeconds = new DfLongChunkedList();
+        this.nanos = null;
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.epochSeconds.size();
+    }
+
+    @Override
+    public ImmutableList<LocalDateTime> toList()
+    {
+        int size = this.getSize();
+        MutableList<LocalDateTime> result = Lists.mutable.withInitialCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            result.add(this.getTypedObject(rowIndex));
+        }
+
+        return result.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        aggregator.aggregateValueIntoObject(this, rowIndex, sourceColumn, sourceRowIndex);
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.epochSeconds.release();
+        this.epochSeconds = new DfLongChunkedList(newCapacity);
+        this.enableOffHeapStorage();
+        this.nanos = null;
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<LocalDateTime> items)
+    {
+        items.forEach(this::addDateTime);
+    }
+
+    private void addAllItemsFrom(DfDateTimeColumn dateTimeColumn)
+    {
+        if (dateTimeColumn instanceof DfDateTimeColumnStored)
+        {
+            DfDateTimeColumnStored storedColumn = (DfDateTimeColumnStored) dateTimeColumn;
+            int size = storedColumn.getSize();
+            for (int rowIndex = 0; rowIndex < size; rowIndex++)
+            {
+                storedColumn.addRowToColumn(rowIndex, this);
+            }
+        }
+        else
+        {
+            this.addAllItems(dateTimeColumn.toList());
+        }
+    }
+
+    @Override
+    public DfColumn mergeWithInto(DfColumn other, DataFrame target)
+    {
+        DfDateTimeColumnStored mergedCol = (DfDateTimeColumnStored) this.validateAndCreateTargetColumn(other, target);
+
+        mergedCol.addAllItemsFrom(this);
+        mergedCol.addAllItemsFrom((DfDateTimeColumn) other);
+        return mergedCol;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfDateTimeColumnStored targetCol = (DfDateTimeColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.epochSeconds.release();
+        targetCol.epochSeconds = this.epochSeconds;
+        this.epochSeconds.retain();
+        targetCol.nanos = this.nanos;
+        targetCol.nullMap = this.nullMap;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
+    }
+
+    /**
+     * gives this column its own copy of the values if they are shared with another column, to be called before the
+     * values are modified
+     */
+    private void unshareValues()
+    {
+        if (this.sharingValues)
+        {
+            DfLongChunkedList sharedValues = this.epochSeconds;
+            this.epochSeconds = sharedValues.copy(this.getDataFrame().getBufferAllocator());
+            sharedValues.release();
+            this.nanos = this.nanos == null ? null : IntLists.mutable.withAll(this.nanos);
+            this.nullMap = this.nullMap.copy();
+            this.sharingValues = false;
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        ((DfDateTimeColumnStored) target).addEpochSecond(
+                this.epochSeconds.get(rowIndex), this.getNano(rowIndex), this.isNull(rowIndex));
+    }
+
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfDateTimeColumnStored targetColumn = (DfDateTimeColumnStored) target;
+        targetColumn.unshareValues();
+
+        int count = rowIndices.size();
+        boolean hasNulls = this.nullMap.hasNulls();
+        for (int i = 0; i < count; i++)
+        {
+            int rowIndex = rowIndices.get(i);
+            boolean isNull = hasNulls && this.nullMap.isNull(rowIndex);
+            int targetRowIndex = targetColumn.epochSeconds.size();
+            targetColumn.epochSeconds.add(isNull ? NULL_FILLER : this.epochSeconds.get(rowIndex));
+            targetColumn.nullMap.add(isNull);
+            targetColumn.addNano(targetRowIndex, isNull ? 0 : this.getNano(rowIndex));
+        }
+    }
+
+    @Override
+    public int compareMindingNulls(int thisRowIndex, DfColumn otherColumn, int otherRowIndex)
+    {
+        if (!(otherColumn instanceof DfDateTimeColumnStored))
+        {
+            return DfDateTimeColumn.super.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+        }
+
+        DfDateTimeColumnStored otherDateTimeColumn = (DfDateTimeColumnStored) otherColumn;
+
+        boolean thisIsNull = this.isNull(thisRowIndex);
+        boolean otherIsNull = otherDateTimeColumn.isNull(otherRowIndex);
+
+        if (thisIsNull || otherIsNull)
+        {
+            return thisIsNull ? (otherIsNull ? 0 : -1) : 1;
+        }
+
+        int result = Long.compare(this.epochSeconds.get(thisRowIndex), otherDateTimeColumn.epochSeconds.get(otherRowIndex));
+
+        return result == 0
+                ? Integer.compare(this.getNano(thisRowIndex), otherDateTimeColumn.getNano(otherRowIndex))
+                : result;
+    }
 }
@@ -0,0 +1,13 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.time.LocalDateTime;
+
+public class DfDateTimeColumnView
+extends DfObjectColumnView<LocalDateTime>
+implements DfDateTimeColumn
+{
+    DfDateTimeColumnView(DataFrame newDataFrame, DfDateTimeColumn newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource, newRows);
+    }
+}
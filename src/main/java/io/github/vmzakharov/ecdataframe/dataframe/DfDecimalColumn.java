@@ -34,6 +34,14 @@ extends DfObjectColumn<BigDecimal>
         target.addObject(this.getTypedObject(rowIndex));
     }
 
+    /**
+     * @return the sum of the values in this column or <code>null</code> if any of the values is <code>null</code>
+     */
+    default BigDecimal sum()
+    {
+        return this.injectIntoBreakOnNulls(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     @Override
     default DfCellComparator columnComparator(DfColumn otherColumn)
     {
@@ -2,14 +2,48 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.value.DecimalValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
 
 import java.math.BigDecimal;
 
+/**
+ * A stored decimal column. As long as the values fit, they are stored as unscaled {@code long} values with a scale
+ * shared by the column. If values with different scales are added to the column, the scale is kept per row. If a
+ * value is added whose unscaled value does not fit in a {@code long}, the column converts its contents to and from
+ * then on stores {@code BigDecimal} instances. In either case the values retrieved from the column are equal (including
+ * their scale) to the values that were added to it.
+ * <p>
+ * While the values are stored as unscaled longs, summing them up and comparing them does not require creating
+ * {@code BigDecimal} instances.
+ */
 public class DfDecimalColumnStored
-extends DfObjectColumnStored<BigDecimal>
-implements DfDecimalColumn
+extends DfObjectColumnAbstract<BigDecimal>
+implements DfDecimalColumn, DfColumnStored
 {
+    static private final long NULL_FILLER = 0L; // not the actual null marker
+
+    static private final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private DfLongChunkedList unscaledValues = new DfLongChunkedList();
+    private DfNullMap nullMap = new DfNullMap();
+    private int commonScale = 0;
+    private boolean commonScaleSet = false;
+    private MutableIntList scales = null; // only allocated if the values have different scales
+
+    private MutableList<BigDecimal> objectValues = null; // only allocated if the values do not fit in a long
+
+    private boolean sharingValues = false; // the values are shared with a copy of this column, see copyTo()
+
     public DfDecimalColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
@@ -17,13 +51,14 @@ implements DfDecimalColumn
 
     public DfDecimalColumnStored(DataFrame owner, String newName, ListIterable<BigDecimal> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
     public void addObject(Object newObject)
     {
-        this.addMyType((BigDecimal) newObject);
+        this.addDecimal((BigDecimal) newObject);
     }
 
     @Override
@@ -31,15 +66,617 @@ implements DfDecimalColumn
     {
         if (value.isVoid())
         {
-            this.addObject(null);
+            this.addEmptyValue();
         }
         else if (value.isDecimal())
         {
-            this.addMyType(((DecimalValue) value).decimalValue());
+            this.addDecimal(((DecimalValue) value).decimalValue());
         }
         else
         {
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    public void addDecimal(BigDecimal aDecimal)
+    {
+        this.unshareValues();
+
+        if (aDecimal == null)
+        {
+            this.addEmptyValue();
+        }
+        else if (this.storesUnscaledLongs() && fitsInLong(aDecimal))
+        {
+            this.addUnscaled(aDecimal.unscaledValue().longValue(), aDecimal.scale());
+        }
+        else
+        {
+            this.convertToObjects();
+            this.objectValues.add(aDecimal);
+        }
+    }
+
+    /**
+     * adds the value represented by its unscaled value and scale, without creating a {@code BigDecimal} instance if
+     * the column stores unscaled values
+     *
+     * @param unscaledValue the unscaled value
+     * @param scale the scale of the value
+     */
+    public void addUnscaled(long unscaledValue, int scale)
+    {
+        this.unshareValues();
+
+        if (!this.storesUnscaledLongs())
+        {
+            this.objectValues.add(BigDecimal.valueOf(unscaledValue, scale));
+            return;
+        }
+
+        this.unscaledValues.add(unscaledValue);
+        this.nullMap.add(false);
+
+        if (this.scales != null)
+        {
+            this.scales.add(scale);
+        }
+        else if (!this.commonScaleSet)
+        {
+            this.commonScale = scale;
+            this.commonScaleSet = true;
+        }
+        else if (scale != this.commonScale)
+        {
+            this.initializeScales();
+            this.scales.set(this.scales.size() - 1, scale);
+        }
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.unshareValues();
+
+        if (!this.storesUnscaledLongs())
+        {
+            this.objectValues.add(null);
+            return;
+        }
+
+        this.unscaledValues.add(NULL_FILLER);
+        this.nullMap.add(true);
+
+        if (this.scales != null)
+        {
+            this.scales.add(this.commonScale);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the values in this column are stored as unscaled longs, <code>false</code> if they
+     * are stored as {@code BigDecimal} instances
+     */
+    public boolean storesUnscaledLongs()
+    {
+        return this.objectValues == null;
+    }
+
+    /**
+     * @param rowIndex the row index
+     * @return the unscaled value of the decimal in the specified row
+     */
+    public long getUnscaledLong(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.storesUnscaledLongs()
+                ? this.unscaledValues.get(rowIndex)
+                : this.objectValues.get(rowIndex).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param rowIndex the row index
+     * @return the scale of the decimal in the specified row
+     */
+    public int getScale(int rowIndex)
+    {
+        if (!this.storesUnscaledLongs())
+        {
+            return this.objectValues.get(rowIndex).scale();
+        }
+
+        return this.scales == null ? this.commonScale : this.scales.get(rowIndex);
+    }
+
+    @Override
+    public BigDecimal getTypedObject(int rowIndex)
+    {
+        if (!this.storesUnscaledLongs())
+        {
+            return this.objectValues.get(rowIndex);
+        }
+
+        if (this.nullMap.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return BigDecimal.valueOf(this.unscaledValues.get(rowIndex), this.getScale(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.storesUnscaledLongs() ? this.nullMap.isNull(rowIndex) : this.objectValues.get(rowIndex) == null;
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.invalidateStatistics();
+        this.unshareValues();
+        BigDecimal aDecimal = (BigDecimal) anObject;
+
+        if (this.storesUnscaledLongs() && aDecimal == null)
+        {
+            this.unscaledValues.set(rowIndex, NULL_FILLER);
+            this.nullMap.setNull(rowIndex);
+        }
+        else if (this.storesUnscaledLongs() && fitsInLong(aDecimal))
+        {
+            this.setUnscaled(rowIndex, aDecimal.unscaledValue().longValue(), aDecimal.scale());
+        }
+        else
+        {
+            this.convertToObjects();
+            this.objectValues.set(rowIndex, aDecimal);
+        }
+    }
+
+    private void setUnscaled(int rowIndex, long unscaledValue, int scale)
+    {
+        this.invalidateStatistics();
+        this.unshareValues();
+        this.unscaledValues.set(rowIndex, unscaledValue);
+        this.nullMap.clearNull(rowIndex);
+
+        if (this.scales != null)
+        {
+            this.scales.set(rowIndex, scale);
+        }
+        else if (!this.commonScaleSet)
+        {
+            this.commonScale = scale;
+            this.commonScaleSet = true;
+        }
+        else if (scale != this.commonScale)
+        {
+            this.initializeScales();
+            this.scales.set(rowIndex, scale);
+        }
+    }
+
+    private void initializeScales()
+    {
+        int size = this.unscaledValues.size();
+        this.scales = IntLists.mutable.withInitialCapacity(size);
+        for (int i = 0; i < size; i++)
+        {
+            this.scales.add(this.commonScale);
+        }
+    }
+
+    private void convertToObjects()
+    {
+        if (!this.storesUnscaledLongs())
+        {
+            return;
+        }
+
+        int size = this.unscaledValues.size();
+        MutableList<BigDecimal> newObjectValues = Lists.mutable.withInitialCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            newObjectValues.add(this.getTypedObject(rowIndex));
+        }
+
+        this.objectValues = newObjectValues;
+        this.releaseUnscaledValues();
+        this.unscaledValues = null;
+        this.nullMap = null;
+        this.scales = null;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.storesUnscaledLongs() ? this.unscaledValues.size() : this.objectValues.size();
+    }
+
+    @Override
+    public void seal()
+    {
+        if (this.storesUnscaledLongs())
+        {
+            this.unscaledValues.seal(this.getDataFrame().isCompactingOnSeal());
+            this.nullMap.trim();
+        }
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap() && this.storesUnscaledLongs())
+        {
+            this.unscaledValues.storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    /**
+     * Releases the unscaled values stored outside of the Java heap, the values that do not fit in a long are on the heap
+     */
+    @Override
+    public void releaseStorage()
+    {
+        // the values shared with a copy of this column are released when the last of the columns releases them, the
+        // column falls back to an empty list on the heap
+        this.releaseUnscaledValues();
+        this.unscaledValues = new DfLongChunkedList();
+        this.nullMap = new DfNullMap();
+        this.commonScaleSet = false;
+        this.scales = null;
+        this.objectValues = null;
+        this.sharingValues = false;
+    }
+
+    private void releaseUnscaledValues()
+    {
+        if (this.unscaledValues != null)
+        {
+            this.unscaledValues.release();
+        }
+    }
+
+    @Override
+    public ImmutableList<BigDecimal> toList()
+    {
+        if (!this.storesUnscaledLongs())
+        {
+            return this.objectValues.toImmutable();
+        }
+
+        int size = this.getSize();
+        MutableList<BigDecimal> result = Lists.mutable.withInitialCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            result.add(this.getTypedObject(rowIndex));
+        }
+
+        return result.toImmutable();
+    }
+
+    /**
+     * Sums up the values in the column using {@code long} arithmetic if the values are stored as unscaled longs and
+     * the sum does not overflow. The result is the same as adding up the values as {@code BigDecimal} instances.
+     */
+    @Override
+    public BigDecimal sum()
+    {
+        if (!this.storesUnscaledLongs() || this.nullMap.hasNulls())
+        {
+            return DfDecimalColumn.super.sum();
+        }
+
+        try
+        {
+            int size = this.getSize();
+            long total = 0L;
+            int sumScale = this.commonScale;
+
+            if (this.scales == null)
+            {
+                for (int rowIndex = 0; rowIndex < size; rowIndex++)
+                {
+                    total = Math.addExact(total, this.unscaledValues.get(rowIndex));
+                }
+            }
+            else
+            {
+                sumScale = this.scales.max();
+                for (int rowIndex = 0; rowIndex < size; rowIndex++)
+                {
+                    total = Math.addExact(total,
+                            rescale(this.unscaledValues.get(rowIndex), this.scales.get(rowIndex), sumScale));
+                }
+            }
+
+            // consistent with adding the values to BigDecimal.ZERO
+            return BigDecimal.ZERO.add(BigDecimal.valueOf(total, sumScale));
+        }
+        catch (ArithmeticException e)
+        {
+            return DfDecimalColumn.super.sum();
+        }
+    }
+
+    /**
+     * Adds the value in the source column to the value in the specified row in this column using {@code long}
+     * arithmetic. This is only possible if both columns store their values as unscaled longs, both values are not
+     * null and the sum does not overflow.
+     *
+     * @param rowIndex the row in this column to add to
+     * @param sourceColumn the column containing the value to add
+     * @param sourceRowIndex the row in the source column containing the value to add
+     * @return <code>true</code> if the value has been added, <code>false</code> otherwise, in which case this column
+     * is unchanged
+     */
+    public boolean addUnscaledFrom(int rowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (!(sourceColumn instanceof DfDecimalColumnStored))
+        {
+            return false;
+        }
+
+        DfDecimalColumnStored source = (DfDecimalColumnStored) sourceColumn;
+
+        if (!this.storesUnscaledLongs() || !source.storesUnscaledLongs()
+                || this.isNull(rowIndex) || source.isNull(sourceRowIndex))
+        {
+            return false;
+        }
+
+        int thisScale = this.getScale(rowIndex);
+        int sourceScale = source.getScale(sourceRowIndex);
+        int resultScale = Math.max(thisScale, sourceScale);
+
+        try
+        {
+            long result = Math.addExact(
+                    rescale(this.unscaledValues.get(rowIndex), thisScale, resultScale),
+                    rescale(source.unscaledValues.get(sourceRowIndex), sourceScale, resultScale));
+
+            this.setUnscaled(rowIndex, result, resultScale);
+            return true;
+        }
+        catch (ArithmeticException e)
+        {
+            return false;
+        }
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        aggregator.aggregateValueIntoDecimal(this, rowIndex, sourceColumn, sourceRowIndex);
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.releaseUnscaledValues();
+        this.unscaledValues = new DfLongChunkedList(newCapacity);
+        this.nullMap = new DfNullMap();
+        this.commonScaleSet = false;
+        this.scales = null;
+        this.objectValues = null;
+        this.sharingValues = false;
+        this.enableOffHeapStorage();
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<BigDecimal> items)
+    {
+        items.forEach(this::addDecimal);
+    }
+
+    private void addAllItemsFrom(DfDecimalColumn decimalColumn)
+    {
+        if (decimalColumn instanceof DfDecimalColumnStored)
+        {
+            DfDecimalColumnStored storedColumn = (DfDecimalColumnStored) decimalColumn;
+            int size = storedColumn.getSize();
+            for (int rowIndex = 0; rowIndex < size; rowIndex++)
+            {
+                storedColumn.addRowToColumn(rowIndex, this);
+            }
+        }
+        else
+        {
+            this.addAllItems(decimalColumn.toList());
+        }
+    }
+
+    @Override
+    public DfColumn mergeWithInto(DfColumn other, DataFrame target)
+    {
+        DfDecimalColumnStored mergedCol = (DfDecimalColumnStored) this.validateAndCreateTargetColumn(other, target);
+
+        mergedCol.addAllItemsFrom(this);
+        mergedCol.addAllItemsFrom((DfDecimalColumn) other);
+        return mergedCol;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfDecimalColumnStored targetCol = (DfDecimalColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.releaseUnscaledValues();
+        targetCol.unscaledValues = this.unscaledValues;
+        if (this.storesUnscaledLongs())
+        {
+            this.unscaledValues.retain();
+        }
+        targetCol.nullMap = this.nullMap;
+        targetCol.commonScale = this.commonScale;
+        targetCol.commonScaleSet = this.commonScaleSet;
+        targetCol.scales = this.scales;
+        targetCol.objectValues = this.objectValues;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
+    }
+
+    /**
+     * gives this column its own copy of the values if they are shared with another column, to be called before the
+     * values are modified
+     */
+    private void unshareValues()
+    {
+        if (this.sharingValues)
+        {
+            if (this.storesUnscaledLongs())
+            {
+                DfLongChunkedList sharedValues = this.unscaledValues;
+                this.unscaledValues = sharedValues.copy(this.getDataFrame().getBufferAllocator());
+                sharedValues.release();
+                this.nullMap = this.nullMap.copy();
+                this.scales = this.scales == null ? null : IntLists.mutable.withAll(this.scales);
+            }
+            else
+            {
+                this.objectValues = Lists.mutable.withAll(this.objectValues);
+            }
+            this.sharingValues = false;
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        DfDecimalColumnStored targetColumn = (DfDecimalColumnStored) target;
+
+        if (!this.storesUnscaledLongs())
+        {
+            targetColumn.addDecimal(this.objectValues.get(rowIndex));
+        }
+        else if (this.nullMap.isNull(rowIndex))
+        {
+            targetColumn.addEmptyValue();
+        }
+        else
+        {
+            targetColumn.addUnscaled(this.unscaledValues.get(rowIndex), this.getScale(rowIndex));
+        }
+    }
+
+    /**
+     * Copies the unscaled values directly when both columns store them and share their scale, otherwise adds the
+     * values a row at a time.
+     */
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfDecimalColumnStored targetColumn = (DfDecimalColumnStored) target;
+        targetColumn.unshareValues();
+
+        int count = rowIndices.size();
+        if (!this.storesUnscaledLongs() || !targetColumn.storesUnscaledLongs()
+                || this.scales != null || targetColumn.scales != null
+                || targetColumn.commonScaleSet && this.commonScaleSet && targetColumn.commonScale != this.commonScale)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                this.addRowToColumn(rowIndices.get(i), targetColumn);
+            }
+            return;
+        }
+
+        boolean hasNulls = this.nullMap.hasNulls();
+        boolean addedValue = false;
+        for (int i = 0; i < count; i++)
+        {
+            int rowIndex = rowIndices.get(i);
+            boolean isNull = hasNulls && this.nullMap.isNull(rowIndex);
+            targetColumn.unscaledValues.add(isNull ? NULL_FILLER : this.unscaledValues.get(rowIndex));
+            targetColumn.nullMap.add(isNull);
+            addedValue |= !isNull;
+        }
+
+        if (addedValue && !targetColumn.commonScaleSet)
+        {
+            targetColumn.commonScale = this.commonScale;
+            targetColumn.commonScaleSet = true;
+        }
+    }
+
+    @Override
+    public int compareMindingNulls(int thisRowIndex, DfColumn otherColumn, int otherRowIndex)
+    {
+        if (!(otherColumn instanceof DfDecimalColumnStored))
+        {
+            return DfDecimalColumn.super.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+        }
+
+        DfDecimalColumnStored otherDecimalColumn = (DfDecimalColumnStored) otherColumn;
+
+        if (!this.storesUnscaledLongs() || !otherDecimalColumn.storesUnscaledLongs()
+                || this.getScale(thisRowIndex) != otherDecimalColumn.getScale(otherRowIndex))
+        {
+            return DfDecimalColumn.super.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+        }
+
+        boolean thisIsNull = this.isNull(thisRowIndex);
+        boolean otherIsNull = otherDecimalColumn.isNull(otherRowIndex);
+
+        if (thisIsNull || otherIsNull)
+        {
+            return thisIsNull ? (otherIsNull ? 0 : -1) : 1;
+        }
+
+        return Long.compare(this.unscaledValues.get(thisRowIndex), otherDecimalColumn.unscaledValues.get(otherRowIndex));
+    }
+
+    static private boolean fitsInLong(BigDecimal aDecimal)
+    {
+        return aDecimal.precision() < 19 || aDecimal.unscaledValue().bitLength() < 64;
+    }
+
+    /**
+     * changes the scale of an unscaled value to a greater or equal scale
+     *
+     * @throws ArithmeticException if the rescaled value does not fit in a {@code long}
+     */
+    static private long rescale(long unscaledValue, int fromScale, int toScale)
+    {
+        int scaleDifference = toScale - fromScale;
+        if (scaleDifference == 0 || unscaledValue == 0L)
+        {
+            return unscaledValue;
+        }
+
+        if (scaleDifference >= POWERS_OF_TEN.length)
+        {
+            throw new ArithmeticException("Decimal scale difference is too large");
+        }
+
+        return Math.multiplyExact(unscaledValue, POWERS_OF_TEN[scaleDifference]);
+    }
 }
@@ -0,0 +1,13 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.math.BigDecimal;
+
+public class DfDecimalColumnView
+extends DfObjectColumnView<BigDecimal>
+implements DfDecimalColumn
+{
+    DfDecimalColumnView(DataFrame newDataFrame, DfDecimalColumn newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource, newRows);
+    }
+}
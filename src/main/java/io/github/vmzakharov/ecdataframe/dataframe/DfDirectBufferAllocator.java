@@ -0,0 +1,106 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocates direct byte buffers, which are backed by native memory, and frees that memory as soon as the buffers are
+ * released, without waiting for the buffers to be garbage collected. Freeing the memory explicitly relies on
+ * {@code sun.misc.Unsafe.invokeCleaner()}, available since Java 9. If it is not available, the memory is freed when
+ * the released buffers are garbage collected.
+ */
+final class DfDirectBufferAllocator
+implements DfBufferAllocator
+{
+    static final DfDirectBufferAllocator INSTANCE = new DfDirectBufferAllocator();
+
+    static private final Object UNSAFE;
+    static private final Method INVOKE_CLEANER;
+
+    static
+    {
+        Object unsafe;
+        Method invokeCleaner;
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DfDirectBufferAllocator()
+    {
+        // Singleton
+    }
+
+    @Override
+    public DfBufferGroup newBufferGroup()
+    {
+        return new DirectBufferGroup();
+    }
+
+    /**
+     * frees the memory of a direct or a memory mapped buffer, if it is possible on this JVM
+     *
+     * @param buffer the buffer to free, it must not be accessed afterwards
+     */
+    static void free(ByteBuffer buffer)
+    {
+        if (INVOKE_CLEANER == null)
+        {
+            return;
+        }
+
+        try
+        {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            // the buffer memory will be freed when the buffer is garbage collected
+        }
+    }
+
+    static private final class DirectBufferGroup
+    implements DfBufferGroup
+    {
+        private final MutableList<ByteBuffer> buffers = Lists.mutable.of();
+
+        @Override
+        public ByteBuffer addBuffer(int capacity)
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+            this.buffers.add(buffer);
+            return buffer;
+        }
+
+        @Override
+        public void removeLastBuffer()
+        {
+            free(this.buffers.remove(this.buffers.size() - 1));
+        }
+
+        @Override
+        public void release()
+        {
+            this.buffers.forEach(DfDirectBufferAllocator::free);
+            this.buffers.clear();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.ImmutableDoubleList;
+import org.eclipse.collections.impl.factory.primitive.DoubleLists;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An append-only list of {@code double} values stored in fixed size chunks, optionally moved into buffers outside of
+ * the Java heap, see {@link DfChunkedList}.
+ */
+final class DfDoubleChunkedList
+extends DfChunkedList<double[]>
+{
+    static private final double[][] NO_CHUNKS = new double[0][];
+
+    DfDoubleChunkedList()
+    {
+        this(0);
+    }
+
+    DfDoubleChunkedList(int initialCapacity)
+    {
+        super(NO_CHUNKS, Double.BYTES, initialCapacity);
+    }
+
+    public double get(int index)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            return this.bufferOf(index).getDouble(this.bufferOffsetOf(index) * Double.BYTES);
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        return this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)];
+    }
+
+    public void set(int index, double value)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            this.bufferOf(index).putDouble(this.bufferOffsetOf(index) * Double.BYTES, value);
+            return;
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+    }
+
+    public void add(double value)
+    {
+        int heapIndex = this.heapIndexToAddAt();
+        this.chunkWithRoomAt(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+        this.added(1);
+    }
+
+    /**
+     * appends all the values from another chunked list to the end of this one, copying them a chunk at a time
+     *
+     * @param other the list to append
+     */
+    public void addAll(DfDoubleChunkedList other)
+    {
+        this.addAllChunked(other);
+    }
+
+    /**
+     * @param allocator the allocator of the buffers to store the values of the copy in, {@code null} to store them on
+     * the Java heap
+     * @return a new list with the same values as this one
+     */
+    public DfDoubleChunkedList copy(DfBufferAllocator allocator)
+    {
+        return this.copyInto(new DfDoubleChunkedList(this.size()), allocator);
+    }
+
+    public ImmutableDoubleList toImmutable()
+    {
+        return DoubleLists.immutable.with(this.toArray());
+    }
+
+    @Override
+    protected double[] newArray(int length)
+    {
+        return new double[length];
+    }
+
+    @Override
+    protected void getValues(ByteBuffer buffer, double[] target, int targetOffset, int count)
+    {
+        // the double view is created at the current position and does not move the position of the buffer
+        buffer.asDoubleBuffer().get(target, targetOffset, count);
+    }
+
+    @Override
+    protected void putValues(ByteBuffer buffer, double[] source, int sourceOffset, int count)
+    {
+        buffer.asDoubleBuffer().put(source, sourceOffset, count);
+    }
+}
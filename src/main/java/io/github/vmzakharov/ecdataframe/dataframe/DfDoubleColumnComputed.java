@@ -3,6 +3,7 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import io.github.vmzakharov.ecdataframe.dsl.Expression;
 import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
 
 public class DfDoubleColumnComputed
@@ -12,6 +13,13 @@ implements DfColumnComputed
     private final String expressionAsString;
     private final Expression expression;
 
+    private final DfComputedValueCache<double[]> valueCache = new DfComputedValueCache<>(
+            this, double[]::new, (values, rowIndex, value) -> values[rowIndex] = ((DoubleValue) value).doubleValue());
+
+    // the compiled expression is written before the schema version and read after it
+    private volatile DfExpressionCompiler.Compiled compiledExpression = null;
+    private volatile int compiledSchemaVersion = -1;
+
     public DfDoubleColumnComputed(DataFrame newDataFrame, String newName, String newExpressionAsString)
     {
         super(newDataFrame, newName);
@@ -23,14 +31,66 @@ implements DfColumnComputed
     @Override
     public Object getObject(int rowIndex)
     {
+        DfComputedValueCache.Cached<double[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex) ? null : cached.values()[rowIndex];
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex) ? null : compiled.getDouble(rowIndex);
+        }
+
         Value result = this.getValue(rowIndex);
 
         return result.isVoid() ? null : ((DoubleValue) result).doubleValue();
     }
 
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        DfComputedValueCache.Cached<double[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex) ? Value.VOID : new DoubleValue(cached.values()[rowIndex]);
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex) ? Value.VOID : new DoubleValue(compiled.getDouble(rowIndex));
+        }
+
+        return this.evaluate(rowIndex);
+    }
+
     @Override
     public double getDouble(int rowIndex)
     {
+        DfComputedValueCache.Cached<double[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            if (cached.isNull(rowIndex))
+            {
+                throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+            }
+
+            return cached.values()[rowIndex];
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            if (compiled.isNull(rowIndex))
+            {
+                throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+            }
+
+            return compiled.getDouble(rowIndex);
+        }
+
         Value result = this.getValue(rowIndex);
 
         if (result.isVoid())
@@ -68,6 +128,35 @@ implements DfColumnComputed
     @Override
     public boolean isNull(int rowIndex)
     {
+        DfComputedValueCache.Cached<double[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex);
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex);
+        }
+
         return this.getObject(rowIndex) == null;
     }
+
+    /**
+     * @return the expression of this column compiled against the current columns of the data frame or {@code null} if
+     * the expression cannot be compiled, in which case it is evaluated
+     */
+    private DfExpressionCompiler.Compiled compiledExpression()
+    {
+        int schemaVersion = this.getDataFrame().getSchemaVersion();
+        if (this.compiledSchemaVersion != schemaVersion)
+        {
+            DfExpressionCompiler.Compiled compiled = DfExpressionCompiler.compileExpression(this.getDataFrame(), this.expression);
+            this.compiledExpression = compiled != null && compiled.getType() == ValueType.DOUBLE ? compiled : null;
+            this.compiledSchemaVersion = schemaVersion;
+        }
+
+        return this.compiledExpression;
+    }
 }
@@ -4,14 +4,21 @@ import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.NumberValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.DoubleIterable;
-import org.eclipse.collections.api.list.primitive.MutableDoubleList;
-import org.eclipse.collections.impl.factory.primitive.DoubleLists;
+import org.eclipse.collections.api.list.primitive.ImmutableDoubleList;
+import org.eclipse.collections.api.list.primitive.IntList;
 
+/**
+ * A stored double column. Null values are tracked in a bitmap next to the values. For compatibility with the earlier
+ * versions, where null values were stored as {@code NaN}, adding or setting a {@code NaN} value is treated as adding
+ * or setting a null value.
+ */
 public class DfDoubleColumnStored
 extends DfDoubleColumn
 implements DfColumnStored
 {
-    private MutableDoubleList values = DoubleLists.mutable.of();
+    private DfNullMap nullMap = new DfNullMap();
+    private DfDoubleChunkedList values = new DfDoubleChunkedList();
+    private boolean sharingValues = false; // the values are shared with a copy of this column, see copyTo()
 
     public DfDoubleColumnStored(DataFrame owner, String newName)
     {
@@ -21,7 +28,7 @@ implements DfColumnStored
     public DfDoubleColumnStored(DataFrame owner, String newName, DoubleIterable newValues)
     {
         this(owner, newName);
-        this.values.addAll(newValues);
+        newValues.forEach(this::addDouble);
     }
 
     @Override
@@ -39,7 +46,9 @@ implements DfColumnStored
 
     public void addDouble(double d)
     {
+        this.unshareValues();
         this.values.add(d);
+        this.nullMap.add(Double.isNaN(d));
     }
 
     @Override
@@ -107,25 +116,36 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.invalidateStatistics();
         if (anObject == null)
         {
-            this.values.set(rowIndex, Double.NaN);
+            this.setDouble(rowIndex, Double.NaN);
         }
         else
         {
-            this.values.set(rowIndex, (Double) anObject);
+            this.setDouble(rowIndex, (Double) anObject);
         }
     }
 
     public void setDouble(int rowIndex, double value)
     {
+        this.invalidateStatistics();
+        this.unshareValues();
         this.values.set(rowIndex, value);
+        if (Double.isNaN(value))
+        {
+            this.nullMap.setNull(rowIndex);
+        }
+        else
+        {
+            this.nullMap.clearNull(rowIndex);
+        }
     }
 
     @Override
     public void addEmptyValue()
     {
-        this.values.add(Double.NaN);
+        this.addDouble(Double.NaN);
     }
 
     public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
@@ -136,12 +156,61 @@ implements DfColumnStored
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = DoubleLists.mutable.withInitialCapacity(newCapacity);
+        this.values.release();
+        this.values = new DfDoubleChunkedList(newCapacity);
+        this.enableOffHeapStorage();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfDoubleColumnStored targetCol = (DfDoubleColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.values.release();
+        targetCol.values = this.values;
+        this.values.retain();
+        targetCol.nullMap = this.nullMap;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
+    }
+
+    /**
+     * gives this column its own copy of the values if they are shared with another column, to be called before the
+     * values are modified
+     */
+    private void unshareValues()
+    {
+        if (this.sharingValues)
+        {
+            DfDoubleChunkedList sharedValues = this.values;
+            this.values = sharedValues.copy(this.getDataFrame().getBufferAllocator());
+            sharedValues.release();
+            this.nullMap = this.nullMap.copy();
+            this.sharingValues = false;
+        }
     }
 
     @Override
     protected void addAllItemsFrom(DfDoubleColumn doubleColumn)
     {
+        if (doubleColumn instanceof DfDoubleColumnStored)
+        {
+            DfDoubleColumnStored storedColumn = (DfDoubleColumnStored) doubleColumn;
+            this.unshareValues();
+            this.values.addAll(storedColumn.values);
+            this.nullMap.addAll(storedColumn.nullMap);
+            return;
+        }
+
         int size = doubleColumn.getSize();
         for (int rowIndex = 0; rowIndex < size; rowIndex++)
         {
@@ -159,7 +228,80 @@ implements DfColumnStored
     @Override
     public boolean isNull(int rowIndex)
     {
-        return Double.isNaN(this.values.get(rowIndex));
+        return this.nullMap.isNull(rowIndex);
+    }
+
+    /**
+     * @return <code>true</code> if there are null values in this column, <code>false</code> otherwise
+     */
+    public boolean hasNulls()
+    {
+        return this.nullMap.hasNulls();
+    }
+
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfDoubleColumnStored targetColumn = (DfDoubleColumnStored) target;
+        targetColumn.unshareValues();
+
+        int count = rowIndices.size();
+        if (this.hasNulls())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                int rowIndex = rowIndices.get(i);
+                boolean isNull = this.nullMap.isNull(rowIndex);
+                targetColumn.values.add(isNull ? Double.NaN : this.values.get(rowIndex));
+                targetColumn.nullMap.add(isNull);
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                targetColumn.values.add(this.values.get(rowIndices.get(i)));
+                targetColumn.nullMap.add(false);
+            }
+        }
+    }
+
+    @Override
+    public void seal()
+    {
+        this.values.seal(this.getDataFrame().isCompactingOnSeal());
+        this.nullMap.trim();
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap())
+        {
+            this.values.storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        // the values shared with a copy of this column are released when the last of the columns releases them, the
+        // column falls back to an empty list on the heap
+        this.values.release();
+        this.values = new DfDoubleChunkedList();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    @Override
+    public ImmutableDoubleList toDoubleList()
+    {
+        if (this.hasNulls() || this.getSize() != this.getDataFrame().rowCount())
+        {
+            return super.toDoubleList();
+        }
+
+        return this.values.toImmutable();
     }
 
     @Override
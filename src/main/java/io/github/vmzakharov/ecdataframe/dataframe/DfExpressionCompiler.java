@@ -0,0 +1,1354 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.ArithmeticOp;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
+import io.github.vmzakharov.ecdataframe.dsl.ContainsOp;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.dsl.value.VectorValue;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.ExpressionOptimizingVisitor;
+import org.eclipse.collections.api.block.function.Function0;
+import org.eclipse.collections.api.block.function.primitive.IntToDoubleFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToLongFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToObjectFunction;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.api.set.primitive.LongSet;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Compiles expressions into trees of closures specialized by the types of their operands, which are evaluated for a
+ * (physical) row index of a data frame. The closures read the primitive values of the data frame columns directly,
+ * without creating a {@link Value} for each node of the expression or resolving variables for each row.
+ * <p>
+ * Supported are references to stored long, double, string and date columns, literals of these types and booleans,
+ * arithmetic, comparison and boolean operations and the unary operations on them, and testing for being an element of
+ * a constant vector of longs, strings or dates. The expressions are optimized by the
+ * {@link ExpressionOptimizingVisitor} before compiling, so constant subexpressions of other kinds are supported too.
+ * The compilation of any other expression fails, returning {@code null}, in which case the expression is evaluated as
+ * usual by the {@link io.github.vmzakharov.ecdataframe.dsl.visitor.InMemoryEvaluationVisitor}. The compiled closures
+ * follow the semantics of the evaluation, including the treatment of null values.
+ * <p>
+ * Every compiled node can also be evaluated for a block of consecutive rows at a time, producing arrays of primitive
+ * values and null flags. The arithmetic, comparison and boolean operations on numbers and booleans are evaluated in
+ * simple loops over these arrays, which the JIT compiler can unroll and vectorize, the other nodes are evaluated row by
+ * row to fill the block. Filters are evaluated a block at a time (see {@link #blockwise(BooleanBlock, int)}).
+ * <p>
+ * The block evaluations of the operations keep the values of their operands in arrays, which are allocated once for
+ * every evaluation created by a block factory rather than for every block. An evaluation is therefore not thread safe,
+ * each thread creates its own one from the factory.
+ */
+final class DfExpressionCompiler
+{
+    static final int BLOCK_SIZE = 1024;
+
+    private static final IntPredicate NEVER_NULL = rowIndex -> false;
+
+    private final DataFrame dataFrame;
+
+    private DfExpressionCompiler(DataFrame newDataFrame)
+    {
+        this.dataFrame = newDataFrame;
+    }
+
+    /**
+     * @param dataFrame the data frame to evaluate the filter on
+     * @param expression the filter expression
+     * @return a predicate on physical row indices equivalent to the expression or {@code null} if the expression
+     * cannot be compiled
+     */
+    static IntPredicate compileFilter(DataFrame dataFrame, Expression expression)
+    {
+        Compiled compiled = new DfExpressionCompiler(dataFrame).compileOptimized(expression);
+
+        return compiled == null || compiled.type != ValueType.BOOLEAN ? null : compiled.booleanGetter;
+    }
+
+    /**
+     * @param dataFrame the data frame to evaluate the filter on
+     * @param expression the filter expression
+     * @return the factory of the filter evaluating a block of rows at a time or {@code null} if the expression cannot
+     * be compiled
+     */
+    static Function0<BooleanBlock> compileBlockFilter(DataFrame dataFrame, Expression expression)
+    {
+        Compiled compiled = new DfExpressionCompiler(dataFrame).compileOptimized(expression);
+
+        return compiled == null || compiled.type != ValueType.BOOLEAN ? null : compiled.booleanBlockFactory;
+    }
+
+    /**
+     * Adapts a block filter to a predicate on physical row indices. The predicate evaluates the filter for the block
+     * of rows containing the requested row and keeps the results for the subsequent rows of the block, so it is meant
+     * to be called for rows in order. The predicate is not thread safe.
+     *
+     * @param filter the block filter
+     * @param rowCount the number of rows in the data frame the filter is evaluated on
+     * @return a predicate on physical row indices
+     */
+    static IntPredicate blockwise(BooleanBlock filter, int rowCount)
+    {
+        boolean[] results = new boolean[BLOCK_SIZE];
+        int[] blockStart = {-1};
+
+        return rowIndex -> {
+            int offset = rowIndex - blockStart[0];
+            if (blockStart[0] < 0 || offset < 0 || offset >= BLOCK_SIZE)
+            {
+                blockStart[0] = rowIndex - rowIndex % BLOCK_SIZE;
+                filter.evaluate(blockStart[0], Math.min(BLOCK_SIZE, rowCount - blockStart[0]), results);
+                offset = rowIndex - blockStart[0];
+            }
+            return results[offset];
+        };
+    }
+
+    /**
+     * @param dataFrame the data frame to evaluate the expression on
+     * @param expression the expression
+     * @return a function returning the value of the expression for a physical row index or {@code null} if the
+     * expression cannot be compiled
+     */
+    static IntToObjectFunction<Value> compileValue(DataFrame dataFrame, Expression expression)
+    {
+        Compiled compiled = compileExpression(dataFrame, expression);
+
+        return compiled == null ? null : compiled.valueGetter();
+    }
+
+    /**
+     * The compiled expression stays valid as long as the columns of the data frame stay the same, the values in the
+     * columns can change.
+     *
+     * @param dataFrame the data frame to evaluate the expression on
+     * @param expression the expression
+     * @return the compiled expression or {@code null} if the expression cannot be compiled
+     */
+    static Compiled compileExpression(DataFrame dataFrame, Expression expression)
+    {
+        return new DfExpressionCompiler(dataFrame).compileOptimized(expression);
+    }
+
+    /**
+     * folds the constant parts of the expression first, so that, for example, a date literal created by a function
+     * call is compiled as a constant
+     */
+    private Compiled compileOptimized(Expression expression)
+    {
+        return this.compile(ExpressionOptimizingVisitor.optimize(expression, this.dataFrame.getEvalContext()));
+    }
+
+    private Compiled compile(Expression expression)
+    {
+        if (expression instanceof Value)
+        {
+            return this.compileConstant((Value) expression);
+        }
+
+        if (expression instanceof VarExpr)
+        {
+            return this.compileColumnReference(((VarExpr) expression).getVariableName());
+        }
+
+        if (expression instanceof UnaryExpr)
+        {
+            UnaryExpr unaryExpr = (UnaryExpr) expression;
+            Compiled operand = this.compile(unaryExpr.getOperand());
+            if (operand == null)
+            {
+                return null;
+            }
+
+            Compiled compiled = this.compileUnary(unaryExpr.getOperation(), operand);
+            return compiled == null ? null : compiled.failingIf(operand.canFail);
+        }
+
+        if (expression instanceof BinaryExpr)
+        {
+            BinaryExpr binaryExpr = (BinaryExpr) expression;
+            Compiled operand1 = this.compile(binaryExpr.getOperand1());
+
+            if (binaryExpr.getOperation() instanceof ContainsOp && binaryExpr.getOperand2() instanceof VectorValue)
+            {
+                Compiled compiled = operand1 == null
+                        ? null
+                        : this.compileContains((ContainsOp) binaryExpr.getOperation(), operand1, ((VectorValue) binaryExpr.getOperand2()).indexed());
+                return compiled == null ? null : compiled.failingIf(operand1.canFail);
+            }
+
+            if (operand1 == null)
+            {
+                return null;
+            }
+
+            Compiled operand2 = this.compile(binaryExpr.getOperand2());
+            if (operand2 == null)
+            {
+                return null;
+            }
+
+            Compiled compiled = this.compileBinary(binaryExpr.getOperation(), operand1, operand2);
+            return compiled == null ? null : compiled.failingIf(operand1.canFail || operand2.canFail);
+        }
+
+        return null;
+    }
+
+    private Compiled compileConstant(Value value)
+    {
+        if (value instanceof LongValue)
+        {
+            long longValue = ((LongValue) value).longValue();
+            LongBlock block = (fromRowIndex, count, values, nulls) -> {
+                Arrays.fill(values, 0, count, longValue);
+                Arrays.fill(nulls, 0, count, false);
+            };
+            return Compiled.ofLong(NEVER_NULL, rowIndex -> longValue, () -> block);
+        }
+
+        if (value instanceof DoubleValue)
+        {
+            double doubleValue = ((DoubleValue) value).doubleValue();
+            DoubleBlock block = (fromRowIndex, count, values, nulls) -> {
+                Arrays.fill(values, 0, count, doubleValue);
+                Arrays.fill(nulls, 0, count, false);
+            };
+            return Compiled.ofDouble(NEVER_NULL, rowIndex -> doubleValue, () -> block);
+        }
+
+        if (value instanceof StringValue)
+        {
+            String stringValue = value.stringValue();
+            return Compiled.ofObject(ValueType.STRING, NEVER_NULL, rowIndex -> stringValue);
+        }
+
+        if (value instanceof DateValue)
+        {
+            LocalDate dateValue = ((DateValue) value).dateValue();
+            long epochDay = dateValue.toEpochDay();
+            return Compiled.ofDate(NEVER_NULL, rowIndex -> dateValue, rowIndex -> epochDay);
+        }
+
+        if (value instanceof BooleanValue)
+        {
+            boolean booleanValue = ((BooleanValue) value).isTrue();
+            BooleanBlock block = (fromRowIndex, count, results) -> Arrays.fill(results, 0, count, booleanValue);
+            return Compiled.ofBoolean(rowIndex -> booleanValue, () -> block);
+        }
+
+        return null;
+    }
+
+    private Compiled compileColumnReference(String columnName)
+    {
+        if (!this.dataFrame.hasColumn(columnName))
+        {
+            return null;
+        }
+
+        DfColumn column = this.dataFrame.getColumnNamed(columnName);
+        if (!column.isStored())
+        {
+            // computed column values are evaluated for every access
+            return null;
+        }
+
+        if (column instanceof DfLongColumnStored)
+        {
+            DfLongColumnStored longColumn = (DfLongColumnStored) column;
+            return Compiled.ofLong(longColumn::isNull, longColumn::getLong);
+        }
+
+        if (column instanceof DfDoubleColumnStored)
+        {
+            DfDoubleColumnStored doubleColumn = (DfDoubleColumnStored) column;
+            return Compiled.ofDouble(doubleColumn::isNull, doubleColumn::getDouble);
+        }
+
+        if (column instanceof DfStringColumn)
+        {
+            DfStringColumn stringColumn = (DfStringColumn) column;
+            return Compiled.ofObject(ValueType.STRING, stringColumn::isNull, stringColumn::getTypedObject);
+        }
+
+        if (column instanceof DfDateColumn)
+        {
+            DfDateColumn dateColumn = (DfDateColumn) column;
+            return Compiled.ofDate(dateColumn::isNull, dateColumn::getTypedObject, dateColumn::getEpochDay);
+        }
+
+        return null;
+    }
+
+    private Compiled compileUnary(UnaryOp operation, Compiled operand)
+    {
+        IntPredicate operandIsNull = operand.isNull;
+
+        if (operation == UnaryOp.IS_NULL)
+        {
+            return Compiled.ofBoolean(operandIsNull);
+        }
+
+        if (operation == UnaryOp.IS_NOT_NULL)
+        {
+            return Compiled.ofBoolean(rowIndex -> !operandIsNull.accept(rowIndex));
+        }
+
+        if (operation == UnaryOp.NOT && operand.type == ValueType.BOOLEAN)
+        {
+            IntPredicate booleanGetter = operand.booleanGetter;
+            Function0<BooleanBlock> booleanBlockFactory = operand.booleanBlockFactory;
+            return Compiled.ofBoolean(rowIndex -> !booleanGetter.accept(rowIndex), () -> {
+                BooleanBlock booleanBlock = booleanBlockFactory.value();
+                return (fromRowIndex, count, results) -> {
+                    booleanBlock.evaluate(fromRowIndex, count, results);
+                    for (int i = 0; i < count; i++)
+                    {
+                        results[i] = !results[i];
+                    }
+                };
+            });
+        }
+
+        if (operation == UnaryOp.MINUS && operandIsNull != NEVER_NULL)
+        {
+            // negating a null value is an error
+            return null;
+        }
+
+        if (operation == UnaryOp.MINUS && operand.type == ValueType.LONG)
+        {
+            IntToLongFunction longGetter = operand.longGetter;
+            Function0<LongBlock> longBlockFactory = operand.longBlockFactory;
+            return Compiled.ofLong(operandIsNull, rowIndex -> -longGetter.valueOf(rowIndex), () -> {
+                LongBlock longBlock = longBlockFactory.value();
+                return (fromRowIndex, count, values, nulls) -> {
+                    longBlock.evaluate(fromRowIndex, count, values, nulls);
+                    for (int i = 0; i < count; i++)
+                    {
+                        values[i] = -values[i];
+                    }
+                };
+            });
+        }
+
+        if (operation == UnaryOp.MINUS && operand.type == ValueType.DOUBLE)
+        {
+            IntToDoubleFunction doubleGetter = operand.doubleGetter;
+            Function0<DoubleBlock> doubleBlockFactory = operand.doubleBlockFactory;
+            return Compiled.ofDouble(operandIsNull, rowIndex -> -doubleGetter.valueOf(rowIndex), () -> {
+                DoubleBlock doubleBlock = doubleBlockFactory.value();
+                return (fromRowIndex, count, values, nulls) -> {
+                    doubleBlock.evaluate(fromRowIndex, count, values, nulls);
+                    for (int i = 0; i < count; i++)
+                    {
+                        values[i] = -values[i];
+                    }
+                };
+            });
+        }
+
+        return null;
+    }
+
+    private Compiled compileBinary(BinaryOp operation, Compiled operand1, Compiled operand2)
+    {
+        if (operation instanceof BooleanOp)
+        {
+            return operand1.type == ValueType.BOOLEAN && operand2.type == ValueType.BOOLEAN
+                    ? this.compileBoolean((BooleanOp) operation, operand1, operand2)
+                    : null;
+        }
+
+        if (operation instanceof ArithmeticOp)
+        {
+            return operand1.isNumber() && operand2.isNumber()
+                    ? this.compileArithmetic((ArithmeticOp) operation, operand1, operand2)
+                    : null;
+        }
+
+        if (operation instanceof ComparisonOp)
+        {
+            ComparisonOp comparisonOp = (ComparisonOp) operation;
+            IntPredicate comparison = this.compileComparison(comparisonOp, operand1, operand2);
+            if (comparison == null)
+            {
+                return null;
+            }
+
+            IntPredicate withNulls = this.withNulls(comparisonOp, operand1, operand2, comparison);
+            return operand1.isNumber() && operand2.isNumber()
+                    ? Compiled.ofBoolean(withNulls, this.compileComparisonBlock(comparisonOp, operand1, operand2))
+                    : Compiled.ofBoolean(withNulls);
+        }
+
+        return null;
+    }
+
+    private Compiled compileBoolean(BooleanOp operation, Compiled operand1, Compiled operand2)
+    {
+        IntPredicate getter1 = operand1.booleanGetter;
+        IntPredicate getter2 = operand2.booleanGetter;
+        Function0<BooleanBlock> blockFactory1 = operand1.booleanBlockFactory;
+        Function0<BooleanBlock> blockFactory2 = operand2.booleanBlockFactory;
+
+        if (operation == BooleanOp.AND)
+        {
+            IntPredicate and = rowIndex -> getter1.accept(rowIndex) && getter2.accept(rowIndex);
+            // the second operand is not evaluated for the rows where the first one is false, which matters if evaluating
+            // it can fail
+            return operand2.canFail
+                    ? Compiled.ofBoolean(and)
+                    : Compiled.ofBoolean(and, () -> combine(blockFactory1, blockFactory2, BooleanOp.AND));
+        }
+
+        if (operation == BooleanOp.OR)
+        {
+            IntPredicate or = rowIndex -> getter1.accept(rowIndex) || getter2.accept(rowIndex);
+            return operand2.canFail
+                    ? Compiled.ofBoolean(or)
+                    : Compiled.ofBoolean(or, () -> combine(blockFactory1, blockFactory2, BooleanOp.OR));
+        }
+
+        if (operation == BooleanOp.XOR)
+        {
+            return Compiled.ofBoolean(
+                    rowIndex -> getter1.accept(rowIndex) ^ getter2.accept(rowIndex),
+                    () -> combine(blockFactory1, blockFactory2, BooleanOp.XOR));
+        }
+
+        return null;
+    }
+
+    private static BooleanBlock combine(Function0<BooleanBlock> blockFactory1, Function0<BooleanBlock> blockFactory2, BooleanOp operation)
+    {
+        BooleanBlock block1 = blockFactory1.value();
+        BooleanBlock block2 = blockFactory2.value();
+        boolean[] results2 = new boolean[BLOCK_SIZE];
+
+        return (fromRowIndex, count, results) -> {
+            block1.evaluate(fromRowIndex, count, results);
+            block2.evaluate(fromRowIndex, count, results2);
+            if (operation == BooleanOp.AND)
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    results[i] &= results2[i];
+                }
+            }
+            else if (operation == BooleanOp.OR)
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    results[i] |= results2[i];
+                }
+            }
+            else
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    results[i] ^= results2[i];
+                }
+            }
+        };
+    }
+
+    /**
+     * the membership is tested on the primitive values using the hash set of the vector elements, the value of a row
+     * where the operand is null is not an element of the vector
+     */
+    private Compiled compileContains(ContainsOp operation, Compiled operand, VectorValue vector)
+    {
+        IntPredicate isNull = operand.isNull;
+        IntPredicate isElement = null;
+
+        if (operand.type == ValueType.LONG && vector.getLongElementSet() != null)
+        {
+            LongSet elements = vector.getLongElementSet();
+            IntToLongFunction getter = operand.longGetter;
+            isElement = rowIndex -> !isNull.accept(rowIndex) && elements.contains(getter.valueOf(rowIndex));
+        }
+        else if (operand.type == ValueType.STRING && vector.getStringElementSet() != null)
+        {
+            SetIterable<String> elements = vector.getStringElementSet();
+            IntToObjectFunction<Object> getter = operand.objectGetter;
+            isElement = rowIndex -> !isNull.accept(rowIndex) && elements.contains(getter.valueOf(rowIndex));
+        }
+        else if (operand.type == ValueType.DATE && vector.getEpochDayElementSet() != null)
+        {
+            LongSet elements = vector.getEpochDayElementSet();
+            IntToLongFunction getter = operand.longGetter;
+            isElement = rowIndex -> !isNull.accept(rowIndex) && elements.contains(getter.valueOf(rowIndex));
+        }
+
+        if (isElement == null)
+        {
+            return null;
+        }
+
+        if (operation == ContainsOp.IN)
+        {
+            return Compiled.ofBoolean(isElement);
+        }
+
+        IntPredicate membership = isElement;
+        return operation == ContainsOp.NOT_IN ? Compiled.ofBoolean(rowIndex -> !membership.accept(rowIndex)) : null;
+    }
+
+    private Compiled compileArithmetic(ArithmeticOp operation, Compiled operand1, Compiled operand2)
+    {
+        IntPredicate isNull = this.eitherIsNull(operand1, operand2);
+
+        if (operand1.type == ValueType.LONG && operand2.type == ValueType.LONG)
+        {
+            IntToLongFunction getter1 = operand1.longGetter;
+            IntToLongFunction getter2 = operand2.longGetter;
+            Function0<LongBlock> blockFactory1 = operand1.longBlockFactory;
+            Function0<LongBlock> blockFactory2 = operand2.longBlockFactory;
+
+            Function0<LongBlock> block = () -> {
+                LongBlock block1 = blockFactory1.value();
+                LongBlock block2 = blockFactory2.value();
+                long[] values2 = new long[BLOCK_SIZE];
+                boolean[] nulls2 = new boolean[BLOCK_SIZE];
+                return (fromRowIndex, count, values, nulls) -> {
+                    block1.evaluate(fromRowIndex, count, values, nulls);
+                    block2.evaluate(fromRowIndex, count, values2, nulls2);
+                    for (int i = 0; i < count; i++)
+                    {
+                        nulls[i] |= nulls2[i];
+                    }
+                    applyToLongs(operation, values, values2, nulls, count);
+                };
+            };
+
+            if (operation == ArithmeticOp.ADD)
+            {
+                return Compiled.ofLong(isNull, rowIndex -> getter1.valueOf(rowIndex) + getter2.valueOf(rowIndex), block);
+            }
+
+            if (operation == ArithmeticOp.SUBTRACT)
+            {
+                return Compiled.ofLong(isNull, rowIndex -> getter1.valueOf(rowIndex) - getter2.valueOf(rowIndex), block);
+            }
+
+            if (operation == ArithmeticOp.MULTIPLY)
+            {
+                return Compiled.ofLong(isNull, rowIndex -> getter1.valueOf(rowIndex) * getter2.valueOf(rowIndex), block);
+            }
+
+            if (operation == ArithmeticOp.DIVIDE)
+            {
+                // integer division by zero fails
+                return Compiled.ofLong(isNull, rowIndex -> getter1.valueOf(rowIndex) / getter2.valueOf(rowIndex), block)
+                               .failingIf(true);
+            }
+
+            return null;
+        }
+
+        IntToDoubleFunction getter1 = operand1.asDouble();
+        IntToDoubleFunction getter2 = operand2.asDouble();
+        Function0<DoubleBlock> blockFactory1 = operand1.asDoubleBlockFactory();
+        Function0<DoubleBlock> blockFactory2 = operand2.asDoubleBlockFactory();
+
+        Function0<DoubleBlock> block = () -> {
+            DoubleBlock block1 = blockFactory1.value();
+            DoubleBlock block2 = blockFactory2.value();
+            double[] values2 = new double[BLOCK_SIZE];
+            boolean[] nulls2 = new boolean[BLOCK_SIZE];
+            return (fromRowIndex, count, values, nulls) -> {
+                block1.evaluate(fromRowIndex, count, values, nulls);
+                block2.evaluate(fromRowIndex, count, values2, nulls2);
+                for (int i = 0; i < count; i++)
+                {
+                    nulls[i] |= nulls2[i];
+                }
+                applyToDoubles(operation, values, values2, count);
+            };
+        };
+
+        if (operation == ArithmeticOp.ADD)
+        {
+            return Compiled.ofDouble(isNull, rowIndex -> getter1.valueOf(rowIndex) + getter2.valueOf(rowIndex), block);
+        }
+
+        if (operation == ArithmeticOp.SUBTRACT)
+        {
+            return Compiled.ofDouble(isNull, rowIndex -> getter1.valueOf(rowIndex) - getter2.valueOf(rowIndex), block);
+        }
+
+        if (operation == ArithmeticOp.MULTIPLY)
+        {
+            return Compiled.ofDouble(isNull, rowIndex -> getter1.valueOf(rowIndex) * getter2.valueOf(rowIndex), block);
+        }
+
+        if (operation == ArithmeticOp.DIVIDE)
+        {
+            return Compiled.ofDouble(isNull, rowIndex -> getter1.valueOf(rowIndex) / getter2.valueOf(rowIndex), block);
+        }
+
+        return null;
+    }
+
+    /**
+     * applies the operation to the values in place, skipping the division of the null values which can be zero
+     */
+    private static void applyToLongs(ArithmeticOp operation, long[] values, long[] values2, boolean[] nulls, int count)
+    {
+        if (operation == ArithmeticOp.ADD)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] += values2[i];
+            }
+        }
+        else if (operation == ArithmeticOp.SUBTRACT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] -= values2[i];
+            }
+        }
+        else if (operation == ArithmeticOp.MULTIPLY)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] *= values2[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                if (!nulls[i])
+                {
+                    values[i] /= values2[i];
+                }
+            }
+        }
+    }
+
+    private static void applyToDoubles(ArithmeticOp operation, double[] values, double[] values2, int count)
+    {
+        if (operation == ArithmeticOp.ADD)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] += values2[i];
+            }
+        }
+        else if (operation == ArithmeticOp.SUBTRACT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] -= values2[i];
+            }
+        }
+        else if (operation == ArithmeticOp.MULTIPLY)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] *= values2[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] /= values2[i];
+            }
+        }
+    }
+
+    /**
+     * @return the comparison of non-null operand values
+     */
+    private IntPredicate compileComparison(ComparisonOp operation, Compiled operand1, Compiled operand2)
+    {
+        if (operand1.type == ValueType.LONG && operand2.type == ValueType.LONG)
+        {
+            IntToLongFunction getter1 = operand1.longGetter;
+            IntToLongFunction getter2 = operand2.longGetter;
+
+            if (operation == ComparisonOp.EQ)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) == getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.NE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) != getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.LT)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) < getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.LTE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) <= getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.GT)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) > getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.GTE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) >= getter2.valueOf(rowIndex);
+            }
+
+            return null;
+        }
+
+        if (operand1.isNumber() && operand2.isNumber())
+        {
+            IntToDoubleFunction getter1 = operand1.asDouble();
+            IntToDoubleFunction getter2 = operand2.asDouble();
+
+            if (operation == ComparisonOp.EQ)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) == getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.NE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) != getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.LT)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) < getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.LTE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) <= getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.GT)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) > getter2.valueOf(rowIndex);
+            }
+
+            if (operation == ComparisonOp.GTE)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex) >= getter2.valueOf(rowIndex);
+            }
+
+            return null;
+        }
+
+        if (operand1.type == operand2.type && (operand1.type == ValueType.STRING || operand1.type == ValueType.DATE))
+        {
+            IntToObjectFunction<Object> getter1 = operand1.objectGetter;
+            IntToObjectFunction<Object> getter2 = operand2.objectGetter;
+
+            if (operation == ComparisonOp.EQ)
+            {
+                return rowIndex -> getter1.valueOf(rowIndex).equals(getter2.valueOf(rowIndex));
+            }
+
+            if (operation == ComparisonOp.NE)
+            {
+                return rowIndex -> !getter1.valueOf(rowIndex).equals(getter2.valueOf(rowIndex));
+            }
+
+            IntToIntComparison comparison = operand1.type == ValueType.STRING
+                    ? rowIndex -> ((String) getter1.valueOf(rowIndex)).compareTo((String) getter2.valueOf(rowIndex))
+                    : rowIndex -> ((LocalDate) getter1.valueOf(rowIndex)).compareTo((LocalDate) getter2.valueOf(rowIndex));
+
+            if (operation == ComparisonOp.LT)
+            {
+                return rowIndex -> comparison.compare(rowIndex) < 0;
+            }
+
+            if (operation == ComparisonOp.LTE)
+            {
+                return rowIndex -> comparison.compare(rowIndex) <= 0;
+            }
+
+            if (operation == ComparisonOp.GT)
+            {
+                return rowIndex -> comparison.compare(rowIndex) > 0;
+            }
+
+            if (operation == ComparisonOp.GTE)
+            {
+                return rowIndex -> comparison.compare(rowIndex) >= 0;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the factory of the block evaluation of a comparison of numbers, including the treatment of null values
+     */
+    private Function0<BooleanBlock> compileComparisonBlock(ComparisonOp operation, Compiled operand1, Compiled operand2)
+    {
+        boolean mayHaveNulls = operand1.isNull != NEVER_NULL || operand2.isNull != NEVER_NULL;
+
+        if (operand1.type == ValueType.LONG && operand2.type == ValueType.LONG)
+        {
+            Function0<LongBlock> blockFactory1 = operand1.longBlockFactory;
+            Function0<LongBlock> blockFactory2 = operand2.longBlockFactory;
+
+            return () -> {
+                LongBlock block1 = blockFactory1.value();
+                LongBlock block2 = blockFactory2.value();
+                long[] values1 = new long[BLOCK_SIZE];
+                long[] values2 = new long[BLOCK_SIZE];
+                boolean[] nulls1 = new boolean[BLOCK_SIZE];
+                boolean[] nulls2 = new boolean[BLOCK_SIZE];
+                return (fromRowIndex, count, results) -> {
+                    block1.evaluate(fromRowIndex, count, values1, nulls1);
+                    block2.evaluate(fromRowIndex, count, values2, nulls2);
+                    compareLongs(operation, values1, values2, count, results);
+                    if (mayHaveNulls)
+                    {
+                        compareNulls(operation, nulls1, nulls2, count, results);
+                    }
+                };
+            };
+        }
+
+        Function0<DoubleBlock> blockFactory1 = operand1.asDoubleBlockFactory();
+        Function0<DoubleBlock> blockFactory2 = operand2.asDoubleBlockFactory();
+
+        return () -> {
+            DoubleBlock block1 = blockFactory1.value();
+            DoubleBlock block2 = blockFactory2.value();
+            double[] values1 = new double[BLOCK_SIZE];
+            double[] values2 = new double[BLOCK_SIZE];
+            boolean[] nulls1 = new boolean[BLOCK_SIZE];
+            boolean[] nulls2 = new boolean[BLOCK_SIZE];
+            return (fromRowIndex, count, results) -> {
+                block1.evaluate(fromRowIndex, count, values1, nulls1);
+                block2.evaluate(fromRowIndex, count, values2, nulls2);
+                compareDoubles(operation, values1, values2, count, results);
+                if (mayHaveNulls)
+                {
+                    compareNulls(operation, nulls1, nulls2, count, results);
+                }
+            };
+        };
+    }
+
+    private static void compareLongs(ComparisonOp operation, long[] values1, long[] values2, int count, boolean[] results)
+    {
+        if (operation == ComparisonOp.EQ)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] == values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.NE)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] != values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.LT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] < values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.LTE)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] <= values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.GT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] > values2[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] >= values2[i];
+            }
+        }
+    }
+
+    private static void compareDoubles(ComparisonOp operation, double[] values1, double[] values2, int count, boolean[] results)
+    {
+        if (operation == ComparisonOp.EQ)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] == values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.NE)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] != values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.LT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] < values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.LTE)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] <= values2[i];
+            }
+        }
+        else if (operation == ComparisonOp.GT)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] > values2[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                results[i] = values1[i] >= values2[i];
+            }
+        }
+    }
+
+    /**
+     * overrides the comparison results for the rows where either operand is null, the same way as
+     * {@link #withNulls(ComparisonOp, IntPredicate, IntPredicate, IntPredicate)} does
+     */
+    private static void compareNulls(ComparisonOp operation, boolean[] nulls1, boolean[] nulls2, int count, boolean[] results)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (nulls1[i] || nulls2[i])
+            {
+                results[i] = nullComparison(operation, nulls1[i], nulls2[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the result of the comparison where at least one of the operands is null
+     */
+    private static boolean nullComparison(ComparisonOp operation, boolean null1, boolean null2)
+    {
+        if (operation == ComparisonOp.EQ)
+        {
+            return null1 && null2;
+        }
+
+        if (operation == ComparisonOp.NE)
+        {
+            return null1 != null2;
+        }
+
+        if (operation == ComparisonOp.LT)
+        {
+            return !null2;
+        }
+
+        if (operation == ComparisonOp.LTE)
+        {
+            return null1;
+        }
+
+        if (operation == ComparisonOp.GT)
+        {
+            return !null1;
+        }
+
+        // GTE
+        return null2;
+    }
+
+    /**
+     * adds the treatment of null operand values to a comparison of the operands, also evaluating an operand that can
+     * fail where the other one is null (see {@link #eitherIsNull(Compiled, Compiled)})
+     */
+    private IntPredicate withNulls(ComparisonOp operation, Compiled operand1, Compiled operand2, IntPredicate comparison)
+    {
+        IntPredicate withNulls = this.withNulls(operation, operand1.isNull, operand2.isNull, comparison);
+        if (!operand1.canFail && !operand2.canFail)
+        {
+            return withNulls;
+        }
+
+        IntPredicate eitherIsNull = this.eitherIsNull(operand1, operand2);
+        return rowIndex -> {
+            eitherIsNull.accept(rowIndex);
+            return withNulls.accept(rowIndex);
+        };
+    }
+
+    /**
+     * adds the treatment of null operand values to a comparison as done by {@link ComparisonOp}: null values are equal
+     * to each other and are smaller than any other value
+     */
+    private IntPredicate withNulls(ComparisonOp operation, IntPredicate isNull1, IntPredicate isNull2, IntPredicate comparison)
+    {
+        if (isNull1 == NEVER_NULL && isNull2 == NEVER_NULL)
+        {
+            return comparison;
+        }
+
+        if (operation == ComparisonOp.EQ)
+        {
+            return rowIndex -> {
+                boolean null1 = isNull1.accept(rowIndex);
+                boolean null2 = isNull2.accept(rowIndex);
+                return null1 || null2 ? null1 && null2 : comparison.accept(rowIndex);
+            };
+        }
+
+        if (operation == ComparisonOp.NE)
+        {
+            return rowIndex -> {
+                boolean null1 = isNull1.accept(rowIndex);
+                boolean null2 = isNull2.accept(rowIndex);
+                return null1 || null2 ? null1 != null2 : comparison.accept(rowIndex);
+            };
+        }
+
+        if (operation == ComparisonOp.LT)
+        {
+            return rowIndex -> !isNull2.accept(rowIndex) && (isNull1.accept(rowIndex) || comparison.accept(rowIndex));
+        }
+
+        if (operation == ComparisonOp.LTE)
+        {
+            return rowIndex -> isNull1.accept(rowIndex) || (!isNull2.accept(rowIndex) && comparison.accept(rowIndex));
+        }
+
+        if (operation == ComparisonOp.GT)
+        {
+            return rowIndex -> !isNull1.accept(rowIndex) && (isNull2.accept(rowIndex) || comparison.accept(rowIndex));
+        }
+
+        // GTE
+        return rowIndex -> isNull2.accept(rowIndex) || (!isNull1.accept(rowIndex) && comparison.accept(rowIndex));
+    }
+
+    /**
+     * The interpreter evaluates both operands of an operation before checking them for null values, so an operand whose
+     * evaluation can fail is evaluated even if the other operand is null, to fail the same way.
+     */
+    private IntPredicate eitherIsNull(Compiled operand1, Compiled operand2)
+    {
+        IntPredicate isNull1 = operand1.isNull;
+        IntPredicate isNull2 = operand2.isNull;
+
+        if (operand1.canFail || operand2.canFail)
+        {
+            return rowIndex -> {
+                boolean null1 = isNull1.accept(rowIndex);
+                boolean null2 = isNull2.accept(rowIndex);
+                if (null1 != null2)
+                {
+                    (null1 ? operand2 : operand1).evaluate(rowIndex);
+                }
+                return null1 || null2;
+            };
+        }
+
+        if (isNull1 == NEVER_NULL)
+        {
+            return isNull2;
+        }
+
+        if (isNull2 == NEVER_NULL)
+        {
+            return isNull1;
+        }
+
+        return rowIndex -> isNull1.accept(rowIndex) || isNull2.accept(rowIndex);
+    }
+
+    private interface IntToIntComparison
+    {
+        int compare(int rowIndex);
+    }
+
+    /**
+     * Evaluates a long expression for a block of at most {@link #BLOCK_SIZE} consecutive rows. The values for the rows
+     * with null flags are undefined.
+     */
+    interface LongBlock
+    {
+        void evaluate(int fromRowIndex, int count, long[] values, boolean[] nulls);
+    }
+
+    /**
+     * Evaluates a double expression for a block of at most {@link #BLOCK_SIZE} consecutive rows. The values for the rows
+     * with null flags are undefined.
+     */
+    interface DoubleBlock
+    {
+        void evaluate(int fromRowIndex, int count, double[] values, boolean[] nulls);
+    }
+
+    /**
+     * Evaluates a boolean expression for a block of at most {@link #BLOCK_SIZE} consecutive rows.
+     */
+    interface BooleanBlock
+    {
+        void evaluate(int fromRowIndex, int count, boolean[] results);
+    }
+
+    /**
+     * A compiled expression node: the type of its value and the closures returning whether the value is null and the
+     * value itself. Only the value closure matching the type is set, it is not called for rows with null values. The
+     * nodes of numeric and boolean types also have a factory of the closures evaluating the expression for a block of
+     * rows.
+     */
+    static final class Compiled
+    {
+        private final ValueType type;
+        private final IntPredicate isNull;
+        private final IntToLongFunction longGetter;
+        private final IntToDoubleFunction doubleGetter;
+        private final IntToObjectFunction<Object> objectGetter;
+        private final IntPredicate booleanGetter;
+        private final Function0<LongBlock> longBlockFactory;
+        private final Function0<DoubleBlock> doubleBlockFactory;
+        private final Function0<BooleanBlock> booleanBlockFactory;
+        private final boolean canFail; // the evaluation can fail for some values, as opposed to for any value
+
+        private Compiled(
+                ValueType newType,
+                IntPredicate newIsNull,
+                IntToLongFunction newLongGetter,
+                IntToDoubleFunction newDoubleGetter,
+                IntToObjectFunction<Object> newObjectGetter,
+                IntPredicate newBooleanGetter,
+                Function0<LongBlock> newLongBlockFactory,
+                Function0<DoubleBlock> newDoubleBlockFactory,
+                Function0<BooleanBlock> newBooleanBlockFactory,
+                boolean newCanFail)
+        {
+            this.type = newType;
+            this.isNull = newIsNull;
+            this.longGetter = newLongGetter;
+            this.doubleGetter = newDoubleGetter;
+            this.objectGetter = newObjectGetter;
+            this.booleanGetter = newBooleanGetter;
+            this.longBlockFactory = newLongBlockFactory;
+            this.doubleBlockFactory = newDoubleBlockFactory;
+            this.booleanBlockFactory = newBooleanBlockFactory;
+            this.canFail = newCanFail;
+        }
+
+        static Compiled ofLong(IntPredicate isNull, IntToLongFunction longGetter)
+        {
+            LongBlock longBlock = (fromRowIndex, count, values, nulls) -> {
+                for (int i = 0; i < count; i++)
+                {
+                    int rowIndex = fromRowIndex + i;
+                    nulls[i] = isNull.accept(rowIndex);
+                    values[i] = nulls[i] ? 0L : longGetter.valueOf(rowIndex);
+                }
+            };
+            return ofLong(isNull, longGetter, () -> longBlock);
+        }
+
+        static Compiled ofLong(IntPredicate isNull, IntToLongFunction longGetter, Function0<LongBlock> longBlockFactory)
+        {
+            return new Compiled(ValueType.LONG, isNull, longGetter, null, null, null, longBlockFactory, null, null, false);
+        }
+
+        static Compiled ofDouble(IntPredicate isNull, IntToDoubleFunction doubleGetter)
+        {
+            DoubleBlock doubleBlock = (fromRowIndex, count, values, nulls) -> {
+                for (int i = 0; i < count; i++)
+                {
+                    int rowIndex = fromRowIndex + i;
+                    nulls[i] = isNull.accept(rowIndex);
+                    values[i] = nulls[i] ? 0.0 : doubleGetter.valueOf(rowIndex);
+                }
+            };
+            return ofDouble(isNull, doubleGetter, () -> doubleBlock);
+        }
+
+        static Compiled ofDouble(IntPredicate isNull, IntToDoubleFunction doubleGetter, Function0<DoubleBlock> doubleBlockFactory)
+        {
+            return new Compiled(ValueType.DOUBLE, isNull, null, doubleGetter, null, null, null, doubleBlockFactory, null, false);
+        }
+
+        static Compiled ofObject(ValueType type, IntPredicate isNull, IntToObjectFunction<Object> objectGetter)
+        {
+            return new Compiled(type, isNull, null, null, objectGetter, null, null, null, null, false);
+        }
+
+        /**
+         * the long getter of a date node returns the epoch day of the date
+         */
+        static Compiled ofDate(IntPredicate isNull, IntToObjectFunction<Object> objectGetter, IntToLongFunction epochDayGetter)
+        {
+            return new Compiled(ValueType.DATE, isNull, epochDayGetter, null, objectGetter, null, null, null, null, false);
+        }
+
+        static Compiled ofBoolean(IntPredicate booleanGetter)
+        {
+            BooleanBlock booleanBlock = (fromRowIndex, count, results) -> {
+                for (int i = 0; i < count; i++)
+                {
+                    results[i] = booleanGetter.accept(fromRowIndex + i);
+                }
+            };
+            return ofBoolean(booleanGetter, () -> booleanBlock);
+        }
+
+        static Compiled ofBoolean(IntPredicate booleanGetter, Function0<BooleanBlock> booleanBlockFactory)
+        {
+            return new Compiled(ValueType.BOOLEAN, NEVER_NULL, null, null, null, booleanGetter, null, null, booleanBlockFactory, false);
+        }
+
+        /**
+         * @return this node marked as one whose evaluation can fail if the condition is true, this node otherwise
+         */
+        Compiled failingIf(boolean condition)
+        {
+            return !condition || this.canFail
+                    ? this
+                    : new Compiled(
+                            this.type, this.isNull, this.longGetter, this.doubleGetter, this.objectGetter, this.booleanGetter,
+                            this.longBlockFactory, this.doubleBlockFactory, this.booleanBlockFactory, true);
+        }
+
+        /**
+         * evaluates the value of a row with a non-null value only for the failure the evaluation may raise
+         */
+        void evaluate(int rowIndex)
+        {
+            if (this.longGetter != null)
+            {
+                this.longGetter.valueOf(rowIndex);
+            }
+            else if (this.doubleGetter != null)
+            {
+                this.doubleGetter.valueOf(rowIndex);
+            }
+            else if (this.objectGetter != null)
+            {
+                this.objectGetter.valueOf(rowIndex);
+            }
+            else
+            {
+                this.booleanGetter.accept(rowIndex);
+            }
+        }
+
+        ValueType getType()
+        {
+            return this.type;
+        }
+
+        boolean isNull(int rowIndex)
+        {
+            return this.isNull.accept(rowIndex);
+        }
+
+        long getLong(int rowIndex)
+        {
+            return this.longGetter.valueOf(rowIndex);
+        }
+
+        double getDouble(int rowIndex)
+        {
+            return this.doubleGetter.valueOf(rowIndex);
+        }
+
+        boolean isNumber()
+        {
+            return this.type == ValueType.LONG || this.type == ValueType.DOUBLE;
+        }
+
+        IntToDoubleFunction asDouble()
+        {
+            if (this.type == ValueType.DOUBLE)
+            {
+                return this.doubleGetter;
+            }
+
+            IntToLongFunction getter = this.longGetter;
+            return rowIndex -> (double) getter.valueOf(rowIndex);
+        }
+
+        Function0<DoubleBlock> asDoubleBlockFactory()
+        {
+            if (this.type == ValueType.DOUBLE)
+            {
+                return this.doubleBlockFactory;
+            }
+
+            Function0<LongBlock> blockFactory = this.longBlockFactory;
+            return () -> {
+                LongBlock block = blockFactory.value();
+                long[] longValues = new long[BLOCK_SIZE];
+                return (fromRowIndex, count, values, nulls) -> {
+                    block.evaluate(fromRowIndex, count, longValues, nulls);
+                    for (int i = 0; i < count; i++)
+                    {
+                        values[i] = longValues[i];
+                    }
+                };
+            };
+        }
+
+        IntToObjectFunction<Value> valueGetter()
+        {
+            IntPredicate nullTest = this.isNull;
+            switch (this.type)
+            {
+                case LONG:
+                    IntToLongFunction getLong = this.longGetter;
+                    return rowIndex -> nullTest.accept(rowIndex) ? Value.VOID : new LongValue(getLong.valueOf(rowIndex));
+                case DOUBLE:
+                    IntToDoubleFunction getDouble = this.doubleGetter;
+                    return rowIndex -> nullTest.accept(rowIndex) ? Value.VOID : new DoubleValue(getDouble.valueOf(rowIndex));
+                case STRING:
+                    IntToObjectFunction<Object> getString = this.objectGetter;
+                    return rowIndex -> nullTest.accept(rowIndex) ? Value.VOID : new StringValue((String) getString.valueOf(rowIndex));
+                case DATE:
+                    IntToObjectFunction<Object> getDate = this.objectGetter;
+                    return rowIndex -> nullTest.accept(rowIndex) ? Value.VOID : new DateValue((LocalDate) getDate.valueOf(rowIndex));
+                case BOOLEAN:
+                    IntPredicate getBoolean = this.booleanGetter;
+                    return rowIndex -> BooleanValue.valueOf(getBoolean.accept(rowIndex));
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+/**
+ * Read only long values stored in blocks, each block keeping its smallest value (the frame of reference) and the
+ * offsets of the values in the block from it, in the narrowest primitive type able to hold the largest offset in any
+ * block. Works well for values that are close to each other within a block even if they span a wide range overall,
+ * such as monotonically increasing sequence ids or timestamps.
+ */
+final class DfFrameOfReferenceLongValues
+implements DfLongValues
+{
+    static final int BLOCK_SHIFT = 7;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final long[] blockBases;
+    private final DfLongValues offsets;
+
+    private DfFrameOfReferenceLongValues(long[] newBlockBases, DfLongValues newOffsets)
+    {
+        this.blockBases = newBlockBases;
+        this.offsets = newOffsets;
+    }
+
+    /**
+     * @param values the values to encode
+     * @param nullMap the null markers of the values, the values in the rows marked as null are stored as the block base
+     * @param blockBases the smallest non-null value in each block
+     * @param maxOffset the largest difference between a non-null value and its block base
+     * @return the encoded values or <code>null</code> if the offsets do not fit into an {@code int}
+     */
+    static DfFrameOfReferenceLongValues encode(DfLongValues values, DfNullMap nullMap, long[] blockBases, long maxOffset)
+    {
+        DfLongValues offsets = DfNarrowLongValues.narrowed(
+                values.size(),
+                index -> nullMap.isNull(index) ? 0 : values.get(index) - blockBases[index >>> BLOCK_SHIFT],
+                0, maxOffset);
+
+        return offsets == null ? null : new DfFrameOfReferenceLongValues(blockBases, offsets);
+    }
+
+    @Override
+    public int size()
+    {
+        return this.offsets.size();
+    }
+
+    @Override
+    public long get(int index)
+    {
+        return this.blockBases[index >>> BLOCK_SHIFT] + this.offsets.get(index);
+    }
+
+    @Override
+    public ImmutableLongList toImmutable()
+    {
+        int size = this.size();
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++)
+        {
+            result[i] = this.get(i);
+        }
+        return LongLists.immutable.with(result);
+    }
+
+    @Override
+    public long sum()
+    {
+        int size = this.size();
+        long sum = this.offsets.sum();
+        for (int blockIndex = 0; blockIndex < this.blockBases.length; blockIndex++)
+        {
+            int blockLength = Math.min(BLOCK_SIZE, size - (blockIndex << BLOCK_SHIFT));
+            sum += this.blockBases[blockIndex] * blockLength;
+        }
+        return sum;
+    }
+}
@@ -2,29 +2,55 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
 import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
 import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
 
 /**
  * Maintains an index on a data frame based on one or more column values. If a row with a specified index value does
  * not exist, will add the row with the respective values to the data frame. This can be useful for example for
  * aggregation to maintain a dataframe with accumulator rows.
+ * <p>
+ * When the index is looked up by the rows of a source data frame and all the columns of the source data frame
+ * making up the index key are dictionary encoded string columns, the index is keyed by a single {@code long} value
+ * combining the dictionary codes of the key values, so no key objects are created and no strings are hashed or compared.
  */
 public class DfIndexKeeper
 {
-    private final MutableObjectIntMap<ListIterable<Object>> rowIndexByKey = ObjectIntMaps.mutable.of();
+    private final MutableObjectIntMap<ListIterable<Object>> rowIndexByKey;
     private final ListIterable<DfColumn> columnsToIndexBy;
     private final DataFrame indexedDataFrame;
+    private final int expectedSize;
+
+    private boolean objectKeysOnly = false;
+    private DataFrame codedKeySource = null;
+    private ListIterable<DfStringColumnStored> codedKeyColumns = null;
+    private long[] codedKeyRadixes = null;
+    private MutableLongIntMap rowIndexByCodedKey = null;
 
     public DfIndexKeeper(DataFrame newIndexedDataFrame, ListIterable<String> indexByColumnNames)
+    {
+        this(newIndexedDataFrame, indexByColumnNames, 0);
+    }
+
+    /**
+     * @param newIndexedDataFrame the data frame to maintain the index on
+     * @param indexByColumnNames the columns making up the index key
+     * @param newExpectedSize the expected number of keys in the index, used to pre-size the index, can be 0 if not known
+     */
+    public DfIndexKeeper(DataFrame newIndexedDataFrame, ListIterable<String> indexByColumnNames, int newExpectedSize)
     {
         this.indexedDataFrame = newIndexedDataFrame;
         this.columnsToIndexBy = indexByColumnNames.collect(this.indexedDataFrame::getColumnNamed);
+        this.expectedSize = newExpectedSize;
+        this.rowIndexByKey = ObjectIntMaps.mutable.withInitialCapacity(newExpectedSize);
     }
 
     private int getRowIndexAtKey(ListIterable<Object> key)
     {
+        this.switchToObjectKeys();
         return this.rowIndexByKey.getIfAbsent(key, -1);
     }
 
@@ -39,10 +65,7 @@ public class DfIndexKeeper
         int rowIndex = this.getRowIndexAtKey(key);
         if (rowIndex == -1)
         {
-            this.indexedDataFrame.addRow();
-
-            // need to be effectively final so introducing another variable rather than reusing rowIndex
-            int lastRowIndex = this.indexedDataFrame.rowCount() - 1;
+            int lastRowIndex = this.addIndexedRow();
             this.addIndex(key, lastRowIndex);
             // todo - use addObject/add Empty instead?
             this.columnsToIndexBy.forEachWithIndex((col, i) -> col.setObject(lastRowIndex, key.get(i)));
@@ -52,6 +75,59 @@ public class DfIndexKeeper
         return rowIndex;
     }
 
+    /**
+     * Returns the row in the indexed data frame matching the index key values in the specified row of another data
+     * frame.
+     * @param aDataFrame the data frame containing the key values, must have the columns the index is based on
+     * @param rowIndex the index of the row containing the key values
+     * @return row id in the <b>the indexed data frame</b> corresponding to the key or -1 if the key is not in the index
+     */
+    public int getRowIndexMatching(DataFrame aDataFrame, int rowIndex)
+    {
+        if (this.usesCodedKeys(aDataFrame, rowIndex))
+        {
+            return this.rowIndexByCodedKey.getIfAbsent(this.codedKeyFrom(rowIndex), -1);
+        }
+
+        return this.getRowIndexAtKey(this.computeKeyFrom(aDataFrame, rowIndex));
+    }
+
+    /**
+     * Returns the row in the indexed data frame matching the index key values in the specified row of another data
+     * frame. If no matching key exists in the index, a new entry for this key is added to the indexed data frame and
+     * its index is returned.
+     * @param aDataFrame the data frame containing the key values, must have the columns the index is based on
+     * @param rowIndex the index of the row containing the key values
+     * @return row id in the <b>the indexed data frame</b> corresponding to the key
+     */
+    public int getRowIndexMatchingIfAbsentAdd(DataFrame aDataFrame, int rowIndex)
+    {
+        if (!this.usesCodedKeys(aDataFrame, rowIndex))
+        {
+            return this.getRowIndexAtKeyIfAbsentAdd(this.computeKeyFrom(aDataFrame, rowIndex));
+        }
+
+        long codedKey = this.codedKeyFrom(rowIndex);
+        int indexedRowIndex = this.rowIndexByCodedKey.getIfAbsent(codedKey, -1);
+        if (indexedRowIndex == -1)
+        {
+            int lastRowIndex = this.addIndexedRow();
+            this.rowIndexByCodedKey.put(codedKey, lastRowIndex);
+            this.columnsToIndexBy.forEachWithIndex(
+                    (col, i) -> col.setObject(lastRowIndex, this.codedKeyColumns.get(i).getObject(rowIndex)));
+
+            indexedRowIndex = lastRowIndex;
+        }
+
+        return indexedRowIndex;
+    }
+
+    private int addIndexedRow()
+    {
+        this.indexedDataFrame.addRow();
+        return this.indexedDataFrame.rowCount() - 1;
+    }
+
     /**
      * Checks if the given key exists in this index
      * @param key the key to look up in the index
@@ -83,6 +159,107 @@ public class DfIndexKeeper
 
     public void addIndex(ListIterable<Object> key, int rowIndex)
     {
+        this.switchToObjectKeys();
         this.rowIndexByKey.put(key, rowIndex);
     }
+
+    private boolean usesCodedKeys(DataFrame aDataFrame, int rowIndex)
+    {
+        if (this.objectKeysOnly)
+        {
+            return false;
+        }
+
+        if (this.codedKeySource == null)
+        {
+            this.prepareCodedKeys(aDataFrame);
+        }
+        else if (this.codedKeySource != aDataFrame)
+        {
+            // coded keys are only comparable for the rows of the same data frame
+            this.switchToObjectKeys();
+        }
+
+        if (!this.objectKeysOnly && this.codedKeyFrom(rowIndex) == -1L)
+        {
+            // the source dictionaries have grown since the keys were set up
+            this.switchToObjectKeys();
+        }
+
+        return !this.objectKeysOnly;
+    }
+
+    private void prepareCodedKeys(DataFrame aDataFrame)
+    {
+        ListIterable<DfColumn> sourceColumns = this.columnsToIndexBy.collect(col -> aDataFrame.getColumnNamed(col.getName()));
+
+        if (!sourceColumns.allSatisfy(DfStringColumnStored.class::isInstance))
+        {
+            this.objectKeysOnly = true;
+            return;
+        }
+
+        this.codedKeyColumns = sourceColumns.collect(DfStringColumnStored.class::cast);
+        this.codedKeyRadixes = new long[this.codedKeyColumns.size()];
+
+        long keyRange = 1;
+        for (int i = 0; i < this.codedKeyRadixes.length; i++)
+        {
+            // one more value for null
+            long radix = this.codedKeyColumns.get(i).dictionarySize() + 1L;
+            if (keyRange > Long.MAX_VALUE / radix)
+            {
+                this.objectKeysOnly = true;
+                return;
+            }
+
+            keyRange *= radix;
+            this.codedKeyRadixes[i] = radix;
+        }
+
+        this.codedKeySource = aDataFrame;
+        this.rowIndexByCodedKey = LongIntMaps.mutable.withInitialCapacity(this.expectedSize);
+    }
+
+    /**
+     * @return the key combining the dictionary codes of the values in the row or -1 if any of the codes is out of the
+     * range the key has been set up for
+     */
+    private long codedKeyFrom(int rowIndex)
+    {
+        long key = 0;
+        for (int i = 0; i < this.codedKeyRadixes.length; i++)
+        {
+            long code = this.codedKeyColumns.get(i).getCode(rowIndex) + 1L;
+            if (code >= this.codedKeyRadixes[i])
+            {
+                return -1L;
+            }
+
+            key = key * this.codedKeyRadixes[i] + code;
+        }
+
+        return key;
+    }
+
+    private void switchToObjectKeys()
+    {
+        if (this.objectKeysOnly)
+        {
+            return;
+        }
+
+        this.objectKeysOnly = true;
+
+        if (this.rowIndexByCodedKey != null)
+        {
+            this.rowIndexByCodedKey.forEachValue(
+                    rowIndex -> this.rowIndexByKey.put(this.computeKeyFrom(this.indexedDataFrame, rowIndex), rowIndex));
+            this.rowIndexByCodedKey = null;
+        }
+
+        this.codedKeySource = null;
+        this.codedKeyColumns = null;
+        this.codedKeyRadixes = null;
+    }
 }
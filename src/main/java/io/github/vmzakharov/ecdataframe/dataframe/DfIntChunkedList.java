@@ -0,0 +1,102 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.ImmutableIntList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An append-only list of {@code int} values stored in fixed size chunks, optionally moved into buffers outside of
+ * the Java heap, see {@link DfChunkedList}.
+ */
+final class DfIntChunkedList
+extends DfChunkedList<int[]>
+{
+    static private final int[][] NO_CHUNKS = new int[0][];
+
+    DfIntChunkedList()
+    {
+        this(0);
+    }
+
+    DfIntChunkedList(int initialCapacity)
+    {
+        super(NO_CHUNKS, Integer.BYTES, initialCapacity);
+    }
+
+    public int get(int index)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            return this.bufferOf(index).getInt(this.bufferOffsetOf(index) * Integer.BYTES);
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        return this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)];
+    }
+
+    public void set(int index, int value)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            this.bufferOf(index).putInt(this.bufferOffsetOf(index) * Integer.BYTES, value);
+            return;
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+    }
+
+    public void add(int value)
+    {
+        int heapIndex = this.heapIndexToAddAt();
+        this.chunkWithRoomAt(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+        this.added(1);
+    }
+
+    /**
+     * appends all the values from another chunked list to the end of this one, copying them a chunk at a time
+     *
+     * @param other the list to append
+     */
+    public void addAll(DfIntChunkedList other)
+    {
+        this.addAllChunked(other);
+    }
+
+    /**
+     * @param allocator the allocator of the buffers to store the values of the copy in, {@code null} to store them on
+     * the Java heap
+     * @return a new list with the same values as this one
+     */
+    public DfIntChunkedList copy(DfBufferAllocator allocator)
+    {
+        return this.copyInto(new DfIntChunkedList(this.size()), allocator);
+    }
+
+    public ImmutableIntList toImmutable()
+    {
+        return IntLists.immutable.with(this.toArray());
+    }
+
+    @Override
+    protected int[] newArray(int length)
+    {
+        return new int[length];
+    }
+
+    @Override
+    protected void getValues(ByteBuffer buffer, int[] target, int targetOffset, int count)
+    {
+        // the int view is created at the current position and does not move the position of the buffer
+        buffer.asIntBuffer().get(target, targetOffset, count);
+    }
+
+    @Override
+    protected void putValues(ByteBuffer buffer, int[] source, int sourceOffset, int count)
+    {
+        buffer.asIntBuffer().put(source, sourceOffset, count);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An append-only list of {@code long} values stored in fixed size chunks, optionally moved into buffers outside of
+ * the Java heap, see {@link DfChunkedList}.
+ */
+final class DfLongChunkedList
+extends DfChunkedList<long[]>
+implements DfLongValues
+{
+    static private final long[][] NO_CHUNKS = new long[0][];
+
+    DfLongChunkedList()
+    {
+        this(0);
+    }
+
+    DfLongChunkedList(int initialCapacity)
+    {
+        super(NO_CHUNKS, Long.BYTES, initialCapacity);
+    }
+
+    @Override
+    public long get(int index)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            return this.bufferOf(index).getLong(this.bufferOffsetOf(index) * Long.BYTES);
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        return this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)];
+    }
+
+    public void set(int index, long value)
+    {
+        this.checkIndex(index);
+        if (this.isBuffered(index))
+        {
+            this.bufferOf(index).putLong(this.bufferOffsetOf(index) * Long.BYTES, value);
+            return;
+        }
+
+        int heapIndex = this.heapIndexOf(index);
+        this.chunkOf(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+    }
+
+    public void add(long value)
+    {
+        int heapIndex = this.heapIndexToAddAt();
+        this.chunkWithRoomAt(heapIndex)[this.chunkOffsetOf(heapIndex)] = value;
+        this.added(1);
+    }
+
+    /**
+     * appends all the values from another chunked list to the end of this one, copying them a chunk at a time
+     *
+     * @param other the list to append
+     */
+    public void addAll(DfLongChunkedList other)
+    {
+        this.addAllChunked(other);
+    }
+
+    /**
+     * appends all the values from a list with an arbitrary layout to the end of this one
+     *
+     * @param other the values to append
+     */
+    public void addAll(DfLongValues other)
+    {
+        if (other instanceof DfLongChunkedList)
+        {
+            this.addAll((DfLongChunkedList) other);
+            return;
+        }
+
+        int otherSize = other.size();
+        for (int i = 0; i < otherSize; i++)
+        {
+            this.add(other.get(i));
+        }
+    }
+
+    /**
+     * @param allocator the allocator of the buffers to store the values of the copy in, {@code null} to store them on
+     * the Java heap
+     * @return a new list with the same values as this one
+     */
+    public DfLongChunkedList copy(DfBufferAllocator allocator)
+    {
+        return this.copyInto(new DfLongChunkedList(this.size()), allocator);
+    }
+
+    @Override
+    public ImmutableLongList toImmutable()
+    {
+        return LongLists.immutable.with(this.toArray());
+    }
+
+    @Override
+    protected long[] newArray(int length)
+    {
+        return new long[length];
+    }
+
+    @Override
+    protected void getValues(ByteBuffer buffer, long[] target, int targetOffset, int count)
+    {
+        // the long view is created at the current position and does not move the position of the buffer
+        buffer.asLongBuffer().get(target, targetOffset, count);
+    }
+
+    @Override
+    protected void putValues(ByteBuffer buffer, long[] source, int sourceOffset, int count)
+    {
+        buffer.asLongBuffer().put(source, sourceOffset, count);
+    }
+}
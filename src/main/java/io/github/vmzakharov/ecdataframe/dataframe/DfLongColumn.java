@@ -36,6 +36,33 @@ extends DfColumnAbstract
                 .toImmutable();
     }
 
+    /**
+     * @return the sum of the values in this column
+     * @throws NullPointerException if the column contains null values
+     */
+    public long sum()
+    {
+        return this.toLongList().sum();
+    }
+
+    /**
+     * @return the smallest value in this column
+     * @throws NullPointerException if the column contains null values
+     */
+    public long min()
+    {
+        return this.toLongList().min();
+    }
+
+    /**
+     * @return the largest value in this column
+     * @throws NullPointerException if the column contains null values
+     */
+    public long max()
+    {
+        return this.toLongList().max();
+    }
+
     public ValueType getType()
     {
         return ValueType.LONG;
@@ -3,6 +3,7 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import io.github.vmzakharov.ecdataframe.dsl.Expression;
 import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
 
 public class DfLongColumnComputed
@@ -12,6 +13,13 @@ implements DfColumnComputed
     private final String expressionAsString;
     private final Expression expression;
 
+    private final DfComputedValueCache<long[]> valueCache = new DfComputedValueCache<>(
+            this, long[]::new, (values, rowIndex, value) -> values[rowIndex] = ((LongValue) value).longValue());
+
+    // the compiled expression is written before the schema version and read after it
+    private volatile DfExpressionCompiler.Compiled compiledExpression = null;
+    private volatile int compiledSchemaVersion = -1;
+
     public DfLongColumnComputed(DataFrame newDataFrame, String newName, String newExpressionAsString)
     {
         super(newDataFrame, newName);
@@ -22,6 +30,28 @@ implements DfColumnComputed
     @Override
     public long getLong(int rowIndex)
     {
+        DfComputedValueCache.Cached<long[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            if (cached.isNull(rowIndex))
+            {
+                throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+            }
+
+            return cached.values()[rowIndex];
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            if (compiled.isNull(rowIndex))
+            {
+                throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+            }
+
+            return compiled.getLong(rowIndex);
+        }
+
         Value result = this.getValue(rowIndex);
 
         if (result.isVoid())
@@ -35,17 +65,76 @@ implements DfColumnComputed
     @Override
     public Object getObject(int rowIndex)
     {
+        DfComputedValueCache.Cached<long[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex) ? null : cached.values()[rowIndex];
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex) ? null : compiled.getLong(rowIndex);
+        }
+
         Value result = this.getValue(rowIndex);
 
         return result.isVoid() ? null : ((LongValue) result).longValue();
     }
 
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        DfComputedValueCache.Cached<long[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex) ? Value.VOID : new LongValue(cached.values()[rowIndex]);
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex) ? Value.VOID : new LongValue(compiled.getLong(rowIndex));
+        }
+
+        return this.evaluate(rowIndex);
+    }
+
     @Override
     public boolean isNull(int rowIndex)
     {
+        DfComputedValueCache.Cached<long[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex);
+        }
+
+        DfExpressionCompiler.Compiled compiled = this.compiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex);
+        }
+
         return this.getObject(rowIndex) == null;
     }
 
+    /**
+     * @return the expression of this column compiled against the current columns of the data frame or {@code null} if
+     * the expression cannot be compiled, in which case it is evaluated
+     */
+    private DfExpressionCompiler.Compiled compiledExpression()
+    {
+        int schemaVersion = this.getDataFrame().getSchemaVersion();
+        if (this.compiledSchemaVersion != schemaVersion)
+        {
+            DfExpressionCompiler.Compiled compiled = DfExpressionCompiler.compileExpression(this.getDataFrame(), this.expression);
+            this.compiledExpression = compiled != null && compiled.getType() == ValueType.LONG ? compiled : null;
+            this.compiledSchemaVersion = schemaVersion;
+        }
+
+        return this.compiledExpression;
+    }
+
     @Override
     protected void addAllItemsFrom(DfLongColumn longColumn)
     {
@@ -3,10 +3,10 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.LongIterable;
-import org.eclipse.collections.api.list.primitive.MutableBooleanList;
-import org.eclipse.collections.api.list.primitive.MutableLongList;
-import org.eclipse.collections.impl.factory.primitive.BooleanLists;
-import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.block.predicate.primitive.LongPredicate;
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.api.list.primitive.IntList;
 
 public class DfLongColumnStored
 extends DfLongColumn
@@ -14,8 +14,9 @@ implements DfColumnStored
 {
     static private final long NULL_FILLER = Long.MIN_VALUE; // not the actual null marker, but makes debugging easier
 
-    private MutableBooleanList nullMap = BooleanLists.mutable.of();
-    private MutableLongList values = LongLists.mutable.of();
+    private DfNullMap nullMap = new DfNullMap();
+    private DfLongValues values = new DfLongChunkedList();
+    private boolean sharingValues = false; // the values are shared with a copy of this column, see copyTo()
 
     public DfLongColumnStored(DataFrame newDataFrame, String newName)
     {
@@ -26,13 +27,7 @@ implements DfColumnStored
     {
         this(newDataFrame, newName);
 
-        this.values.addAll(newValues);
-
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(this.values.size());
-        for (int i = 0; i < this.values.size(); i++)
-        {
-            this.nullMap.add(false);
-        }
+        newValues.forEach(each -> this.addLong(each, false));
     }
 
     @Override
@@ -54,7 +49,7 @@ implements DfColumnStored
 
     public void addLong(long aLong, boolean isNullValue)
     {
-        this.values.add(aLong);
+        this.writableValues().add(aLong);
         this.nullMap.add(isNullValue);
     }
 
@@ -84,12 +79,12 @@ implements DfColumnStored
     {
         if (newObject == null)
         {
-            this.values.add(NULL_FILLER);
+            this.writableValues().add(NULL_FILLER);
             this.nullMap.add(true);
         }
         else
         {
-            this.values.add(((Number) newObject).longValue());
+            this.writableValues().add(((Number) newObject).longValue());
             this.nullMap.add(false);
         }
     }
@@ -103,21 +98,23 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.invalidateStatistics();
         if (anObject == null)
         {
-            this.values.set(rowIndex, NULL_FILLER);
+            this.writableValues().set(rowIndex, NULL_FILLER);
             this.setNull(rowIndex);
         }
         else
         {
-            this.values.set(rowIndex, (Long) anObject);
+            this.writableValues().set(rowIndex, (Long) anObject);
             this.clearNull(rowIndex);
         }
     }
 
     public void setLong(int rowIndex, long value)
     {
-        this.values.set(rowIndex, value);
+        this.invalidateStatistics();
+        this.writableValues().set(rowIndex, value);
         this.clearNull(rowIndex);
     }
 
@@ -129,12 +126,12 @@ implements DfColumnStored
 
     private void clearNull(int rowIndex)
     {
-        this.nullMap.set(rowIndex, false);
+        this.nullMap.clearNull(rowIndex);
     }
 
     private void setNull(int rowIndex)
     {
-        this.nullMap.set(rowIndex, true);
+        this.nullMap.setNull(rowIndex);
     }
 
     public Object getObject(int rowIndex)
@@ -155,26 +152,237 @@ implements DfColumnStored
     @Override
     public boolean isNull(int rowIndex)
     {
-        return this.nullMap.get(rowIndex);
+        return this.nullMap.isNull(rowIndex);
+    }
+
+    /**
+     * @return <code>true</code> if there are null values in this column, <code>false</code> otherwise
+     */
+    public boolean hasNulls()
+    {
+        return this.nullMap.hasNulls();
+    }
+
+    @Override
+    public void seal()
+    {
+        this.nullMap.trim();
+
+        if (!(this.values instanceof DfLongChunkedList))
+        {
+            return;
+        }
+
+        DfLongChunkedList chunkedValues = (DfLongChunkedList) this.values;
+
+        // re-encoding would bring the values stored off heap back to the heap
+        if (this.getDataFrame().isCompactingOnSeal() && !chunkedValues.isOffHeap())
+        {
+            this.values = DfLongValuesEncoder.encode(chunkedValues, this.nullMap);
+            if (this.values != chunkedValues)
+            {
+                chunkedValues.release();
+            }
+        }
+        else
+        {
+            chunkedValues.seal(false);
+        }
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap() && this.values instanceof DfLongChunkedList)
+        {
+            ((DfLongChunkedList) this.values).storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        // the values shared with a copy of this column are released when the last of the columns releases them, the
+        // column falls back to an empty list on the heap
+        this.releaseChunkedValues();
+        this.values = new DfLongChunkedList();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    private void releaseChunkedValues()
+    {
+        if (this.values instanceof DfLongChunkedList)
+        {
+            ((DfLongChunkedList) this.values).release();
+        }
+    }
+
+    /**
+     * @return the values of this column in a layout that supports adding and updating values, if the values have been
+     * re-encoded when the column was sealed, they are decoded back, if they are shared with another column, they are
+     * copied
+     */
+    private DfLongChunkedList writableValues()
+    {
+        if (this.sharingValues)
+        {
+            this.nullMap = this.nullMap.copy();
+            if (this.values instanceof DfLongChunkedList)
+            {
+                DfLongChunkedList sharedValues = (DfLongChunkedList) this.values;
+                this.values = sharedValues.copy(this.getDataFrame().getBufferAllocator());
+                sharedValues.release();
+            }
+            this.sharingValues = false;
+        }
+
+        if (!(this.values instanceof DfLongChunkedList))
+        {
+            DfLongChunkedList chunkedValues = new DfLongChunkedList(this.values.size());
+            chunkedValues.addAll(this.values);
+            this.values = chunkedValues;
+            this.enableOffHeapStorage();
+        }
+
+        return (DfLongChunkedList) this.values;
+    }
+
+    @Override
+    public ImmutableLongList toLongList()
+    {
+        if (!this.hasAllValues())
+        {
+            return super.toLongList();
+        }
+
+        return this.values.toImmutable();
+    }
+
+    @Override
+    public long sum()
+    {
+        return this.hasAllValues() ? this.values.sum() : super.sum();
+    }
+
+    @Override
+    public long min()
+    {
+        return this.hasAllValues() ? this.values.min() : super.min();
+    }
+
+    @Override
+    public long max()
+    {
+        return this.hasAllValues() ? this.values.max() : super.max();
+    }
+
+    /**
+     * Creates a predicate on the row indices of this column selecting the rows with values satisfying a condition. For
+     * columns stored with run length encoding the condition is evaluated once per run rather than once per row, and the
+     * predicate follows the runs as the rows are tested in order, so it is meant to be used by one thread at a time.
+     *
+     * @param valuePredicate the condition to test the non-null values against
+     * @param nullsMatch whether the rows with null values should be selected
+     * @return the predicate on row indices
+     */
+    public IntPredicate rowsMatching(LongPredicate valuePredicate, boolean nullsMatch)
+    {
+        IntPredicate valuesMatching = this.values.matching(valuePredicate);
+
+        if (!this.hasNulls())
+        {
+            return valuesMatching;
+        }
+
+        return nullsMatch
+                ? rowIndex -> this.isNull(rowIndex) || valuesMatching.accept(rowIndex)
+                : rowIndex -> !this.isNull(rowIndex) && valuesMatching.accept(rowIndex);
+    }
+
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfLongColumnStored targetColumn = (DfLongColumnStored) target;
+        DfLongChunkedList targetValues = targetColumn.writableValues();
+
+        int count = rowIndices.size();
+        if (this.hasNulls())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                int rowIndex = rowIndices.get(i);
+                boolean isNull = this.nullMap.isNull(rowIndex);
+                targetValues.add(isNull ? NULL_FILLER : this.values.get(rowIndex));
+                targetColumn.nullMap.add(isNull);
+            }
+        }
+        else
+        {
+            for (int i = 0; i < count; i++)
+            {
+                targetValues.add(this.values.get(rowIndices.get(i)));
+                targetColumn.nullMap.add(false);
+            }
+        }
+    }
+
+    private boolean hasAllValues()
+    {
+        return !this.hasNulls() && this.getSize() == this.getDataFrame().rowCount();
     }
 
     @Override
     public void addEmptyValue()
     {
-        this.values.add(NULL_FILLER);
+        this.writableValues().add(NULL_FILLER);
         this.nullMap.add(true);
     }
 
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = LongLists.mutable.withInitialCapacity(newCapacity);
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(newCapacity);
+        this.releaseChunkedValues();
+        this.values = new DfLongChunkedList(newCapacity);
+        this.enableOffHeapStorage();
+        this.nullMap = new DfNullMap();
+        this.sharingValues = false;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfLongColumnStored targetCol = (DfLongColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.releaseChunkedValues();
+        targetCol.values = this.values;
+        if (this.values instanceof DfLongChunkedList)
+        {
+            ((DfLongChunkedList) this.values).retain();
+        }
+        targetCol.nullMap = this.nullMap;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
     }
 
     @Override
     protected void addAllItemsFrom(DfLongColumn longColumn)
     {
+        if (longColumn instanceof DfLongColumnStored)
+        {
+            DfLongColumnStored storedColumn = (DfLongColumnStored) longColumn;
+            this.writableValues().addAll(storedColumn.values);
+            this.nullMap.addAll(storedColumn.nullMap);
+            return;
+        }
+
         int size = longColumn.getSize();
         for (int rowIndex = 0; rowIndex < size; rowIndex++)
         {
@@ -0,0 +1,64 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+public class DfLongColumnView
+extends DfLongColumn
+implements DfColumnView
+{
+    private final DfLongColumn source;
+    private final DfRowRange rows;
+
+    DfLongColumnView(DataFrame newDataFrame, DfLongColumn newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource.getName());
+        this.source = newSource;
+        this.rows = newRows;
+    }
+
+    @Override
+    public DfColumn getSourceColumn()
+    {
+        return this.source;
+    }
+
+    @Override
+    public int sourceRowIndex(int rowIndex)
+    {
+        return this.rows.sourceRowIndex(rowIndex);
+    }
+
+    @Override
+    public long getLong(int rowIndex)
+    {
+        return this.source.getLong(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.source.getObject(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.source.isNull(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        this.source.addRowToColumn(this.sourceRowIndex(rowIndex), target);
+    }
+
+    @Override
+    protected void addAllItemsFrom(DfLongColumn longColumn)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.rows.size();
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.block.predicate.primitive.LongPredicate;
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Read access to the values of a stored long column, independent of how the values are laid out in memory. The scans
+ * have default implementations going through the values one at a time, the encoded layouts override them to work on
+ * their encoded form directly.
+ */
+interface DfLongValues
+{
+    int size();
+
+    long get(int index);
+
+    ImmutableLongList toImmutable();
+
+    default long sum()
+    {
+        long sum = 0;
+        int size = this.size();
+        for (int i = 0; i < size; i++)
+        {
+            sum += this.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the smallest value
+     * @throws NoSuchElementException if there are no values
+     */
+    default long min()
+    {
+        int size = this.size();
+        if (size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++)
+        {
+            min = Math.min(min, this.get(i));
+        }
+        return min;
+    }
+
+    /**
+     * @return the largest value
+     * @throws NoSuchElementException if there are no values
+     */
+    default long max()
+    {
+        int size = this.size();
+        if (size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++)
+        {
+            max = Math.max(max, this.get(i));
+        }
+        return max;
+    }
+
+    /**
+     * @param valuePredicate the condition to test the values against
+     * @return a predicate on the indices of the values, true for the values satisfying the condition. The predicate may
+     * keep track of where the last tested index was found, so it is meant to be used by one thread at a time.
+     */
+    default IntPredicate matching(LongPredicate valuePredicate)
+    {
+        return index -> valuePredicate.accept(this.get(index));
+    }
+}
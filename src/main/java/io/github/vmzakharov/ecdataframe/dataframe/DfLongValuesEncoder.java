@@ -0,0 +1,98 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+/**
+ * Chooses the most compact layout for the values of a sealed long column. The choice is made based on simple
+ * statistics collected in a single pass over the values: the number of runs of identical values, the range of the
+ * values, and the range of the values within fixed size blocks. The candidates are
+ * <ul>
+ *     <li>a single {@code long} array</li>
+ *     <li>an array of a narrower primitive type ({@link DfNarrowLongValues})</li>
+ *     <li>blocked frame of reference encoding ({@link DfFrameOfReferenceLongValues})</li>
+ *     <li>run length encoding ({@link DfRunLengthLongValues})</li>
+ * </ul>
+ */
+final class DfLongValuesEncoder
+{
+    private DfLongValuesEncoder()
+    {
+        // Utility class
+    }
+
+    static DfLongValues encode(DfLongChunkedList values, DfNullMap nullMap)
+    {
+        int size = values.size();
+        if (size == 0)
+        {
+            values.compact();
+            return values;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        int blockCount = ((size - 1) >>> DfFrameOfReferenceLongValues.BLOCK_SHIFT) + 1;
+        long[] blockBases = new long[blockCount];
+        long maxOffset = 0;
+
+        for (int blockIndex = 0; blockIndex < blockCount; blockIndex++)
+        {
+            long blockMin = Long.MAX_VALUE;
+            long blockMax = Long.MIN_VALUE;
+
+            int blockEnd = Math.min(size, (blockIndex + 1) << DfFrameOfReferenceLongValues.BLOCK_SHIFT);
+            for (int i = blockIndex << DfFrameOfReferenceLongValues.BLOCK_SHIFT; i < blockEnd; i++)
+            {
+                if (!nullMap.isNull(i))
+                {
+                    long value = values.get(i);
+                    blockMin = Math.min(blockMin, value);
+                    blockMax = Math.max(blockMax, value);
+                }
+            }
+
+            if (blockMin <= blockMax)
+            {
+                blockBases[blockIndex] = blockMin;
+                long blockRange = blockMax - blockMin;
+                // a negative difference means the range of the block does not fit into a long
+                maxOffset = blockRange < 0 ? Long.MAX_VALUE : Math.max(maxOffset, blockRange);
+
+                min = Math.min(min, blockMin);
+                max = Math.max(max, blockMax);
+            }
+        }
+
+        if (min > max)
+        {
+            // all values are null
+            min = 0;
+            max = 0;
+        }
+
+        int runCount = DfRunLengthLongValues.countRuns(values);
+
+        long plainSize = (long) Long.BYTES * size;
+        long narrowSize = (long) DfNarrowLongValues.widthOf(min, max) * size;
+        long frameOfReferenceSize = (long) Long.BYTES * blockCount + (long) DfNarrowLongValues.widthOf(0, maxOffset) * size;
+        long runLengthSize = (long) (Long.BYTES + Integer.BYTES) * runCount;
+
+        if (runLengthSize < Math.min(plainSize, Math.min(narrowSize, frameOfReferenceSize)))
+        {
+            return DfRunLengthLongValues.encode(values, runCount);
+        }
+
+        if (frameOfReferenceSize < Math.min(plainSize, narrowSize))
+        {
+            return DfFrameOfReferenceLongValues.encode(values, nullMap, blockBases, maxOffset);
+        }
+
+        if (narrowSize < plainSize)
+        {
+            long narrowMin = min;
+            return DfNarrowLongValues.narrowed(size, index -> nullMap.isNull(index) ? narrowMin : values.get(index), min, max);
+        }
+
+        values.compact();
+        return values;
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Sets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * Allocates buffers memory mapped to temporary files in a spill directory. The operating system keeps the recently
+ * accessed parts of the files in its page cache and writes the rest out to disk, so the total size of the buffers can
+ * exceed the available physical memory. Each group of buffers is mapped to consecutive regions of its own file, which
+ * is created when the first buffer is added to the group and is deleted when the group is released. The files that
+ * have not been deleted by the time the JVM exits are deleted by a shutdown hook.
+ */
+final class DfMappedFileBufferAllocator
+implements DfBufferAllocator
+{
+    // the files of all the groups not yet released
+    static private final MutableSet<Path> LIVE_FILES = Sets.mutable.<Path>of().asSynchronized();
+
+    static
+    {
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(() -> LIVE_FILES.toList().forEach(DfMappedFileBufferAllocator::deleteFile)));
+    }
+
+    private final Path directory;
+
+    DfMappedFileBufferAllocator(Path newDirectory)
+    {
+        this.directory = newDirectory;
+    }
+
+    @Override
+    public DfBufferGroup newBufferGroup()
+    {
+        return new MappedFileBufferGroup(this.directory);
+    }
+
+    static private void deleteFile(Path file)
+    {
+        try
+        {
+            Files.deleteIfExists(file);
+            LIVE_FILES.remove(file);
+        }
+        catch (IOException e)
+        {
+            // the file could not be deleted while still mapped, the shutdown hook will try again
+        }
+    }
+
+    static private final class MappedFileBufferGroup
+    implements DfBufferGroup
+    {
+        private final Path directory;
+        private final MutableList<ByteBuffer> buffers = Lists.mutable.of();
+        private Path file = null; // created when the first buffer is added
+        private long fileSize = 0;
+
+        private MappedFileBufferGroup(Path newDirectory)
+        {
+            this.directory = newDirectory;
+        }
+
+        @Override
+        public ByteBuffer addBuffer(int capacity)
+        {
+            try
+            {
+                if (this.file == null)
+                {
+                    this.file = Files.createTempFile(this.directory, "df", ".spill");
+                    LIVE_FILES.add(this.file);
+                }
+
+                try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+                {
+                    // the mapping remains valid after the channel is closed
+                    ByteBuffer buffer = channel
+                            .map(FileChannel.MapMode.READ_WRITE, this.fileSize, capacity)
+                            .order(ByteOrder.nativeOrder());
+                    this.buffers.add(buffer);
+                    this.fileSize += capacity;
+                    return buffer;
+                }
+            }
+            catch (IOException e)
+            {
+                throw exceptionByKey("DF_SPILL_FILE_FAIL")
+                        .with("fileName", this.file == null ? this.directory : this.file)
+                        .get(e);
+            }
+        }
+
+        @Override
+        public void removeLastBuffer()
+        {
+            // the region of the file is mapped again by the next buffer added, if any
+            ByteBuffer buffer = this.buffers.remove(this.buffers.size() - 1);
+            this.fileSize -= buffer.capacity();
+            DfDirectBufferAllocator.free(buffer);
+        }
+
+        @Override
+        public void release()
+        {
+            this.buffers.forEach(DfDirectBufferAllocator::free);
+            this.buffers.clear();
+            this.fileSize = 0;
+
+            if (this.file != null)
+            {
+                deleteFile(this.file);
+                this.file = null;
+            }
+        }
+    }
+}
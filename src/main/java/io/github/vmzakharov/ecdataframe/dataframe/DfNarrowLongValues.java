@@ -0,0 +1,153 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.function.primitive.IntToLongFunction;
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+/**
+ * Read only long values stored in an array of the narrowest primitive type able to hold all of them - {@code byte},
+ * {@code short} or {@code int}.
+ */
+abstract class DfNarrowLongValues
+implements DfLongValues
+{
+    private final int size;
+
+    protected DfNarrowLongValues(int newSize)
+    {
+        this.size = newSize;
+    }
+
+    /**
+     * @return the number of bytes needed to store a value in the range from min to max in the narrowest primitive type
+     */
+    static int widthOf(long min, long max)
+    {
+        if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE)
+        {
+            return Byte.BYTES;
+        }
+
+        if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE)
+        {
+            return Short.BYTES;
+        }
+
+        if (min >= Integer.MIN_VALUE && max <= Integer.MAX_VALUE)
+        {
+            return Integer.BYTES;
+        }
+
+        return Long.BYTES;
+    }
+
+    /**
+     * Creates narrowed values
+     *
+     * @param size the number of values
+     * @param valueAt the function returning the value at an index, all returned values must be between min and max
+     * @param min the smallest value
+     * @param max the largest value
+     * @return the narrowed values or <code>null</code> if the range of values does not fit into an {@code int}
+     */
+    static DfLongValues narrowed(int size, IntToLongFunction valueAt, long min, long max)
+    {
+        switch (widthOf(min, max))
+        {
+            case Byte.BYTES:
+                byte[] bytes = new byte[size];
+                for (int i = 0; i < size; i++)
+                {
+                    bytes[i] = (byte) valueAt.valueOf(i);
+                }
+                return new ByteValues(bytes);
+            case Short.BYTES:
+                short[] shorts = new short[size];
+                for (int i = 0; i < size; i++)
+                {
+                    shorts[i] = (short) valueAt.valueOf(i);
+                }
+                return new ShortValues(shorts);
+            case Integer.BYTES:
+                int[] ints = new int[size];
+                for (int i = 0; i < size; i++)
+                {
+                    ints[i] = (int) valueAt.valueOf(i);
+                }
+                return new IntValues(ints);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public ImmutableLongList toImmutable()
+    {
+        long[] result = new long[this.size];
+        for (int i = 0; i < this.size; i++)
+        {
+            result[i] = this.get(i);
+        }
+        return LongLists.immutable.with(result);
+    }
+
+    static private class ByteValues
+    extends DfNarrowLongValues
+    {
+        private final byte[] values;
+
+        ByteValues(byte[] newValues)
+        {
+            super(newValues.length);
+            this.values = newValues;
+        }
+
+        @Override
+        public long get(int index)
+        {
+            return this.values[index];
+        }
+    }
+
+    static private class ShortValues
+    extends DfNarrowLongValues
+    {
+        private final short[] values;
+
+        ShortValues(short[] newValues)
+        {
+            super(newValues.length);
+            this.values = newValues;
+        }
+
+        @Override
+        public long get(int index)
+        {
+            return this.values[index];
+        }
+    }
+
+    static private class IntValues
+    extends DfNarrowLongValues
+    {
+        private final int[] values;
+
+        IntValues(int[] newValues)
+        {
+            super(newValues.length);
+            this.values = newValues;
+        }
+
+        @Override
+        public long get(int index)
+        {
+            return this.values[index];
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * A compact, growable null marker for stored columns backed by primitive values. Each row takes one bit packed into
+ * an array of {@code long} words. The words are only allocated once the first null value is marked, so a column
+ * without null values only pays for the row count, and the map keeps track of the number of nulls, which lets the
+ * columns skip null checks altogether when there are none.
+ */
+class DfNullMap
+{
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final long[] NO_WORDS = new long[0];
+
+    private long[] words = NO_WORDS;
+    private int size = 0;
+    private int nullCount = 0;
+
+    private static int wordIndex(int index)
+    {
+        return index >> ADDRESS_BITS_PER_WORD;
+    }
+
+    public void add(boolean isNull)
+    {
+        int index = this.size;
+        this.size++;
+
+        if (isNull)
+        {
+            this.setNull(index);
+        }
+    }
+
+    /**
+     * appends the null markers from another null map to the end of this one
+     *
+     * @param other the null map to append
+     */
+    public void addAll(DfNullMap other)
+    {
+        int offset = this.size;
+        this.size += other.size;
+
+        if (other.hasNulls())
+        {
+            for (int wordIndex = 0; wordIndex < other.words.length; wordIndex++)
+            {
+                long word = other.words[wordIndex];
+                while (word != 0)
+                {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    this.setNull(offset + (wordIndex << ADDRESS_BITS_PER_WORD) + bit);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    public boolean isNull(int index)
+    {
+        if (index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + " Size: " + this.size);
+        }
+
+        if (this.nullCount == 0)
+        {
+            return false;
+        }
+
+        int wordIndex = wordIndex(index);
+        return wordIndex < this.words.length && (this.words[wordIndex] & (1L << index)) != 0;
+    }
+
+    public void setNull(int index)
+    {
+        this.ensureCapacity(index + 1);
+
+        int wordIndex = wordIndex(index);
+        long mask = 1L << index;
+        if ((this.words[wordIndex] & mask) == 0)
+        {
+            this.words[wordIndex] |= mask;
+            this.nullCount++;
+        }
+    }
+
+    public void clearNull(int index)
+    {
+        int wordIndex = wordIndex(index);
+        long mask = 1L << index;
+        if (wordIndex < this.words.length && (this.words[wordIndex] & mask) != 0)
+        {
+            this.words[wordIndex] &= ~mask;
+            this.nullCount--;
+        }
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return <code>true</code> if any of the elements in this map are marked as null, <code>false</code> otherwise
+     */
+    public boolean hasNulls()
+    {
+        return this.nullCount > 0;
+    }
+
+    public int nullCount()
+    {
+        return this.nullCount;
+    }
+
+    /**
+     * @return a new null map with the same null markers as this one
+     */
+    public DfNullMap copy()
+    {
+        DfNullMap copy = new DfNullMap();
+        copy.words = this.nullCount == 0 ? NO_WORDS : this.words.clone();
+        copy.size = this.size;
+        copy.nullCount = this.nullCount;
+        return copy;
+    }
+
+    /**
+     * releases the memory taken by the map if there are no null values marked, or any unused capacity otherwise
+     */
+    public void trim()
+    {
+        if (this.nullCount == 0)
+        {
+            this.words = NO_WORDS;
+        }
+        else
+        {
+            int wordsRequired = wordIndex(this.size - 1) + 1;
+            if (this.words.length > wordsRequired)
+            {
+                this.words = Arrays.copyOf(this.words, wordsRequired);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        int wordsRequired = wordIndex(capacity - 1) + 1;
+        if (this.words.length < wordsRequired)
+        {
+            this.words = Arrays.copyOf(this.words, Math.max(this.words.length * 2, wordsRequired));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
@@ -14,6 +15,9 @@ implements DfColumnComputed
     private final String expressionAsString;
     private final Expression expression;
 
+    private final DfComputedValueCache<Value[]> valueCache = new DfComputedValueCache<>(
+            this, Value[]::new, (values, rowIndex, value) -> values[rowIndex] = value);
+
     public DfObjectColumnComputed(DataFrame newDataFrame, String newName, String newExpressionAsString)
     {
         super(newDataFrame, newName);
@@ -38,6 +42,18 @@ implements DfColumnComputed
         return result;
     }
 
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        DfComputedValueCache.Cached<Value[]> cached = this.valueCache.getValues();
+        if (cached != null)
+        {
+            return cached.isNull(rowIndex) ? Value.VOID : cached.values()[rowIndex];
+        }
+
+        return this.evaluate(rowIndex);
+    }
+
     @Override
     public int getSize()
     {
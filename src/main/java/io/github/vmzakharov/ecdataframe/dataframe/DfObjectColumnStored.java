@@ -71,6 +71,7 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.invalidateStatistics();
         this.values.set(rowIndex, (T) anObject);
     }
 
@@ -0,0 +1,78 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.Interval;
+
+abstract public class DfObjectColumnView<T>
+extends DfObjectColumnAbstract<T>
+implements DfColumnView
+{
+    private final DfObjectColumn<T> source;
+    private final DfRowRange rows;
+
+    DfObjectColumnView(DataFrame newDataFrame, DfObjectColumn<T> newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource.getName());
+        this.source = newSource;
+        this.rows = newRows;
+    }
+
+    @Override
+    public DfColumn getSourceColumn()
+    {
+        return this.source;
+    }
+
+    @Override
+    public int sourceRowIndex(int rowIndex)
+    {
+        return this.rows.sourceRowIndex(rowIndex);
+    }
+
+    @Override
+    public T getTypedObject(int rowIndex)
+    {
+        return this.source.getTypedObject(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.source.isNull(this.sourceRowIndex(rowIndex));
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        this.source.addRowToColumn(this.sourceRowIndex(rowIndex), target);
+    }
+
+    @Override
+    public ImmutableList<T> toList()
+    {
+        if (this.getSize() == 0)
+        {
+            return Lists.immutable.empty();
+        }
+
+        return Interval
+                .zeroTo(this.getSize() - 1)
+                .collect(this::getTypedObject)
+                .toList()
+                .toImmutable();
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.rows.size();
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<T> items)
+    {
+        this.throwUnmodifiableColumnException();
+    }
+}
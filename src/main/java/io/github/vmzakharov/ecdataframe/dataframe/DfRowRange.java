@@ -0,0 +1,37 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.IntList;
+
+/**
+ * A contiguous range of rows of a data frame in the order the rows were in when the range was taken, which maps the
+ * indices of the rows in the range to the physical (not affected by sorting) row indices of the data frame. The rows
+ * selected by a filter are represented as a range over the list of their physical indices.
+ */
+final class DfRowRange
+{
+    private final int offset;
+    private final int size;
+    private final IntList rowMap; // null if the rows are in their physical order
+
+    DfRowRange(int newOffset, int newSize, IntList newRowMap)
+    {
+        this.offset = newOffset;
+        this.size = newSize;
+        this.rowMap = newRowMap;
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    int sourceRowIndex(int rowIndex)
+    {
+        if (rowIndex < 0 || rowIndex >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + rowIndex + " Size: " + this.size);
+        }
+
+        return this.rowMap == null ? this.offset + rowIndex : this.rowMap.get(this.offset + rowIndex);
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.block.predicate.primitive.LongPredicate;
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Read only long values stored as runs of identical values, suitable for sorted or otherwise clustered columns. Each
+ * run is a value and the index where the run ends. Accessing a value by index first checks the run of the previously
+ * accessed index and the run after it, so going through the values in order takes constant time per value, and falls
+ * back to a binary search on the run ends otherwise. The scans (sum, min, max, matching) work on the runs without
+ * expanding them.
+ */
+final class DfRunLengthLongValues
+implements DfLongValues
+{
+    private final long[] runValues;
+    private final int[] runEnds; // exclusive, ascending
+
+    // only a hint where to start looking for the next index, so a stale value seen by another thread is harmless
+    private int lastRunIndex;
+
+    private DfRunLengthLongValues(long[] newRunValues, int[] newRunEnds)
+    {
+        this.runValues = newRunValues;
+        this.runEnds = newRunEnds;
+    }
+
+    static DfRunLengthLongValues encode(DfLongValues values, int runCount)
+    {
+        long[] runValues = new long[runCount];
+        int[] runEnds = new int[runCount];
+
+        int size = values.size();
+        int runIndex = -1;
+        for (int i = 0; i < size; i++)
+        {
+            long value = values.get(i);
+            if (runIndex == -1 || runValues[runIndex] != value)
+            {
+                runIndex++;
+                runValues[runIndex] = value;
+            }
+            runEnds[runIndex] = i + 1;
+        }
+
+        return new DfRunLengthLongValues(runValues, runEnds);
+    }
+
+    /**
+     * @return the number of runs of identical adjacent values in the specified values
+     */
+    static int countRuns(DfLongValues values)
+    {
+        int size = values.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int runCount = 1;
+        long previous = values.get(0);
+        for (int i = 1; i < size; i++)
+        {
+            long value = values.get(i);
+            if (value != previous)
+            {
+                runCount++;
+                previous = value;
+            }
+        }
+        return runCount;
+    }
+
+    public int runCount()
+    {
+        return this.runValues.length;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.runEnds.length == 0 ? 0 : this.runEnds[this.runEnds.length - 1];
+    }
+
+    @Override
+    public long get(int index)
+    {
+        int runIndex = this.runIndexOf(index, this.lastRunIndex);
+        this.lastRunIndex = runIndex;
+        return this.runValues[runIndex];
+    }
+
+    /**
+     * @param index the index of a value
+     * @param hint the index of the run to check first, along with the run after it
+     * @return the index of the run containing the value
+     */
+    private int runIndexOf(int index, int hint)
+    {
+        if (index < 0 || index >= this.size())
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + " Size: " + this.size());
+        }
+
+        if (index < this.runEnds[hint])
+        {
+            if (hint == 0 || index >= this.runEnds[hint - 1])
+            {
+                return hint;
+            }
+        }
+        else if (index < this.runEnds[hint + 1])
+        {
+            // the index is past the end of the hinted run so there is a run after it
+            return hint + 1;
+        }
+
+        int found = Arrays.binarySearch(this.runEnds, index);
+        // the run ending at the index (exclusive) is the one before the run containing the index
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    @Override
+    public ImmutableLongList toImmutable()
+    {
+        long[] result = new long[this.size()];
+        int start = 0;
+        for (int runIndex = 0; runIndex < this.runValues.length; runIndex++)
+        {
+            Arrays.fill(result, start, this.runEnds[runIndex], this.runValues[runIndex]);
+            start = this.runEnds[runIndex];
+        }
+        return LongLists.immutable.with(result);
+    }
+
+    @Override
+    public long sum()
+    {
+        long sum = 0;
+        int start = 0;
+        for (int runIndex = 0; runIndex < this.runValues.length; runIndex++)
+        {
+            sum += this.runValues[runIndex] * (this.runEnds[runIndex] - start);
+            start = this.runEnds[runIndex];
+        }
+        return sum;
+    }
+
+    @Override
+    public long min()
+    {
+        if (this.runValues.length == 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        long min = Long.MAX_VALUE;
+        for (long runValue : this.runValues)
+        {
+            min = Math.min(min, runValue);
+        }
+        return min;
+    }
+
+    @Override
+    public long max()
+    {
+        if (this.runValues.length == 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        long max = Long.MIN_VALUE;
+        for (long runValue : this.runValues)
+        {
+            max = Math.max(max, runValue);
+        }
+        return max;
+    }
+
+    @Override
+    public IntPredicate matching(LongPredicate valuePredicate)
+    {
+        boolean[] runMatches = new boolean[this.runValues.length];
+        for (int runIndex = 0; runIndex < this.runValues.length; runIndex++)
+        {
+            runMatches[runIndex] = valuePredicate.accept(this.runValues[runIndex]);
+        }
+
+        int[] lastMatchedRunIndex = {0};
+        return index -> {
+            lastMatchedRunIndex[0] = this.runIndexOf(index, lastMatchedRunIndex[0]);
+            return runMatches[lastMatchedRunIndex[0]];
+        };
+    }
+}
@@ -1,12 +1,48 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.block.comparator.primitive.IntComparator;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
 
+/**
+ * A dictionary encoded stored string column. Each distinct value is stored once in the column dictionary and the rows
+ * of the column hold integer codes - the positions of their values in the dictionary. Columns with a small number of
+ * distinct values take a fraction of the memory of a column with a reference per row, and operations comparing values
+ * for equality (filtering, grouping, joins) can compare codes rather than strings.
+ * <p>
+ * The lookup of the codes by value is only needed while the column is being populated, it is released when the column
+ * is sealed and rebuilt if the column is modified afterwards.
+ */
 public class DfStringColumnStored
-extends DfObjectColumnStored<String>
-implements DfStringColumn
+extends DfObjectColumnAbstract<String>
+implements DfStringColumn, DfColumnStored
 {
+    static final int NULL_CODE = -1;
+    static final int NO_CODE = -2;
+
+    private DfIntChunkedList codes = new DfIntChunkedList();
+    private MutableList<String> dictionary = Lists.mutable.of();
+    private boolean sharingValues = false; // the codes and the dictionary are shared with a copy of this column, see copyTo()
+    private MutableObjectIntMap<String> codesByValue = ObjectIntMaps.mutable.of();
+
+    // positions of the dictionary values in their natural sort order, computed when needed
+    private int[] ranks = null;
+
+    // caches the codes of the values of another column (the last one rows were copied from) in this column dictionary
+    private DfStringColumnStored translationSource = null;
+    private MutableIntList translatedCodes = null;
+
     public DfStringColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
@@ -14,7 +50,8 @@ implements DfStringColumn
 
     public DfStringColumnStored(DataFrame owner, String newName, ListIterable<String> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
@@ -22,11 +59,11 @@ implements DfStringColumn
     {
         if (value.isVoid())
         {
-            this.addObject(null);
+            this.addEmptyValue();
         }
         else if (value.isString())
         {
-            this.addMyType(value.stringValue());
+            this.addString(value.stringValue());
         }
         else
         {
@@ -37,6 +74,471 @@ implements DfStringColumn
     @Override
     public void addObject(Object newObject)
     {
-        this.addMyType((String) newObject);
+        this.addString((String) newObject);
+    }
+
+    public void addString(String aString)
+    {
+        this.unshareValues();
+        this.codes.add(this.encode(aString));
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.unshareValues();
+        this.codes.add(NULL_CODE);
+    }
+
+    /**
+     * Pooling is a no-op for this column as its values are always deduplicated by the dictionary
+     */
+    @Override
+    public void enablePooling()
+    {
+        // nothing
+    }
+
+    @Override
+    public void seal()
+    {
+        this.codes.seal(this.getDataFrame().isCompactingOnSeal());
+        this.codesByValue = null;
+        this.translationSource = null;
+        this.translatedCodes = null;
+    }
+
+    @Override
+    public void enableOffHeapStorage()
+    {
+        if (this.getDataFrame().isStoringOffHeap())
+        {
+            this.codes.storeOffHeap(this.getDataFrame().getBufferAllocator());
+        }
+    }
+
+    /**
+     * Releases the codes stored outside of the Java heap, the dictionary is on the heap
+     */
+    @Override
+    public void releaseStorage()
+    {
+        // the codes shared with a copy of this column are released when the last of the columns releases them
+        this.codes.release();
+        this.codes = new DfIntChunkedList();
+        this.dictionary = Lists.mutable.of();
+        this.sharingValues = false;
+    }
+
+    @Override
+    public String getTypedObject(int rowIndex)
+    {
+        return this.decode(this.codes.get(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        int code = this.codes.get(rowIndex);
+        return code == NULL_CODE ? Value.VOID : new StringValue(this.dictionary.get(code));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.codes.get(rowIndex) == NULL_CODE;
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.invalidateStatistics();
+        this.unshareValues();
+        this.codes.set(rowIndex, this.encode((String) anObject));
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.codes.size();
+    }
+
+    /**
+     * @param rowIndex the row index
+     * @return the dictionary code of the value in the specified row
+     */
+    public int getCode(int rowIndex)
+    {
+        return this.codes.get(rowIndex);
+    }
+
+    /**
+     * @return the number of distinct non-null values in the column dictionary
+     */
+    public int dictionarySize()
+    {
+        return this.dictionary.size();
+    }
+
+    @Override
+    public ImmutableList<String> toList()
+    {
+        int size = this.getSize();
+        MutableList<String> result = Lists.mutable.withInitialCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++)
+        {
+            result.add(this.getTypedObject(rowIndex));
+        }
+
+        return result.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        aggregator.aggregateValueIntoObject(this, rowIndex, sourceColumn, sourceRowIndex);
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.unshareValues();
+        this.codes.release();
+        this.codes = new DfIntChunkedList(newCapacity);
+        this.enableOffHeapStorage();
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<String> items)
+    {
+        items.forEach(this::addString);
+    }
+
+    private void addAllItemsFrom(DfStringColumn stringColumn)
+    {
+        if (stringColumn instanceof DfStringColumnStored)
+        {
+            DfStringColumnStored storedColumn = (DfStringColumnStored) stringColumn;
+            int size = storedColumn.getSize();
+            for (int rowIndex = 0; rowIndex < size; rowIndex++)
+            {
+                this.addCodeFrom(storedColumn, storedColumn.codes.get(rowIndex));
+            }
+        }
+        else
+        {
+            this.addAllItems(stringColumn.toList());
+        }
+    }
+
+    @Override
+    public DfColumn mergeWithInto(DfColumn other, DataFrame target)
+    {
+        DfStringColumnStored mergedCol = (DfStringColumnStored) this.validateAndCreateTargetColumn(other, target);
+
+        mergedCol.addAllItemsFrom(this);
+        mergedCol.addAllItemsFrom((DfStringColumn) other);
+        return mergedCol;
+    }
+
+    /**
+     * The copy shares the values with this column rather than copying them. The values are copied by either of the
+     * columns the first time it is modified.
+     */
+    @Override
+    public DfColumn copyTo(DataFrame target)
+    {
+        DfStringColumnStored targetCol = (DfStringColumnStored) target.newColumn(this.getName(), this.getType());
+
+        targetCol.codes.release();
+        targetCol.codes = this.codes;
+        this.codes.retain();
+        targetCol.dictionary = this.dictionary;
+        targetCol.codesByValue = null;
+        targetCol.sharingValues = true;
+        this.sharingValues = true;
+        this.shareStatisticsWith(targetCol);
+
+        return targetCol;
+    }
+
+    /**
+     * gives this column its own copy of the values if they are shared with another column, to be called before the
+     * values are modified
+     */
+    private void unshareValues()
+    {
+        if (this.sharingValues)
+        {
+            DfIntChunkedList sharedCodes = this.codes;
+            this.codes = sharedCodes.copy(this.getDataFrame().getBufferAllocator());
+            sharedCodes.release();
+            this.dictionary = Lists.mutable.withAll(this.dictionary);
+            this.sharingValues = false;
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        ((DfStringColumnStored) target).addCodeFrom(this, this.codes.get(rowIndex));
+    }
+
+    @Override
+    public void gatherInto(DfColumn target, IntList rowIndices)
+    {
+        DfStringColumnStored targetColumn = (DfStringColumnStored) target;
+
+        int count = rowIndices.size();
+        for (int i = 0; i < count; i++)
+        {
+            targetColumn.addCodeFrom(this, this.codes.get(rowIndices.get(i)));
+        }
+    }
+
+    private void addCodeFrom(DfStringColumnStored source, int sourceCode)
+    {
+        this.unshareValues();
+
+        if (sourceCode == NULL_CODE)
+        {
+            this.codes.add(NULL_CODE);
+        }
+        else if (source == this)
+        {
+            this.codes.add(sourceCode);
+        }
+        else
+        {
+            this.codes.add(this.translateCode(source, sourceCode));
+        }
+    }
+
+    private int translateCode(DfStringColumnStored source, int sourceCode)
+    {
+        if (this.translationSource != source)
+        {
+            this.translationSource = source;
+            this.translatedCodes = IntLists.mutable.withInitialCapacity(source.dictionarySize());
+        }
+
+        while (this.translatedCodes.size() <= sourceCode)
+        {
+            this.translatedCodes.add(NO_CODE);
+        }
+
+        int code = this.translatedCodes.get(sourceCode);
+        if (code == NO_CODE)
+        {
+            code = this.encode(source.dictionary.get(sourceCode));
+            this.translatedCodes.set(sourceCode, code);
+        }
+
+        return code;
+    }
+
+    private int encode(String aString)
+    {
+        if (aString == null)
+        {
+            return NULL_CODE;
+        }
+
+        if (this.codesByValue == null)
+        {
+            this.codesByValue = ObjectIntMaps.mutable.withInitialCapacity(this.dictionary.size());
+            this.dictionary.forEachWithIndex(this.codesByValue::put);
+        }
+
+        int code = this.codesByValue.getIfAbsent(aString, NO_CODE);
+        if (code == NO_CODE)
+        {
+            code = this.dictionary.size();
+            this.dictionary.add(aString);
+            this.codesByValue.put(aString, code);
+            this.ranks = null;
+        }
+
+        return code;
+    }
+
+    private String decode(int code)
+    {
+        return code == NULL_CODE ? null : this.dictionary.get(code);
+    }
+
+    /**
+     * Looks up the dictionary code of a value without adding the value to the dictionary
+     *
+     * @param aString the value to look up
+     * @return the code of the value, {@code NULL_CODE} if the value is null, or {@code NO_CODE} if the value is not
+     * present in this column
+     */
+    int lookUpCode(String aString)
+    {
+        if (aString == null)
+        {
+            return NULL_CODE;
+        }
+
+        int code = this.codesByValue == null
+                ? this.dictionary.indexOf(aString)
+                : this.codesByValue.getIfAbsent(aString, -1);
+
+        return code == -1 ? NO_CODE : code;
+    }
+
+    /**
+     * Creates a predicate on the row indices of this column that is true for the rows where the column value is equal
+     * to the specified value. The comparison is done on the dictionary codes.
+     *
+     * @param aString the value to compare to
+     * @return a predicate matching the rows containing the value
+     */
+    public IntPredicate valueEquals(String aString)
+    {
+        int code = this.lookUpCode(aString);
+        return rowIndex -> this.codes.get(rowIndex) == code;
+    }
+
+    @Override
+    public int compareMindingNulls(int thisRowIndex, DfColumn otherColumn, int otherRowIndex)
+    {
+        if (!(otherColumn instanceof DfStringColumnStored))
+        {
+            return DfStringColumn.super.compareMindingNulls(thisRowIndex, otherColumn, otherRowIndex);
+        }
+
+        DfStringColumnStored otherStringColumn = (DfStringColumnStored) otherColumn;
+
+        int thisCode = this.codes.get(thisRowIndex);
+        int otherCode = otherStringColumn.codes.get(otherRowIndex);
+
+        if (otherStringColumn == this && thisCode == otherCode)
+        {
+            return 0;
+        }
+
+        if (thisCode == NULL_CODE || otherCode == NULL_CODE)
+        {
+            return thisCode == NULL_CODE ? (otherCode == NULL_CODE ? 0 : -1) : 1;
+        }
+
+        return this.dictionary.get(thisCode).compareTo(otherStringColumn.dictionary.get(otherCode));
+    }
+
+    /**
+     * Compares the values as their ranks in the sort order of the dictionaries, so string comparison is done once per
+     * distinct value rather than once per comparison of rows. If the other column is not this column, the dictionaries
+     * of both columns are merged into a common rank order.
+     */
+    @Override
+    public IntComparator rowComparator(DfColumn otherColumn)
+    {
+        if (!(otherColumn instanceof DfStringColumnStored))
+        {
+            return DfStringColumn.super.rowComparator(otherColumn);
+        }
+
+        DfStringColumnStored otherStringColumn = (DfStringColumnStored) otherColumn;
+
+        int[] thisRanks = this.dictionaryRanks();
+
+        if (otherStringColumn == this)
+        {
+            return (thisRowIndex, otherRowIndex) -> this.compareRanks(
+                    thisRanks, this.codes.get(thisRowIndex), thisRanks, this.codes.get(otherRowIndex));
+        }
+
+        int[] otherRanks = otherStringColumn.dictionaryRanks();
+
+        int[] thisSortedCodes = this.codesInRankOrder(thisRanks);
+        int[] otherSortedCodes = otherStringColumn.codesInRankOrder(otherRanks);
+
+        int[] thisCommonRanks = new int[thisSortedCodes.length];
+        int[] otherCommonRanks = new int[otherSortedCodes.length];
+
+        int thisIndex = 0;
+        int otherIndex = 0;
+        int commonRank = 0;
+        while (thisIndex < thisSortedCodes.length || otherIndex < otherSortedCodes.length)
+        {
+            int comparison;
+            if (thisIndex == thisSortedCodes.length)
+            {
+                comparison = 1;
+            }
+            else if (otherIndex == otherSortedCodes.length)
+            {
+                comparison = -1;
+            }
+            else
+            {
+                comparison = this.dictionary.get(thisSortedCodes[thisIndex])
+                        .compareTo(otherStringColumn.dictionary.get(otherSortedCodes[otherIndex]));
+            }
+
+            if (comparison <= 0)
+            {
+                thisCommonRanks[thisSortedCodes[thisIndex++]] = commonRank;
+            }
+
+            if (comparison >= 0)
+            {
+                otherCommonRanks[otherSortedCodes[otherIndex++]] = commonRank;
+            }
+
+            commonRank++;
+        }
+
+        return (thisRowIndex, otherRowIndex) -> this.compareRanks(
+                thisCommonRanks, this.codes.get(thisRowIndex), otherCommonRanks, otherStringColumn.codes.get(otherRowIndex));
+    }
+
+    private int compareRanks(int[] thisRanks, int thisCode, int[] otherRanks, int otherCode)
+    {
+        if (thisCode == NULL_CODE || otherCode == NULL_CODE)
+        {
+            return thisCode == NULL_CODE ? (otherCode == NULL_CODE ? 0 : -1) : 1;
+        }
+
+        return Integer.compare(thisRanks[thisCode], otherRanks[otherCode]);
+    }
+
+    private int[] dictionaryRanks()
+    {
+        if (this.ranks == null)
+        {
+            int size = this.dictionary.size();
+            int[] newRanks = new int[size];
+
+            if (size > 0)
+            {
+                IntInterval.zeroTo(size - 1).toList()
+                        .sortThis((code1, code2) -> this.dictionary.get(code1).compareTo(this.dictionary.get(code2)))
+                        .forEachWithIndex((code, rank) -> newRanks[code] = rank);
+            }
+
+            this.ranks = newRanks;
+        }
+
+        return this.ranks;
+    }
+
+    private int[] codesInRankOrder(int[] codeRanks)
+    {
+        int[] sortedCodes = new int[codeRanks.length];
+        for (int code = 0; code < codeRanks.length; code++)
+        {
+            sortedCodes[codeRanks[code]] = code;
+        }
+
+        return sortedCodes;
     }
 }
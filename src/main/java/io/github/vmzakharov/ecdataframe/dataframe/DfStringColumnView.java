@@ -0,0 +1,11 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+public class DfStringColumnView
+extends DfObjectColumnView<String>
+implements DfStringColumn
+{
+    DfStringColumnView(DataFrame newDataFrame, DfStringColumn newSource, DfRowRange newRows)
+    {
+        super(newDataFrame, newSource, newRows);
+    }
+}
@@ -64,10 +64,7 @@ extends AggregateFunction
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
-        BigDecimal sum = ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
-                this.objectInitialValue(),
-                BigDecimal::add
-        );
+        BigDecimal sum = ((DfDecimalColumn) objectColumn).sum();
 
         return sum == null ? null : sum.divide(BigDecimal.valueOf(objectColumn.getSize()), RoundingMode.HALF_UP);
     }
@@ -84,6 +81,17 @@ extends AggregateFunction
         return currentAggregate + newValue;
     }
 
+    @Override
+    public void aggregateValueIntoDecimal(
+            DfDecimalColumnStored targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (!targetColumn.addUnscaledFrom(targetRowIndex, sourceColumn, sourceRowIndex))
+        {
+            super.aggregateValueIntoDecimal(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex);
+        }
+    }
+
     @Override
     protected Object objectAccumulator(Object currentAggregate, Object newValue)
     {
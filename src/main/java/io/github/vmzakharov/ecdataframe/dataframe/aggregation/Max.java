@@ -1,6 +1,7 @@
 package io.github.vmzakharov.ecdataframe.dataframe.aggregation;
 
 import io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
@@ -11,6 +12,7 @@ import org.eclipse.collections.impl.factory.Lists;
 
 import java.math.BigDecimal;
 
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DATE;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DECIMAL;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DOUBLE;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.LONG;
@@ -18,7 +20,7 @@ import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.LONG;
 public class Max
 extends AggregateFunction
 {
-    private static final ListIterable<ValueType> SUPPORTED_TYPES = Lists.immutable.of(LONG, DOUBLE, DECIMAL);
+    private static final ListIterable<ValueType> SUPPORTED_TYPES = Lists.immutable.of(LONG, DOUBLE, DECIMAL, DATE);
 
     public Max(String newColumnName)
     {
@@ -51,7 +53,7 @@ extends AggregateFunction
     @Override
     public Object applyToLongColumn(DfLongColumn longColumn)
     {
-        return longColumn.toLongList().max();
+        return longColumn.max();
     }
 
     @Override
@@ -69,6 +71,11 @@ extends AggregateFunction
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
+        if (objectColumn.getType().isDate())
+        {
+            return ((DfDateColumn) objectColumn).injectIntoEpochDaysBreakOnNulls(this.epochDayInitialValue(), Math::max);
+        }
+
         return ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
                 this.objectInitialValue(),
                 (result, current) -> result.compareTo(current) > 0 ? result : current);
@@ -80,6 +87,24 @@ extends AggregateFunction
         return BigDecimal.valueOf(-Double.MAX_VALUE);
     }
 
+    @Override
+    public int epochDayInitialValue()
+    {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public boolean aggregatesDatesAsEpochDays()
+    {
+        return true;
+    }
+
+    @Override
+    protected int epochDayAccumulator(int currentAggregate, int newValue)
+    {
+        return Math.max(currentAggregate, newValue);
+    }
+
     @Override
     protected long longAccumulator(long currentAggregate, long newValue)
     {
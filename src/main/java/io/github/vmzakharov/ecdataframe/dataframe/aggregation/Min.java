@@ -1,6 +1,7 @@
 package io.github.vmzakharov.ecdataframe.dataframe.aggregation;
 
 import io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
@@ -11,6 +12,7 @@ import org.eclipse.collections.impl.factory.Lists;
 
 import java.math.BigDecimal;
 
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DATE;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DECIMAL;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.DOUBLE;
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.LONG;
@@ -18,7 +20,7 @@ import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.LONG;
 public class Min
 extends AggregateFunction
 {
-    private static final ListIterable<ValueType> SUPPORTED_TYPES = Lists.immutable.of(LONG, DOUBLE, DECIMAL);
+    private static final ListIterable<ValueType> SUPPORTED_TYPES = Lists.immutable.of(LONG, DOUBLE, DECIMAL, DATE);
 
     public Min(String newColumnName)
     {
@@ -51,12 +53,17 @@ extends AggregateFunction
     @Override
     public Object applyToLongColumn(DfLongColumn longColumn)
     {
-        return longColumn.toLongList().min();
+        return longColumn.min();
     }
 
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
+        if (objectColumn.getType().isDate())
+        {
+            return ((DfDateColumn) objectColumn).injectIntoEpochDaysBreakOnNulls(this.epochDayInitialValue(), Math::min);
+        }
+
         return ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
                 this.objectInitialValue(),
                 (result, current) -> result.compareTo(current) < 0 ? result : current
@@ -81,6 +88,24 @@ extends AggregateFunction
         return BigDecimal.valueOf(Double.MAX_VALUE);
     }
 
+    @Override
+    public int epochDayInitialValue()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean aggregatesDatesAsEpochDays()
+    {
+        return true;
+    }
+
+    @Override
+    protected int epochDayAccumulator(int currentAggregate, int newValue)
+    {
+        return Math.min(currentAggregate, newValue);
+    }
+
     @Override
     protected long longAccumulator(long currentAggregate, long newValue)
     {
@@ -1,7 +1,10 @@
 package io.github.vmzakharov.ecdataframe.dataframe.aggregation;
 
 import io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
 import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateColumnStored;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
@@ -9,7 +12,11 @@ import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfObjectColumn;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+
+import java.util.BitSet;
 
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.*;
 
@@ -17,9 +24,9 @@ public class Same
 extends AggregateFunction
 {
     private static final ListIterable<ValueType> SUPPORTED_TYPES = Lists.immutable.of(LONG, DOUBLE, STRING, DATE, DATE_TIME, DECIMAL);
-    private static final long INITIAL_VALUE_LONG = System.nanoTime();
-    private static final double INITIAL_VALUE_DOUBLE = INITIAL_VALUE_LONG;
-    private static final Object INITIAL_VALUE_OBJECT = new Object();
+
+    // the accumulator rows that have taken their first value, by accumulator column, for the aggregation in progress
+    private final MutableMap<DfColumn, BitSet> seenRowsByAccumulator = Maps.mutable.of();
 
     public Same(String newColumnName)
     {
@@ -32,34 +39,35 @@ extends AggregateFunction
     }
 
     @Override
-    public long longInitialValue()
+    public boolean aggregatesDatesAsEpochDays()
     {
-        return INITIAL_VALUE_LONG;
+        return true;
     }
 
+    /**
+     * Null values are handled by the aggregation itself: a null value makes the result null, but so does the first
+     * value being null, which the accumulator has to tell from a value that has not been seen yet.
+     *
+     * @return <code>false</code>
+     */
     @Override
-    public double doubleInitialValue()
+    public boolean nullsArePoisonous()
     {
-        return INITIAL_VALUE_DOUBLE;
+        return false;
     }
 
     @Override
-    public Object objectInitialValue()
+    public void initializeValue(DfColumn accumulatorColumn, int accumulatorRowIndex)
     {
-        return INITIAL_VALUE_OBJECT;
+        // the row takes the first value aggregated into it, so it does not need an initial value
+        this.seenRowsByAccumulator.getIfAbsentPut(accumulatorColumn, BitSet::new).clear(accumulatorRowIndex);
     }
 
     @Override
     public void aggregateValueIntoLong(DfLongColumnStored targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
     {
-        long currentAggregatedValue = targetColumn.getLong(targetRowIndex);
-        long nextValue = this.getLongValue(sourceColumn, sourceRowIndex);
-
-        if (currentAggregatedValue == INITIAL_VALUE_LONG)
-        {
-            targetColumn.setObject(targetRowIndex, nextValue);
-        }
-        else if (currentAggregatedValue != nextValue)
+        if (!this.isSettled(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex)
+                && targetColumn.getLong(targetRowIndex) != this.getLongValue(sourceColumn, sourceRowIndex))
         {
             targetColumn.setObject(targetRowIndex, null);
         }
@@ -68,33 +76,43 @@ extends AggregateFunction
     @Override
     public void aggregateValueIntoDouble(DfDoubleColumnStored targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
     {
-        double currentAggregatedValue = targetColumn.getDouble(targetRowIndex);
-        double nextValue = this.getDoubleValue(sourceColumn, sourceRowIndex);
-
-        if (currentAggregatedValue == INITIAL_VALUE_DOUBLE)
-        {
-            targetColumn.setObject(targetRowIndex, nextValue);
-        }
-        else if (currentAggregatedValue != nextValue)
+        if (!this.isSettled(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex)
+                && targetColumn.getDouble(targetRowIndex) != this.getDoubleValue(sourceColumn, sourceRowIndex))
         {
             targetColumn.setObject(targetRowIndex, null);
         }
     }
 
     @Override
-    protected Object objectAccumulator(Object currentAggregate, Object newValue)
+    public void aggregateValueIntoDate(DfDateColumnStored targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
     {
-        if (currentAggregate == INITIAL_VALUE_OBJECT)
+        if (!this.isSettled(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex)
+                && targetColumn.getEpochDay(targetRowIndex) != this.getEpochDayValue(sourceColumn, sourceRowIndex))
         {
-            return newValue;
+            targetColumn.setObject(targetRowIndex, null);
         }
+    }
+
+    @Override
+    public void aggregateValueIntoDecimal(DfDecimalColumnStored targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        this.aggregateValueIntoObject(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex);
+    }
 
-        if (currentAggregate != null && currentAggregate.equals(newValue))
+    @Override
+    public void aggregateValueIntoObject(DfColumn targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (!this.isSettled(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex)
+                && !targetColumn.getObject(targetRowIndex).equals(this.getObjectValue(sourceColumn, sourceRowIndex)))
         {
-            return currentAggregate;
+            targetColumn.setObject(targetRowIndex, null);
         }
+    }
 
-        return null;
+    @Override
+    public void finishAggregating(DataFrame aggregatedDataFrame, int[] countsByRow)
+    {
+        this.seenRowsByAccumulator.remove(aggregatedDataFrame.getColumnNamed(this.getTargetColumnName()));
     }
 
     @Override
@@ -147,4 +165,36 @@ extends AggregateFunction
     {
         return SUPPORTED_TYPES;
     }
+
+    /**
+     * Settles the aggregated value without comparing it to the new value when the new value is the first one for the
+     * accumulator row, when either value is null, or when the aggregated value is already null because the values are
+     * not all the same.
+     *
+     * @return <code>true</code> if the aggregated value is settled, <code>false</code> if it has to be compared to the
+     * new value
+     */
+    private boolean isSettled(DfColumn targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        BitSet seenRows = this.seenRowsByAccumulator.getIfAbsentPut(targetColumn, BitSet::new);
+        if (!seenRows.get(targetRowIndex))
+        {
+            seenRows.set(targetRowIndex);
+            targetColumn.setObject(targetRowIndex, sourceColumn.getObject(sourceRowIndex));
+            return true;
+        }
+
+        if (targetColumn.isNull(targetRowIndex))
+        {
+            return true;
+        }
+
+        if (sourceColumn.isNull(sourceRowIndex))
+        {
+            targetColumn.setObject(targetRowIndex, null);
+            return true;
+        }
+
+        return false;
+    }
 }
@@ -1,7 +1,9 @@
 package io.github.vmzakharov.ecdataframe.dataframe.aggregation;
 
 import io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction;
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
 import io.github.vmzakharov.ecdataframe.dataframe.DfObjectColumn;
@@ -51,15 +53,13 @@ extends AggregateFunction
     @Override
     public Object applyToLongColumn(DfLongColumn longColumn)
     {
-        return longColumn.toLongList().sum();
+        return longColumn.sum();
     }
 
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
-        return ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
-                this.objectInitialValue(),
-                BigDecimal::add);
+        return ((DfDecimalColumn) objectColumn).sum();
     }
 
     @Override
@@ -92,6 +92,17 @@ extends AggregateFunction
         return currentAggregate + newValue;
     }
 
+    @Override
+    public void aggregateValueIntoDecimal(
+            DfDecimalColumnStored targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (!targetColumn.addUnscaledFrom(targetRowIndex, sourceColumn, sourceRowIndex))
+        {
+            super.aggregateValueIntoDecimal(targetColumn, targetRowIndex, sourceColumn, sourceRowIndex);
+        }
+    }
+
     @Override
     protected Object objectAccumulator(Object currentAggregate, Object newValue)
     {
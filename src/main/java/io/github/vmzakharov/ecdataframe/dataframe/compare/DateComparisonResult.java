@@ -1,12 +1,54 @@
 package io.github.vmzakharov.ecdataframe.dataframe.compare;
 
 import java.time.LocalDate;
+import java.util.function.IntSupplier;
 
 public class DateComparisonResult
- extends ObjectComparisonResult<LocalDate>
+extends ComparisonResult
 {
+    private long delta;
+
     public DateComparisonResult(LocalDate thisObject, LocalDate thatObject)
     {
-        super(thisObject, thatObject);
+        this.dealWithNullsIfAny(thisObject == null, thatObject == null);
+
+        if (this.noNulls())
+        {
+            this.delta = thisObject.toEpochDay() - thatObject.toEpochDay();
+        }
+    }
+
+    /**
+     * compares two dates represented as epoch days
+     */
+    public DateComparisonResult(IntSupplier thisEpochDaySupplier, IntSupplier otherEpochDaySupplier, boolean thisIsNull, boolean otherIsNull)
+    {
+        this.dealWithNullsIfAny(thisIsNull, otherIsNull);
+
+        if (this.noNulls())
+        {
+            this.delta = (long) thisEpochDaySupplier.getAsInt() - otherEpochDaySupplier.getAsInt();
+        }
+    }
+
+    /**
+     * @return the number of days between the compared dates
+     */
+    @Override
+    public long delta()
+    {
+        return this.delta;
+    }
+
+    @Override
+    protected void delta(int newDelta)
+    {
+        this.delta = newDelta;
+    }
+
+    @Override
+    public int compared()
+    {
+        return Long.signum(this.delta);
     }
 }
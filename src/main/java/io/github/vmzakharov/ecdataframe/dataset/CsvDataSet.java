@@ -495,10 +495,10 @@ extends DataSetAbstract
                 columnPopulators.add(s -> lastColumn.addObject(schemaCol.parseAsLocalDate(s)));
                 break;
             case DATE_TIME:
-                columnPopulators.add(s -> lastColumn.addObject(schemaCol.parseAsLocalDateTime(s)));
+                columnPopulators.add(s -> schemaCol.parseAsLocalDateTimeAndAdd(s, lastColumn));
                 break;
             case DECIMAL:
-                columnPopulators.add(s -> lastColumn.addObject(schemaCol.parseAsDecimal(s)));
+                columnPopulators.add(s -> schemaCol.parseAsDecimalAndAdd(s, lastColumn));
                 break;
             default:
                 throw exceptionByKey("CSV_POPULATING_BAD_COL_TYPE").with("columnType", columnType).get();
@@ -1,6 +1,8 @@
 package io.github.vmzakharov.ecdataframe.dataset;
 
 import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateTimeColumnStored;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumnStored;
 import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumnStored;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
@@ -10,6 +12,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 
 public class CsvSchemaColumn
 {
@@ -97,6 +101,40 @@ public class CsvSchemaColumn
         return trimmed.isEmpty() ? null : LocalDateTime.parse(trimmed, this.dateTimeFormatter);
     }
 
+    /**
+     * parses the string as a date-time value and adds it to the column without creating an intermediate
+     * {@code LocalDateTime} instance
+     *
+     * @param aString the string to parse
+     * @param dfColumn the date-time column to add the parsed value to
+     */
+    public void parseAsLocalDateTimeAndAdd(String aString, DfColumn dfColumn)
+    {
+        String trimmed = aString == null ? "" : aString.trim();
+
+        if (trimmed.isEmpty())
+        {
+            dfColumn.addEmptyValue();
+            return;
+        }
+
+        TemporalAccessor parsed = this.dateTimeFormatter.parse(trimmed);
+
+        if (!parsed.isSupported(ChronoField.EPOCH_DAY) || !parsed.isSupported(ChronoField.NANO_OF_DAY))
+        {
+            // not a complete date-time, let the standard conversion report the problem
+            dfColumn.addObject(LocalDateTime.from(parsed));
+            return;
+        }
+
+        long nanoOfDay = parsed.getLong(ChronoField.NANO_OF_DAY);
+
+        ((DfDateTimeColumnStored) dfColumn).addEpochSecond(
+                parsed.getLong(ChronoField.EPOCH_DAY) * 86_400L + nanoOfDay / 1_000_000_000L,
+                (int) (nanoOfDay % 1_000_000_000L),
+                false);
+    }
+
     public BigDecimal parseAsDecimal(String aString)
     {
         if (aString == null)
@@ -109,6 +147,71 @@ public class CsvSchemaColumn
         return trimmed.isEmpty() ? null : new BigDecimal(trimmed);
     }
 
+    /**
+     * parses the string as a decimal value and adds it to the column as an unscaled value and a scale, without creating
+     * an intermediate {@code BigDecimal} instance if the string is a plain decimal number with no more than 18 digits
+     *
+     * @param aString the string to parse
+     * @param dfColumn the decimal column to add the parsed value to
+     */
+    public void parseAsDecimalAndAdd(String aString, DfColumn dfColumn)
+    {
+        String trimmed = aString == null ? "" : aString.trim();
+
+        if (trimmed.isEmpty())
+        {
+            dfColumn.addEmptyValue();
+            return;
+        }
+
+        int length = trimmed.length();
+        int index = 0;
+        boolean negative = false;
+
+        char first = trimmed.charAt(0);
+        if (first == '-' || first == '+')
+        {
+            negative = first == '-';
+            index++;
+        }
+
+        long unscaled = 0L;
+        int digitCount = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+
+        for (; index < length; index++)
+        {
+            char ch = trimmed.charAt(index);
+            if (ch >= '0' && ch <= '9')
+            {
+                unscaled = unscaled * 10 + (ch - '0');
+                digitCount++;
+                if (seenPoint)
+                {
+                    scale++;
+                }
+            }
+            else if (ch == '.' && !seenPoint)
+            {
+                seenPoint = true;
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        if (index < length || digitCount == 0 || digitCount > 18)
+        {
+            // exponents, overly long numbers, and malformed values are handled by the standard conversion
+            dfColumn.addObject(new BigDecimal(trimmed));
+            return;
+        }
+
+        ((DfDecimalColumnStored) dfColumn).addUnscaled(negative ? -unscaled : unscaled, scale);
+    }
+
     public void parseAsDoubleAndAdd(String aString, DfColumn dfColumn)
     {
         if (aString == null)
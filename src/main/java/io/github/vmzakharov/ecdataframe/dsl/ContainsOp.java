@@ -12,7 +12,7 @@ extends PredicateOp
         @Override
         public BooleanValue applyWithVector(Value value, VectorValue vectorValue)
         {
-            return BooleanValue.valueOf(vectorValue.getElements().anySatisfy(e -> ComparisonOp.EQ.apply(e, value).isTrue()));
+            return BooleanValue.valueOf(vectorValue.containsElement(value));
         }
 
         @Override
@@ -33,7 +33,7 @@ extends PredicateOp
         @Override
         public BooleanValue applyWithVector(Value value, VectorValue vectorValue)
         {
-            return BooleanValue.valueOf(vectorValue.getElements().allSatisfy(e -> ComparisonOp.NE.apply(e, value).isTrue()));
+            return BooleanValue.valueOf(!vectorValue.containsElement(value));
         }
 
         @Override
@@ -6,25 +6,41 @@ import io.github.vmzakharov.ecdataframe.dataset.HierarchicalDataSet;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.map.MapIterable;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
+/**
+ * The context for evaluating expressions for the rows of a data frame, the variables are resolved to the columns of
+ * the data frame, to the variables of this context and to the variables of the nested context, in this order.
+ * <p>
+ * The row being evaluated is tracked separately for each thread, so the same context can be used to evaluate
+ * expressions for different rows concurrently, as long as the data frame is not modified at the same time. The
+ * variables are resolved once and the resolution is shared by all threads.
+ */
 public class DataFrameEvalContext
 extends EvalContextAbstract
 {
     final private DataFrame dataFrame;
     private EvalContext nestedContext;
-    private int rowIndex; // todo: thread local?
+    private final ThreadLocal<RowCursor> rowCursor = ThreadLocal.withInitial(RowCursor::new);
 
-    private final MutableMap<String, ValueGetter> resolvedVariables = Maps.mutable.of();
+    private final ConcurrentMutableMap<String, ValueGetter> resolvedVariables = ConcurrentHashMap.newMap();
 
     private interface ValueGetter
     {
         Value getValue();
     }
 
+    /**
+     * the row being evaluated by a thread
+     */
+    private static final class RowCursor
+    {
+        private int rowIndex;
+    }
+
     public DataFrameEvalContext(DataFrame newDataFrame)
     {
         this(newDataFrame, new SimpleEvalContext());
@@ -36,41 +52,53 @@ extends EvalContextAbstract
         this.nestedContext = newNestedContext;
     }
 
+    /**
+     * @return the row being evaluated by the current thread
+     */
     public int getRowIndex()
     {
-        return this.rowIndex;
+        return this.rowCursor.get().rowIndex;
     }
 
+    /**
+     * Sets the row to evaluate expressions for in the current thread, does not affect the evaluation in other threads
+     *
+     * @param newRowIndex the row index
+     */
     public void setRowIndex(int newRowIndex)
     {
-        this.rowIndex = newRowIndex;
+        this.rowCursor.get().rowIndex = newRowIndex;
+    }
+
+    /**
+     * forgets how variables have been resolved to the columns of the data frame, to be called when the columns of the
+     * data frame are replaced
+     */
+    public void resetResolvedVariables()
+    {
+        this.resolvedVariables.clear();
     }
 
     @Override
     public Value getVariable(String variableName)
     {
-        ValueGetter valueGetter = this.resolvedVariables.get(variableName);
+        return this.resolvedVariables.getIfAbsentPutWith(variableName, this::resolveVariable, variableName).getValue();
+    }
+
+    private ValueGetter resolveVariable(String variableName)
+    {
+        if (this.getDataFrame().hasColumn(variableName))
+        {
+            DfColumn column = this.dataFrame.getColumnNamed(variableName);
+            return () -> column.getValue(this.getRowIndex());
+        }
 
-        if (valueGetter == null)
+        if (this.getContextVariables().containsKey(variableName))
         {
-            if (this.getDataFrame().hasColumn(variableName))
-            {
-                DfColumn column = this.dataFrame.getColumnNamed(variableName);
-                valueGetter = () -> column.getValue(this.getRowIndex());
-            }
-            else if (this.getContextVariables().containsKey(variableName))
-            {
-                valueGetter = () -> this.getContextVariables().get(variableName);
-            }
-            else
-            {
-                valueGetter = () -> this.getNestedContext().getVariable(variableName);
-            }
-
-            this.resolvedVariables.put(variableName, valueGetter);
+            return () -> this.getContextVariables().get(variableName);
         }
 
-        return valueGetter.getValue();
+        return () -> this.getNestedContext().getVariable(variableName);
     }
 
     @Override
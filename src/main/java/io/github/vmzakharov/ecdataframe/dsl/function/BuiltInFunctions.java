@@ -14,16 +14,17 @@ import io.github.vmzakharov.ecdataframe.dsl.value.VectorValue;
 import io.github.vmzakharov.ecdataframe.util.Printer;
 import io.github.vmzakharov.ecdataframe.util.PrinterFactory;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Period;
 import java.time.format.DateTimeFormatter;
 
 import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.BOOLEAN;
@@ -97,7 +98,7 @@ final public class BuiltInFunctions
             {
                 return BOOLEAN;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("contains", Lists.immutable.of("string", "substring"))
         {
@@ -115,7 +116,7 @@ final public class BuiltInFunctions
             {
                 return BOOLEAN;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toUpper", Lists.immutable.of("string"))
         {
@@ -130,7 +131,7 @@ final public class BuiltInFunctions
             {
                 return STRING;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("trim", Lists.immutable.of("string"))
         {
@@ -145,7 +146,7 @@ final public class BuiltInFunctions
             {
                 return STRING;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toDecimal", Lists.immutable.of("unscaledValue", "scale"))
         {
@@ -162,7 +163,7 @@ final public class BuiltInFunctions
             {
                 return ValueType.DECIMAL;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("substr")
         {
@@ -207,7 +208,7 @@ final public class BuiltInFunctions
             {
                 return "Usage: " + this.getName() + "(string, beginIndex[, endIndex])";
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("abs", Lists.immutable.of("number"))
         {
@@ -240,7 +241,7 @@ final public class BuiltInFunctions
                 // todo - error handling
                 return parameterTypes.get(0);
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toString", Lists.immutable.of("number"))
         {
@@ -257,7 +258,7 @@ final public class BuiltInFunctions
             {
                 return STRING;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("v")
         {
@@ -272,12 +273,13 @@ final public class BuiltInFunctions
             {
                 return VECTOR;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("format", Lists.immutable.of("object", "pattern"))
         {
-            private final MutableMap<String, DecimalFormat> decimalFormats = Maps.mutable.of();
-            private final MutableMap<String, DateTimeFormatter> dateTimeFormatters = Maps.mutable.of();
+            // DecimalFormat is not thread safe so each thread gets its own, DateTimeFormatter is immutable and is shared
+            private final ThreadLocal<MutableMap<String, DecimalFormat>> decimalFormats = ThreadLocal.withInitial(Maps.mutable::of);
+            private final ConcurrentMutableMap<String, DateTimeFormatter> dateTimeFormatters = ConcurrentHashMap.newMap();
 
             @Override
             public Value evaluate(EvalContext context)
@@ -288,7 +290,7 @@ final public class BuiltInFunctions
                 String result = "not used";
                 if (value.isNumber())
                 {
-                    result = this.decimalFormats
+                    result = this.decimalFormats.get()
                             .computeIfAbsent(pattern, DecimalFormat::new)
                             .format(
                                 value.isLong() ? ((LongValue) value).longValue() : ((DoubleValue) value).doubleValue()
@@ -321,7 +323,7 @@ final public class BuiltInFunctions
             {
                 return "Usage: " + this.getName() + "([number or date value], pattern)";
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toDate")
         {
@@ -376,7 +378,7 @@ final public class BuiltInFunctions
             {
                 return "Usage: " + this.getName() + "(\"yyyy-mm-dd\") or " + this.getName() + "(yyyy, mm, dd)";
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toDateTime")
         {
@@ -445,7 +447,7 @@ final public class BuiltInFunctions
             {
                 return "Usage: " + this.getName() + "(\"yyyy-mm-ddThh:mm[:ss[.nnnn]]\") or " + this.getName() + "(yyyy, mm, dd, hh, mm[, ss[, nnnn]])";
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toLong", Lists.immutable.of("string"))
         {
@@ -469,7 +471,7 @@ final public class BuiltInFunctions
             {
                 return LONG;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toDouble", Lists.immutable.of("string"))
         {
@@ -493,7 +495,7 @@ final public class BuiltInFunctions
             {
                 return DOUBLE;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("toDecimal", Lists.immutable.of("unscaledValue", "scale"))
         {
@@ -526,7 +528,7 @@ final public class BuiltInFunctions
             {
                 return DECIMAL;
             }
-        });
+        }.pure());
 
         addFunctionDescriptor(new IntrinsicFunctionDescriptor("withinDays", Lists.immutable.of("date1", "date2", "numberOfDays"))
         {
@@ -537,9 +539,7 @@ final public class BuiltInFunctions
                 LocalDate date2 = ((DateValue) context.getVariable("date2")).dateValue();
                 long numberOfDays = ((LongValue) context.getVariable("numberOfDays")).longValue();
 
-                Period period = Period.between(date1, date2);
-
-                return BooleanValue.valueOf(Math.abs(period.getDays()) <= numberOfDays);
+                return BooleanValue.valueOf(Math.abs(date1.toEpochDay() - date2.toEpochDay()) <= numberOfDays);
             }
 
             @Override
@@ -547,7 +547,7 @@ final public class BuiltInFunctions
             {
                 return BOOLEAN;
             }
-        });
+        }.pure());
     }
 
     public static void addFunctionDescriptor(IntrinsicFunctionDescriptor fd)
@@ -17,6 +17,7 @@ implements FunctionDescriptor
     private final String normalizedName;
     private final ListIterable<String> parameterNames;
     private ListIterable<ValueType> expectedParameterTypes;
+    private boolean pure = false;
 
     public IntrinsicFunctionDescriptor(String newName, ListIterable<String> newParameterNames)
     {
@@ -55,6 +56,28 @@ implements FunctionDescriptor
         return ValueType.VOID;
     }
 
+    /**
+     * A pure function returns the same value every time it is called with the same parameters and has no side effects,
+     * so calls to it with constant parameters can be evaluated once, before the expression is evaluated.
+     *
+     * @return <code>true</code> if the function is pure, <code>false</code> otherwise
+     */
+    public boolean isPure()
+    {
+        return this.pure;
+    }
+
+    /**
+     * Marks the function as pure (see {@link #isPure()}).
+     *
+     * @return this descriptor
+     */
+    public IntrinsicFunctionDescriptor pure()
+    {
+        this.pure = true;
+        return this;
+    }
+
     public Value evaluate(EvalContext context)
     {
         return this.evaluate((VectorValue) context.getVariableOrDefault(this.magicalParameterName(), VectorValue.EMPTY));
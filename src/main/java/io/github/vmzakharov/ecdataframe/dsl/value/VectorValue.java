@@ -1,8 +1,13 @@
 package io.github.vmzakharov.ecdataframe.dsl.value;
 
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
 import io.github.vmzakharov.ecdataframe.dsl.UnaryOp;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 public class VectorValue
 implements Value
@@ -11,9 +16,119 @@ implements Value
 
     private final ListIterable<Value> elements;
 
+    // hash sets of the element values, only one of them is set for an indexed vector with elements all of the same type
+    private final LongSet longElements;
+    private final SetIterable<String> stringElements;
+    private final LongSet epochDayElements;
+
     public VectorValue(ListIterable<Value> newItems)
+    {
+        this(newItems, null, null, null);
+    }
+
+    private VectorValue(
+            ListIterable<Value> newItems,
+            LongSet newLongElements,
+            SetIterable<String> newStringElements,
+            LongSet newEpochDayElements)
     {
         this.elements = newItems;
+        this.longElements = newLongElements;
+        this.stringElements = newStringElements;
+        this.epochDayElements = newEpochDayElements;
+    }
+
+    /**
+     * Creates a vector with the same elements that checks if it contains a value using a hash set rather than by
+     * comparing the value to each element. Only the vectors with all elements being longs, strings or dates are
+     * indexed, otherwise this vector is returned. Meant for the constant vectors checked repeatedly, for example in
+     * the {@code in} expressions evaluated for every row of a data frame.
+     *
+     * @return an indexed vector with the same elements or this vector if it cannot be indexed
+     */
+    public VectorValue indexed()
+    {
+        if (this.elements.isEmpty() || this.longElements != null || this.stringElements != null || this.epochDayElements != null)
+        {
+            return this;
+        }
+
+        if (this.elements.allSatisfy(LongValue.class::isInstance))
+        {
+            LongHashSet longSet = new LongHashSet(this.elements.size());
+            this.elements.forEach(each -> longSet.add(((LongValue) each).longValue()));
+            return new VectorValue(this.elements, longSet, null, null);
+        }
+
+        if (this.elements.allSatisfy(StringValue.class::isInstance))
+        {
+            UnifiedSet<String> stringSet = UnifiedSet.newSet(this.elements.size());
+            this.elements.forEach(each -> stringSet.add(each.stringValue()));
+            return new VectorValue(this.elements, null, stringSet, null);
+        }
+
+        if (this.elements.allSatisfy(DateValue.class::isInstance))
+        {
+            LongHashSet epochDaySet = new LongHashSet(this.elements.size());
+            this.elements.forEach(each -> epochDaySet.add(((DateValue) each).dateValue().toEpochDay()));
+            return new VectorValue(this.elements, null, null, epochDaySet);
+        }
+
+        return this;
+    }
+
+    /**
+     * @return the set of the element values if this vector is indexed and all of its elements are longs,
+     * <code>null</code> otherwise
+     */
+    public LongSet getLongElementSet()
+    {
+        return this.longElements;
+    }
+
+    /**
+     * @return the set of the element values if this vector is indexed and all of its elements are strings,
+     * <code>null</code> otherwise
+     */
+    public SetIterable<String> getStringElementSet()
+    {
+        return this.stringElements;
+    }
+
+    /**
+     * @return the set of the element epoch days if this vector is indexed and all of its elements are dates,
+     * <code>null</code> otherwise
+     */
+    public LongSet getEpochDayElementSet()
+    {
+        return this.epochDayElements;
+    }
+
+    /**
+     * Checks if any element of this vector is equal to the value as determined by {@link ComparisonOp#EQ}
+     *
+     * @param value the value to look for
+     * @return <code>true</code> if the value is an element of this vector, <code>false</code> otherwise
+     */
+    public boolean containsElement(Value value)
+    {
+        // the elements of an indexed vector are never void, so are not equal to a void value
+        if (this.longElements != null && (value.isLong() || value.isVoid()))
+        {
+            return !value.isVoid() && this.longElements.contains(((LongValue) value).longValue());
+        }
+
+        if (this.stringElements != null && (value.isString() || value.isVoid()))
+        {
+            return !value.isVoid() && this.stringElements.contains(value.stringValue());
+        }
+
+        if (this.epochDayElements != null && (value.isDate() || value.isVoid()))
+        {
+            return !value.isVoid() && this.epochDayElements.contains(((DateValue) value).dateValue().toEpochDay());
+        }
+
+        return this.elements.anySatisfy(each -> ComparisonOp.EQ.apply(each, value).isTrue());
     }
 
     @Override
@@ -0,0 +1,305 @@
+package io.github.vmzakharov.ecdataframe.dsl.visitor;
+
+import io.github.vmzakharov.ecdataframe.dsl.AliasExpr;
+import io.github.vmzakharov.ecdataframe.dsl.AnonymousScript;
+import io.github.vmzakharov.ecdataframe.dsl.AssingExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.ContainsOp;
+import io.github.vmzakharov.ecdataframe.dsl.DecimalExpr;
+import io.github.vmzakharov.ecdataframe.dsl.EvalContext;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.FunctionCallExpr;
+import io.github.vmzakharov.ecdataframe.dsl.FunctionScript;
+import io.github.vmzakharov.ecdataframe.dsl.IfElseExpr;
+import io.github.vmzakharov.ecdataframe.dsl.IndexExpr;
+import io.github.vmzakharov.ecdataframe.dsl.ProjectionExpr;
+import io.github.vmzakharov.ecdataframe.dsl.PropertyPathExpr;
+import io.github.vmzakharov.ecdataframe.dsl.StatementSequenceScript;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.VectorExpr;
+import io.github.vmzakharov.ecdataframe.dsl.function.BuiltInFunctions;
+import io.github.vmzakharov.ecdataframe.dsl.function.IntrinsicFunctionDescriptor;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.VectorValue;
+import org.eclipse.collections.api.block.predicate.Predicate;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Rewrites an expression into an equivalent one that is cheaper to evaluate repeatedly, for example for every row of
+ * a data frame:
+ * <ul>
+ *     <li>unary, binary and vector expressions with constant operands are replaced with their values</li>
+ *     <li>constant vectors checked for containing a value are indexed (see {@link VectorValue#indexed()})</li>
+ *     <li>calls to pure built-in functions with constant parameters are replaced with their values</li>
+ *     <li>boolean operations with a constant operand are simplified, e.g. {@code true and x} becomes {@code x}</li>
+ *     <li>optionally, variables known not to change between evaluations are replaced with their values, so the
+ *     expressions using them are folded too</li>
+ * </ul>
+ * A constant subexpression that fails to evaluate is left as is, so the failure happens when (and if) the expression
+ * is evaluated. Scripts, conditional expressions and projections are not optimized. The original expression is not
+ * modified, the unchanged parts of it are shared with the optimized one.
+ */
+public class ExpressionOptimizingVisitor
+implements ExpressionVisitor
+{
+    private final EvalContext context;
+    private final Predicate<String> isInvariantVariable;
+    private final InMemoryEvaluationVisitor evaluationVisitor;
+
+    private Expression result;
+
+    /**
+     * @param newContext the context to look up the declared functions and the invariant variable values in
+     * @param newIsInvariantVariable returns <code>true</code> for the names of the variables with values not changing
+     *                               between the evaluations of the expression
+     */
+    public ExpressionOptimizingVisitor(EvalContext newContext, Predicate<String> newIsInvariantVariable)
+    {
+        this.context = newContext;
+        this.isInvariantVariable = newIsInvariantVariable;
+        this.evaluationVisitor = new InMemoryEvaluationVisitor(this.context);
+    }
+
+    /**
+     * Optimizes an expression treating all variables as changing between evaluations
+     *
+     * @param expression the expression to optimize
+     * @param context the context the expression is evaluated in, used to look up the declared functions
+     * @return the optimized expression
+     */
+    static public Expression optimize(Expression expression, EvalContext context)
+    {
+        return new ExpressionOptimizingVisitor(context, variableName -> false).optimize(expression);
+    }
+
+    public Expression optimize(Expression expression)
+    {
+        expression.accept(this);
+        return this.result;
+    }
+
+    @Override
+    public void visitAliasExpr(AliasExpr expr)
+    {
+        Expression optimized = this.optimize(expr.getExpression());
+        this.result = optimized == expr.getExpression() ? expr : new AliasExpr(expr.getAlias(), optimized);
+    }
+
+    @Override
+    public void visitAssignExpr(AssingExpr expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitBinaryExpr(BinaryExpr expr)
+    {
+        Expression operand1 = this.optimize(expr.getOperand1());
+        Expression operand2 = this.optimize(expr.getOperand2());
+
+        if (expr.getOperation() instanceof BooleanOp)
+        {
+            Expression simplified = this.simplifyBoolean((BooleanOp) expr.getOperation(), operand1, operand2);
+            if (simplified != null)
+            {
+                this.result = simplified;
+                return;
+            }
+        }
+
+        if (expr.getOperation() instanceof ContainsOp && operand2 instanceof VectorValue)
+        {
+            // the vector is checked for every evaluation of the expression
+            operand2 = ((VectorValue) operand2).indexed();
+        }
+
+        Expression optimized = operand1 == expr.getOperand1() && operand2 == expr.getOperand2()
+                ? expr
+                : new BinaryExpr(operand1, operand2, expr.getOperation());
+
+        this.result = operand1 instanceof Value && operand2 instanceof Value
+                ? this.evaluateIfPossible(optimized)
+                : optimized;
+    }
+
+    /**
+     * The boolean operations evaluate their second operand only if needed and return it as is when it determines the
+     * result, so {@code true and x} is equivalent to {@code x} and {@code false and x} to {@code false}. When the
+     * second operand is the constant, the simplification holds for the first operand of the boolean type.
+     *
+     * @return the simplified expression or <code>null</code> if it cannot be simplified
+     */
+    private Expression simplifyBoolean(BooleanOp operation, Expression operand1, Expression operand2)
+    {
+        if (operation == BooleanOp.AND)
+        {
+            if (operand1 instanceof BooleanValue)
+            {
+                return ((BooleanValue) operand1).isTrue() ? operand2 : BooleanValue.FALSE;
+            }
+
+            if (operand2 instanceof BooleanValue && ((BooleanValue) operand2).isTrue())
+            {
+                return operand1;
+            }
+        }
+        else if (operation == BooleanOp.OR)
+        {
+            if (operand1 instanceof BooleanValue)
+            {
+                return ((BooleanValue) operand1).isTrue() ? BooleanValue.TRUE : operand2;
+            }
+
+            if (operand2 instanceof BooleanValue && ((BooleanValue) operand2).isFalse())
+            {
+                return operand1;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void visitUnaryExpr(UnaryExpr expr)
+    {
+        Expression operand = this.optimize(expr.getOperand());
+
+        if (expr.getOperation() == UnaryOp.NOT
+                && operand instanceof UnaryExpr && ((UnaryExpr) operand).getOperation() == UnaryOp.NOT)
+        {
+            this.result = ((UnaryExpr) operand).getOperand();
+            return;
+        }
+
+        Expression optimized = operand == expr.getOperand() ? expr : new UnaryExpr(expr.getOperation(), operand);
+
+        this.result = operand instanceof Value ? this.evaluateIfPossible(optimized) : optimized;
+    }
+
+    @Override
+    public void visitConstExpr(Value expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitFunctionCallExpr(FunctionCallExpr expr)
+    {
+        ListIterable<Expression> parameters = expr.getParameters().collect(this::optimize);
+
+        Expression optimized = this.sameExpressions(parameters, expr.getParameters())
+                ? expr
+                : new FunctionCallExpr(expr.getFunctionName(), parameters);
+
+        this.result = this.isPureBuiltInFunction(expr.getNormalizedFunctionName()) && parameters.allSatisfy(Value.class::isInstance)
+                ? this.evaluateIfPossible(optimized)
+                : optimized;
+    }
+
+    private boolean isPureBuiltInFunction(String normalizedFunctionName)
+    {
+        // a declared function takes precedence over a built-in one with the same name
+        if (this.context.getDeclaredFunction(normalizedFunctionName) != null)
+        {
+            return false;
+        }
+
+        IntrinsicFunctionDescriptor functionDescriptor = BuiltInFunctions.getFunctionDescriptor(normalizedFunctionName);
+        return functionDescriptor != null && functionDescriptor.isPure();
+    }
+
+    @Override
+    public void visitIfElseExpr(IfElseExpr expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitPropertyPathExpr(PropertyPathExpr expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitAnonymousScriptExpr(AnonymousScript expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitFunctionScriptExpr(FunctionScript expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitStatementSequenceScript(StatementSequenceScript expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitVarExpr(VarExpr expr)
+    {
+        this.result = this.isInvariantVariable.accept(expr.getVariableName())
+                ? this.evaluateIfPossible(expr)
+                : expr;
+    }
+
+    @Override
+    public void visitProjectionExpr(ProjectionExpr expr)
+    {
+        this.result = expr;
+    }
+
+    @Override
+    public void visitVectorExpr(VectorExpr expr)
+    {
+        ListIterable<Expression> elements = expr.getElements().collect(this::optimize);
+
+        Expression optimized = this.sameExpressions(elements, expr.getElements()) ? expr : new VectorExpr(elements);
+
+        this.result = elements.allSatisfy(Value.class::isInstance)
+                ? this.evaluateIfPossible(optimized)
+                : optimized;
+    }
+
+    @Override
+    public void visitIndexExpr(IndexExpr expr)
+    {
+        Expression vector = this.optimize(expr.getVectorExpr());
+        Expression index = this.optimize(expr.getIndexExpr());
+
+        this.result = vector == expr.getVectorExpr() && index == expr.getIndexExpr()
+                ? expr
+                : new IndexExpr(vector, index);
+    }
+
+    @Override
+    public void visitDecimalExpr(DecimalExpr expr)
+    {
+        this.result = expr;
+    }
+
+    private boolean sameExpressions(ListIterable<Expression> optimized, ListIterable<Expression> original)
+    {
+        return optimized.corresponds(original, (each, other) -> each == other);
+    }
+
+    private Expression evaluateIfPossible(Expression expression)
+    {
+        try
+        {
+            return expression.evaluate(this.evaluationVisitor);
+        }
+        catch (RuntimeException e)
+        {
+            // leave it to fail when evaluated
+            return expression;
+        }
+    }
+}
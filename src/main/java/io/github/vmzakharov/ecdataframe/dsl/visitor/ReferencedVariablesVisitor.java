@@ -0,0 +1,153 @@
+package io.github.vmzakharov.ecdataframe.dsl.visitor;
+
+import io.github.vmzakharov.ecdataframe.dsl.AliasExpr;
+import io.github.vmzakharov.ecdataframe.dsl.AnonymousScript;
+import io.github.vmzakharov.ecdataframe.dsl.AssingExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.DecimalExpr;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.FunctionCallExpr;
+import io.github.vmzakharov.ecdataframe.dsl.FunctionScript;
+import io.github.vmzakharov.ecdataframe.dsl.IfElseExpr;
+import io.github.vmzakharov.ecdataframe.dsl.IndexExpr;
+import io.github.vmzakharov.ecdataframe.dsl.ProjectionExpr;
+import io.github.vmzakharov.ecdataframe.dsl.PropertyPathExpr;
+import io.github.vmzakharov.ecdataframe.dsl.StatementSequenceScript;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.VectorExpr;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Sets;
+
+/**
+ * Collects the names of all variables referenced in an expression, including the variables referenced in scripts and
+ * in the functions they declare. Variables assigned to within a script are collected too if they are referenced, so
+ * the result may include names that are not resolved from outside of the expression.
+ */
+public class ReferencedVariablesVisitor
+implements ExpressionVisitor
+{
+    private final MutableSet<String> variableNames = Sets.mutable.of();
+
+    static public MutableSet<String> variablesReferencedIn(Expression expression)
+    {
+        ReferencedVariablesVisitor visitor = new ReferencedVariablesVisitor();
+        expression.accept(visitor);
+        return visitor.getVariableNames();
+    }
+
+    public MutableSet<String> getVariableNames()
+    {
+        return this.variableNames;
+    }
+
+    @Override
+    public void visitAliasExpr(AliasExpr expr)
+    {
+        expr.getExpression().accept(this);
+    }
+
+    @Override
+    public void visitAssignExpr(AssingExpr expr)
+    {
+        expr.getExpression().accept(this);
+    }
+
+    @Override
+    public void visitBinaryExpr(BinaryExpr expr)
+    {
+        expr.getOperand1().accept(this);
+        expr.getOperand2().accept(this);
+    }
+
+    @Override
+    public void visitUnaryExpr(UnaryExpr expr)
+    {
+        expr.getOperand().accept(this);
+    }
+
+    @Override
+    public void visitConstExpr(Value expr)
+    {
+        // no variables here
+    }
+
+    @Override
+    public void visitFunctionCallExpr(FunctionCallExpr expr)
+    {
+        expr.getParameters().forEach(each -> each.accept(this));
+    }
+
+    @Override
+    public void visitIfElseExpr(IfElseExpr expr)
+    {
+        expr.getCondition().accept(this);
+        expr.getIfScript().accept(this);
+        if (expr.hasElseSection())
+        {
+            expr.getElseScript().accept(this);
+        }
+    }
+
+    @Override
+    public void visitPropertyPathExpr(PropertyPathExpr expr)
+    {
+        // property paths refer to data sets rather than to variables
+    }
+
+    @Override
+    public void visitAnonymousScriptExpr(AnonymousScript expr)
+    {
+        expr.getFunctions().forEachValue(this::visitFunctionScriptExpr);
+        expr.getExpressions().forEach(each -> each.accept(this));
+    }
+
+    @Override
+    public void visitFunctionScriptExpr(FunctionScript expr)
+    {
+        expr.getExpressions().forEach(each -> each.accept(this));
+    }
+
+    @Override
+    public void visitStatementSequenceScript(StatementSequenceScript expr)
+    {
+        expr.getExpressions().forEach(each -> each.accept(this));
+    }
+
+    @Override
+    public void visitVarExpr(VarExpr expr)
+    {
+        this.variableNames.add(expr.getVariableName());
+    }
+
+    @Override
+    public void visitProjectionExpr(ProjectionExpr expr)
+    {
+        expr.getProjectionElements().forEach(each -> each.accept(this));
+        if (expr.getWhereClause() != null)
+        {
+            expr.getWhereClause().accept(this);
+        }
+    }
+
+    @Override
+    public void visitVectorExpr(VectorExpr expr)
+    {
+        expr.getElements().forEach(each -> each.accept(this));
+    }
+
+    @Override
+    public void visitIndexExpr(IndexExpr expr)
+    {
+        expr.getVectorExpr().accept(this);
+        expr.getIndexExpr().accept(this);
+    }
+
+    @Override
+    public void visitDecimalExpr(DecimalExpr expr)
+    {
+        expr.unscaledValueExpr().accept(this);
+        expr.scaleExpr().accept(this);
+    }
+}
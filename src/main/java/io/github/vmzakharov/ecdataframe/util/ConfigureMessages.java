@@ -19,6 +19,7 @@ final public class ConfigureMessages
         addMessage("DF_ADDING_ROW_TOO_WIDE",          "Adding more row elements (${elementCount}) than there are columns in the data frame (${columnCount})");
         addMessage("DF_ADD_COL_UNKNOWN_TYPE",         "Cannot add a column ${columnName} for values of type ${type}");
         addMessage("DF_DIFFERENT_COL_SIZES",          "Stored column sizes are not the same when attempting to seal data frame '${dataFrameName}'");
+        addMessage("DF_DATE_OUT_OF_RANGE",            "Date ${value} is outside of the range of dates supported by column '${columnName}'");
         addMessage("DF_UNION_DIFF_COL_COUNT",         "Attempting to union data frames with different numbers of columns");
         addMessage("DF_JOIN_DIFF_KEY_COUNT",          "Attempting to join dataframes by different number of keys on each side: ${side2KeyList} to ${side2KeyList}");
         addMessage("DF_NO_COL_COMPARATOR",            "Column comparator is not implemented for column ${columnName} of type ${type}");
@@ -28,6 +29,12 @@ final public class ConfigureMessages
         addMessage("DF_SET_VAL_ON_COMP_COL",          "Cannot set a value on computed column '${columnName}'");
         addMessage("DF_AGG_VAL_TO_COMP_COL",          "Cannot store aggregated value into a computed column '${columnNane}'");
         addMessage("DF_CALC_COL_MODIFICATION",        "Cannot directly modify computed column '${columnName}'");
+        addMessage("DF_VIEW_COL_MODIFICATION",        "Cannot modify column '${columnName}' of a data frame slice");
+        addMessage("DF_SPILL_FILE_FAIL",              "Failed to create or map spill file '${fileName}'");
+        addMessage("DF_BITMAP_DIFF_SIZES",            "Attempting to combine bitmaps of different sizes: ${size} and ${otherSize}");
+        addMessage("DF_BITMAP_BAD_SIZE",              "Bitmap of size ${size} does not match data frame '${dataFrameName}' with ${rowCount} rows");
+        addMessage("DF_SLICE_BAD_RANGE",              "Invalid range of rows [${from}, ${to}) to slice data frame '${dataFrameName}' with ${rowCount} rows");
+        addMessage("DF_CALC_COL_CYCLE",               "Computed columns in data frame '${dataFrameName}' depend on each other in a cycle: ${columnNames}");
         addMessage("DF_CALC_COL_INFER_TYPE",          "Cannot add calculated column ${columnName} to data frame ${dataFrameName}: failed to infer the expression type of '${expression}'\n${errorList}");
         addMessage("DF_MERGE_COL_DIFF_TYPES",         "Attempting to merge columns of different types: ${firstColumnName} (${firstColumnType}) and ${secondColumnName} (${secondColumnType})");
         addMessage("DF_COL_UNSUPPORTED_AGG",          "Aggregation ${aggregatorName} (${aggregationDescription}) cannot be performed on column ${columnName} of type ${columnType}");
@@ -6,14 +6,22 @@ import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.impl.factory.primitive.BooleanLists;
 import org.eclipse.collections.impl.list.Interval;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.sum;
+
 public class BasicDataFrameTest
 {
+    @Rule
+    public TemporaryFolder spillFolder = new TemporaryFolder();
+
     @Test
     public void createSimpleDataFrame()
     {
@@ -347,4 +355,233 @@ public class BasicDataFrameTest
 
         df.seal();
     }
+
+    @Test
+    public void largeDataFrameWithCompaction()
+    {
+        int rowCount = 50_000;
+
+        DataFrame df = new DataFrame("df1")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value");
+
+        df.enableCompactionOnSeal();
+
+        for (int i = 0; i < rowCount; i++)
+        {
+            df.addRow("Name" + (i % 10), i, i % 2 == 0 ? null : (double) i);
+        }
+
+        df.seal();
+
+        Assert.assertEquals(rowCount, df.rowCount());
+        Assert.assertEquals("Name9", df.getString("Name", rowCount - 1));
+        Assert.assertEquals(rowCount - 1, df.getLong("Count", rowCount - 1));
+        Assert.assertTrue(df.isNull("Value", rowCount - 2));
+        Assert.assertEquals((long) rowCount * (rowCount - 1) / 2, df.getLongColumn("Count").toLongList().sum());
+
+        df.addRow("Extra", rowCount, 1.0);
+        df.seal();
+
+        Assert.assertEquals(rowCount, df.getLong("Count", rowCount));
+    }
+
+    @Test
+    public void offHeapStorage()
+    {
+        DataFrame df = new DataFrame("df1")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addDateTimeColumn("Time");
+
+        df.enableOffHeapStorage();
+
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 1_000; i++)
+        {
+            df.addRow("Name" + (i % 10), i, i % 2 == 0 ? null : (double) i, date.plusDays(i), date.plusDays(i).atTime(10, 30));
+        }
+
+        df.seal();
+
+        Assert.assertEquals(999L, df.getLong("Count", 999));
+        Assert.assertTrue(df.isNull("Value", 998));
+        Assert.assertEquals(999.0, df.getDouble("Value", 999), 0.0);
+        Assert.assertEquals(date.plusDays(999), df.getDate("Date", 999));
+        Assert.assertEquals(date.plusDays(999).atTime(10, 30), df.getDateTime("Time", 999));
+        Assert.assertEquals(999L * 1_000 / 2, df.getLongColumn("Count").sum());
+
+        df.sortBy(Lists.immutable.of("Count"), Lists.immutable.of(DfColumnSortOrder.DESC));
+        Assert.assertEquals(999L, df.getLong("Count", 0));
+        df.unsort();
+
+        df.getColumnNamed("Count").setObject(0, 1_000L);
+        df.addRow("Extra", 1_001L, 1.0, date, date.atTime(0, 0));
+        df.seal();
+
+        Assert.assertEquals(1_000L, df.getLong("Count", 0));
+        Assert.assertEquals(1_001L, df.getLong("Count", 1_000));
+
+        DataFrame copied = df.copy("copied");
+        df.close();
+
+        Assert.assertEquals(0, df.columnCount());
+        Assert.assertEquals(0, df.rowCount());
+        Assert.assertEquals(1_001L, copied.getLong("Count", 1_000));
+    }
+
+    @Test
+    public void spillStorage()
+    {
+        File spillDirectory = this.spillFolder.getRoot();
+
+        DataFrame df = new DataFrame("df1")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value");
+
+        df.enableSpillStorage(spillDirectory.toPath());
+
+        for (int i = 0; i < 1_000; i++)
+        {
+            df.addRow("Name" + (i % 4), i, i * 0.5);
+        }
+
+        df.seal();
+
+        Assert.assertEquals(3, spillDirectory.list().length);
+        Assert.assertEquals("Name3", df.getString("Name", 999));
+        Assert.assertEquals(999L, df.getLong("Count", 999));
+        Assert.assertEquals(499.5, df.getDouble("Value", 999), 0.0);
+
+        DataFrame aggregated = df.aggregateBy(Lists.immutable.of(sum("Count"), sum("Value")), Lists.immutable.of("Name"));
+
+        // the derived data frames store their values on the heap unless spill storage is enabled for them
+        Assert.assertFalse(aggregated.isStoringOffHeap());
+        Assert.assertEquals(3, spillDirectory.list().length);
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value")
+                        .addRow("Name0", 124_500L, 62_250.0)
+                        .addRow("Name1", 124_750L, 62_375.0)
+                        .addRow("Name2", 125_000L, 62_500.0)
+                        .addRow("Name3", 125_250L, 62_625.0),
+                aggregated);
+
+        DataFrame codes = new DataFrame("codes")
+                .addLongColumn("Id").addStringColumn("Code")
+                .addRow(999L, "Last")
+                .addRow(0L, "First")
+                .seal();
+
+        DataFrame joined = df.join(codes, "Count", "Id");
+        Assert.assertEquals(2, joined.rowCount());
+        Assert.assertEquals(499.5, joined.getDouble("Value", 1), 0.0);
+        Assert.assertEquals("Last", joined.getString("Code", 1));
+        Assert.assertFalse(joined.isStoringOffHeap());
+        Assert.assertFalse(df.selectBy("Count > 500").isStoringOffHeap());
+        Assert.assertEquals(3, spillDirectory.list().length);
+
+        aggregated.enableSpillStorage(spillDirectory.toPath());
+        aggregated.seal();
+        Assert.assertTrue(aggregated.isStoringOffHeap());
+        Assert.assertEquals(6, spillDirectory.list().length);
+        Assert.assertEquals(125_250L, aggregated.getLong("Count", 3));
+
+        df.close();
+        aggregated.close();
+
+        Assert.assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void spillStorageSharedWithCopy()
+    {
+        File spillDirectory = this.spillFolder.getRoot();
+
+        DataFrame df = new DataFrame("df1")
+                .addLongColumn("Count").addDoubleColumn("Value");
+
+        df.enableSpillStorage(spillDirectory.toPath());
+
+        for (int i = 0; i < 1_000; i++)
+        {
+            df.addRow(i, i * 0.5);
+        }
+
+        df.seal();
+
+        DataFrame copied = df.copy("copied");
+
+        df.close();
+
+        Assert.assertEquals(2, spillDirectory.list().length);
+        Assert.assertEquals(1_000, copied.rowCount());
+        Assert.assertEquals(999L, copied.getLong("Count", 999));
+        Assert.assertEquals(499.5, copied.getDouble("Value", 999), 0.0);
+
+        copied.close();
+
+        Assert.assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void releasedColumnsDoNotStoreOffHeap()
+    {
+        File spillDirectory = this.spillFolder.getRoot();
+
+        DataFrame df = new DataFrame("df1")
+                .addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date").addDateTimeColumn("Time")
+                .addDecimalColumn("Amount");
+
+        df.enableSpillStorage(spillDirectory.toPath());
+
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 100; i++)
+        {
+            df.addRow(i, i * 0.5, date.plusDays(i), date.plusDays(i).atTime(10, 30), BigDecimal.valueOf(i, 2));
+        }
+
+        df.seal();
+        Assert.assertEquals(5, spillDirectory.list().length);
+
+        MutableList<DfColumn> columns = Lists.mutable.withAll(df.getColumns());
+        df.close();
+        Assert.assertEquals(0, spillDirectory.list().length);
+
+        // the values added to a released column stay on the heap
+        columns.get(0).addObject(1L);
+        columns.get(1).addObject(1.0);
+        columns.get(2).addObject(date);
+        columns.get(3).addObject(date.atTime(0, 0));
+        columns.get(4).addObject(BigDecimal.ONE);
+        columns.forEach(DfColumn::seal);
+
+        Assert.assertEquals(0, spillDirectory.list().length);
+        Assert.assertEquals(1, columns.get(4).getSize());
+    }
+
+    @Test
+    public void narrowLongColumnsOnSeal()
+    {
+        DataFrame df = new DataFrame("df1")
+                .addLongColumn("Byte").addLongColumn("Short").addLongColumn("Int").addLongColumn("Long");
+
+        df.enableCompactionOnSeal();
+
+        df
+            .addRow(-128, 1_000, -100_000, Long.MAX_VALUE)
+            .addRow(null, null, null, null)
+            .addRow(127, -32_768, Integer.MAX_VALUE, Long.MIN_VALUE + 1)
+            .seal();
+
+        Assert.assertEquals(-128L, df.getLong("Byte", 0));
+        Assert.assertTrue(df.isNull("Byte", 1));
+        Assert.assertEquals(-32_768L, df.getLong("Short", 2));
+        Assert.assertEquals(Integer.MAX_VALUE, df.getLong("Int", 2));
+        Assert.assertEquals(Long.MAX_VALUE, df.getLong("Long", 0));
+        Assert.assertEquals(-100_000L, df.getLong("Int", 0));
+
+        DfLongColumnStored byteColumn = (DfLongColumnStored) df.getLongColumn("Byte");
+        byteColumn.setLong(1, 1_000_000L);
+
+        Assert.assertEquals(1_000_000L, df.getLong("Byte", 1));
+        Assert.assertEquals(127L, df.getLong("Byte", 2));
+    }
 }
@@ -1,10 +1,13 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.impl.factory.Lists;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.same;
 
@@ -74,4 +77,37 @@ public class DataFrameAggregationSameTest
                 )
         );
     }
+
+    @Test
+    public void sameValuesByNameWithNullsAndObjectTypes()
+    {
+        DataFrame df = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addStringColumn("Color").addLongColumn("Bar")
+                .addDateTimeColumn("DateTime").addDecimalColumn("Amount")
+                .addRow("Alice", "",     Long.MIN_VALUE, LocalDateTime.MIN, BigDecimal.valueOf(5, Short.MAX_VALUE))
+                .addRow("Alice", "",     Long.MIN_VALUE, LocalDateTime.MIN, BigDecimal.valueOf(5, Short.MAX_VALUE))
+                .addRow("Bob",   null,   null,           null,              null)
+                .addRow("Bob",   "Blue", 12L,            LocalDateTime.MAX, BigDecimal.ONE)
+                .addRow("Carol", "Red",  7L,             LocalDateTime.MAX, BigDecimal.TEN)
+                .addRow("Carol", null,   null,           null,              null)
+                .addRow("Dan",   "Red",  7L,             LocalDateTime.MAX, BigDecimal.TEN)
+                .addRow("Dan",   "Blue", 8L,             LocalDateTime.MIN, BigDecimal.ONE)
+                .addRow("Dan",   "Red",  7L,             LocalDateTime.MAX, BigDecimal.TEN);
+
+        ListIterable<AggregateFunction> aggregators = Lists.immutable.of(
+                same("Color"), same("Bar"), same("DateTime"), same("Amount"));
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Name").addStringColumn("Color").addLongColumn("Bar")
+                .addDateTimeColumn("DateTime").addDecimalColumn("Amount")
+                .addRow("Alice", "",   Long.MIN_VALUE, LocalDateTime.MIN, BigDecimal.valueOf(5, Short.MAX_VALUE))
+                .addRow("Bob",   null, null,           null,              null)
+                .addRow("Carol", null, null,           null,              null)
+                .addRow("Dan",   null, null,           null,              null);
+
+        DataFrameUtil.assertEquals(expected, df.aggregateBy(aggregators, Lists.immutable.of("Name")));
+
+        // the same aggregators can be used again
+        DataFrameUtil.assertEquals(expected, df.aggregateBy(aggregators, Lists.immutable.of("Name")));
+    }
 }
@@ -5,6 +5,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.avg;
 import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.count;
 import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.max;
@@ -65,6 +68,53 @@ public class DataFrameAggregationTest
         DataFrameUtil.assertEquals(expected, this.dataFrame.aggregate(Lists.immutable.of(max("Bar"), max("Baz"), max("Qux"))));
     }
 
+    @Test
+    public void minAndMaxDates()
+    {
+        DataFrame dates = new DataFrame("dates")
+                .addStringColumn("Name").addDateColumn("Date")
+                .addRow("Alice", LocalDate.of(2021, 11, 21))
+                .addRow("Bob", LocalDate.of(2020, 2, 29))
+                .addRow("Alice", LocalDate.of(2022, 1, 15))
+                .addRow("Bob", LocalDate.of(2020, 3, 1))
+                .seal();
+
+        DataFrame expected = new DataFrame("expected")
+                .addDateColumn("Earliest").addDateColumn("Latest")
+                .addRow(LocalDate.of(2020, 2, 29), LocalDate.of(2022, 1, 15));
+
+        DataFrameUtil.assertEquals(expected,
+                dates.aggregate(Lists.immutable.of(min("Date", "Earliest"), max("Date", "Latest"))));
+
+        DataFrame expectedByName = new DataFrame("expected")
+                .addStringColumn("Name").addDateColumn("Earliest").addDateColumn("Latest")
+                .addRow("Alice", LocalDate.of(2021, 11, 21), LocalDate.of(2022, 1, 15))
+                .addRow("Bob", LocalDate.of(2020, 2, 29), LocalDate.of(2020, 3, 1));
+
+        DataFrameUtil.assertEquals(expectedByName,
+                dates.aggregateBy(Lists.immutable.of(min("Date", "Earliest"), max("Date", "Latest")), Lists.immutable.of("Name")));
+    }
+
+    @Test
+    public void sameDateTimes()
+    {
+        DataFrame dateTimes = new DataFrame("date times")
+                .addStringColumn("Name").addDateTimeColumn("DateTime")
+                .addRow("Alice", LocalDateTime.of(2021, 11, 21, 10, 15, 20, 300))
+                .addRow("Bob", LocalDateTime.of(2020, 2, 29, 10, 15))
+                .addRow("Alice", LocalDateTime.of(2021, 11, 21, 10, 15, 20, 300))
+                .addRow("Bob", LocalDateTime.of(2020, 2, 29, 10, 16))
+                .seal();
+
+        DataFrame expected = new DataFrame("expected")
+                .addStringColumn("Name").addDateTimeColumn("DateTime")
+                .addRow("Alice", LocalDateTime.of(2021, 11, 21, 10, 15, 20, 300))
+                .addRow("Bob", null);
+
+        DataFrameUtil.assertEquals(expected,
+                dateTimes.aggregateBy(Lists.immutable.of(same("DateTime")), Lists.immutable.of("Name")));
+    }
+
     @Test
     public void averageAll()
     {
@@ -293,8 +343,8 @@ public class DataFrameAggregationTest
     {
         Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL), avg("NA").supportedSourceTypes());
         Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, STRING, DATE, DATE_TIME, DECIMAL), count("NA").supportedSourceTypes());
-        Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL), max("NA").supportedSourceTypes());
-        Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL), min("NA").supportedSourceTypes());
+        Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL, DATE), max("NA").supportedSourceTypes());
+        Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL, DATE), min("NA").supportedSourceTypes());
         Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, STRING, DATE, DATE_TIME, DECIMAL), same("NA").supportedSourceTypes());
         Assert.assertEquals(Lists.immutable.of(LONG, DOUBLE, DECIMAL), sum("NA").supportedSourceTypes());
     }
@@ -144,6 +144,39 @@ public class DataFrameBitmapTest
         Assert.assertEquals(BooleanLists.immutable.of(true, false, true, true, false), noFlags);
     }
 
+    @Test
+    public void combineBitmaps()
+    {
+        DfBitmap startsWithA = this.dataFrame.bitmapBy("startsWith(Name, \"A\")");
+        DfBitmap def = this.dataFrame.bitmapBy("Foo == \"Def\"");
+
+        Assert.assertEquals(3, startsWithA.cardinality());
+        Assert.assertEquals(0, this.dataFrame.getBitmap().cardinality());
+
+        this.dataFrame.setBitmap(startsWithA.andNot(def));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected flagged")
+                        .addStringColumn("Name").addStringColumn("Foo").addLongColumn("Bar").addDoubleColumn("Baz").addDoubleColumn("Qux")
+                        .addRow("Alice",   "Pqr",  11L, 10.0, 20.0)
+                        .addRow("Albert",  "Abc",  12L, 12.0, 10.0),
+                this.dataFrame.selectFlagged());
+
+        this.dataFrame.setBitmap(startsWithA.or(def));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected not flagged")
+                        .addStringColumn("Name").addStringColumn("Foo").addLongColumn("Bar").addDoubleColumn("Baz").addDoubleColumn("Qux")
+                        .addRow("Carol",   "Xyz",  14L, 14.0, 40.0),
+                this.dataFrame.selectNotFlagged());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void bitmapSizeMustMatch()
+    {
+        this.dataFrame.setBitmap(new DfBitmap(4));
+    }
+
     @Test
     public void selectionWithNulls()
     {
@@ -2,10 +2,12 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.ExpressionTestUtil;
 import io.github.vmzakharov.ecdataframe.dsl.AnonymousScript;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
 import io.github.vmzakharov.ecdataframe.dsl.SimpleEvalContext;
 import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
 import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.impl.factory.primitive.DoubleLists;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.junit.Assert;
@@ -13,6 +15,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DataFrameComputedColumnsTest
 {
@@ -70,6 +75,115 @@ public class DataFrameComputedColumnsTest
         Assert.assertEquals(LongLists.immutable.of(22L, 42L, 46L, 2L), this.df.getLongColumn("AllTogetherNow").toLongList());
     }
 
+    @Test
+    public void cachedComputedColumns()
+    {
+        this.df.enableComputedValueCaching();
+        this.df
+            .addLongColumn("CountTwiceAndTwo", "CountTwice + 2")
+            .addLongColumn("AllTogetherNow", "CountTwice + CountTwiceAndTwo")
+            .addLongColumn("CountTwice", "Count * 2")
+            .addDoubleColumn("Half", "Value / 2.0")
+            .addStringColumn("Greeting", "'Hello, ' + Name")
+            .seal();
+
+        Assert.assertEquals(LongLists.immutable.of(22L, 42L, 46L, 2L), this.df.getLongColumn("AllTogetherNow").toLongList());
+        Assert.assertEquals(LongLists.immutable.of(12L, 22L, 24L, 2L), this.df.getLongColumn("CountTwiceAndTwo").toLongList());
+        Assert.assertEquals(28.39, this.df.getDouble("Half", 2), 0.000001);
+        Assert.assertEquals("Hello, Bob", this.df.getString("Greeting", 1));
+
+        this.df.getColumnNamed("Count").setObject(0, 1L);
+        this.df.getColumnNamed("Name").setObject(1, "Bobby");
+
+        Assert.assertEquals(LongLists.immutable.of(6L, 42L, 46L, 2L), this.df.getLongColumn("AllTogetherNow").toLongList());
+        Assert.assertEquals("Hello, Bobby", this.df.getString("Greeting", 1));
+
+        this.df.addRow("Eve", 3, 1.0).seal();
+
+        Assert.assertEquals(LongLists.immutable.of(6L, 42L, 46L, 2L, 14L), this.df.getLongColumn("AllTogetherNow").toLongList());
+        Assert.assertEquals(0.5, this.df.getDouble("Half", 4), 0.0);
+
+        this.df.sortBy(Lists.immutable.of("AllTogetherNow"));
+        Assert.assertEquals("Hello, Dan", this.df.getString("Greeting", 0));
+        Assert.assertEquals(46L, this.df.getLong("AllTogetherNow", 4));
+
+        this.df.dropColumn("CountTwice");
+        this.df.addLongColumn("CountTwice", "Count * 3");
+
+        Assert.assertEquals(LongLists.immutable.of(8L, 62L, 68L, 2L, 20L), this.df.getLongColumn("AllTogetherNow").toLongList());
+        Assert.assertEquals(68L, this.df.getLong("AllTogetherNow", 4));
+    }
+
+    @Test
+    public void materializeComputedColumns()
+    {
+        this.df
+            .addLongColumn("CountTwiceAndTwo", "CountTwice + 2")
+            .addLongColumn("AllTogetherNow", "CountTwice + CountTwiceAndTwo")
+            .addLongColumn("CountTwice", "Count * 2")
+            .addStringColumn("Greeting", "'Hello, ' + Name")
+            .seal();
+
+        this.df.materializeComputedColumns();
+
+        Assert.assertEquals(
+                Lists.immutable.of("Name", "Count", "Value", "CountTwiceAndTwo", "AllTogetherNow", "CountTwice", "Greeting"),
+                this.df.getColumns().collect(DfColumn::getName));
+        Assert.assertTrue(this.df.getColumns().allSatisfy(DfColumn::isStored));
+
+        Assert.assertEquals(LongLists.immutable.of(12L, 22L, 24L, 2L), this.df.getLongColumn("CountTwiceAndTwo").toLongList());
+        Assert.assertEquals(LongLists.immutable.of(22L, 42L, 46L, 2L), this.df.getLongColumn("AllTogetherNow").toLongList());
+        Assert.assertEquals("Hello, Carol", this.df.getString("Greeting", 2));
+
+        this.df.getColumnNamed("Count").setObject(0, 1L);
+        Assert.assertEquals(22L, this.df.getLong("AllTogetherNow", 0));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void materializeComputedColumnsWithCycle()
+    {
+        this.df
+            .addLongColumn("Foo", "Bar + 1")
+            .addLongColumn("Bar", "Foo + 1")
+            .seal();
+
+        this.df.materializeComputedColumns();
+    }
+
+    @Test
+    public void materializeComputedColumnsFailure()
+    {
+        DataFrame dataFrame = new DataFrame("frame")
+            .addLongColumn("X").addLongColumn("Y")
+            .addLongColumn("Z", "X / Y")
+            .addRow(10, 2)
+            .addRow(20, 5)
+            .addRow(30, 0)
+            .seal();
+
+        try
+        {
+            dataFrame.materializeComputedColumns();
+            Assert.fail("didn't throw");
+        }
+        catch (ArithmeticException e)
+        {
+            // expected, division by zero in the last row
+        }
+
+        Assert.assertEquals(3, dataFrame.rowCount());
+        Assert.assertFalse(dataFrame.getColumnNamed("Z").isStored());
+        Assert.assertEquals(5L, dataFrame.getLong("Z", 0));
+        Assert.assertEquals(4L, dataFrame.getLong("Z", 1));
+        Assert.assertEquals(60L, dataFrame.getLongColumn("X").sum());
+
+        dataFrame.getColumnNamed("Y").setObject(2, 3L);
+        dataFrame.materializeComputedColumns();
+
+        Assert.assertTrue(dataFrame.getColumnNamed("Z").isStored());
+        Assert.assertEquals(LongLists.immutable.of(5L, 4L, 10L), dataFrame.getLongColumn("Z").toLongList());
+    }
+
     @Test
     public void externalEvalContext()
     {
@@ -219,4 +333,50 @@ public class DataFrameComputedColumnsTest
                 , dataFrame
         );
     }
+
+    @Test
+    public void concurrentEvaluation()
+            throws Exception
+    {
+        int rowCount = 10_000;
+        DataFrame numbers = new DataFrame("Numbers").addLongColumn("Id");
+        for (int i = 0; i < rowCount; i++)
+        {
+            numbers.addRow(i);
+        }
+
+        // function calls are evaluated by the interpreter, which uses the current row of the eval context
+        numbers.addLongColumn("Twice", "abs(Id) * 2").seal();
+        Expression expression = ExpressionTestUtil.toExpression("abs(Id) + 1");
+
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            MutableList<Future<Boolean>> results = Lists.mutable.of();
+            for (int thread = 0; thread < threadCount; thread++)
+            {
+                int step = thread + 1;
+                results.add(executor.submit(() -> {
+                    boolean allMatch = true;
+                    for (int i = 0; i < rowCount; i++)
+                    {
+                        int rowIndex = (i * step + step) % rowCount;
+                        allMatch &= numbers.getLong("Twice", rowIndex) == rowIndex * 2L
+                                && ((LongValue) numbers.evaluateExpression(expression, rowIndex)).longValue() == rowIndex + 1L;
+                    }
+                    return allMatch;
+                }));
+            }
+
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
 }
@@ -5,6 +5,10 @@ import org.eclipse.collections.api.list.ImmutableList;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 public class DataFrameCopyTest
 {
     @Test
@@ -131,4 +135,60 @@ public class DataFrameCopyTest
 
         DataFrameUtil.assertEquals(expectedDataFrame, copiedDataFrame);
     }
+
+    @Test
+    public void copiesAreIndependentOfEachOther()
+    {
+        DataFrame original = new DataFrame("df1")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                .addRow("Alice", 5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                .addRow("Bob",  10L, 12.34, null,                     LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5))
+                .addRow("Carl", null, 56.78, LocalDate.of(2023, 1, 3), null,                                null);
+        original.enableCompactionOnSeal();
+        original.seal();
+
+        DataFrame copy = original.copy("copy");
+        DataFrame anotherCopy = original.copy("another copy");
+
+        copy.getColumnNamed("Name").setObject(0, "Abigail");
+        copy.getColumnNamed("Count").setObject(2, 11L);
+        copy.getColumnNamed("Value").setObject(1, 1.0);
+        copy.getColumnNamed("Date").setObject(1, LocalDate.of(2023, 1, 2));
+        copy.getColumnNamed("Time").setObject(2, LocalDateTime.of(2023, 1, 3, 12, 0, 0, 1));
+        copy.getColumnNamed("Amount").setObject(2, BigDecimal.valueOf(3.25));
+
+        original.addRow("Deb", 1L, 7.89, LocalDate.of(2023, 1, 4), LocalDateTime.of(2023, 1, 4, 13, 0), BigDecimal.ONE);
+        original.seal();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                        .addRow("Alice", 5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                        .addRow("Bob",  10L, 12.34, null,                     LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5))
+                        .addRow("Carl", null, 56.78, LocalDate.of(2023, 1, 3), null,                                null)
+                        .addRow("Deb",   1L, 7.89, LocalDate.of(2023, 1, 4), LocalDateTime.of(2023, 1, 4, 13, 0), BigDecimal.ONE),
+                original);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                        .addRow("Abigail", 5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                        .addRow("Bob",    10L,  1.0, LocalDate.of(2023, 1, 2), LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5))
+                        .addRow("Carl",   11L, 56.78, LocalDate.of(2023, 1, 3), LocalDateTime.of(2023, 1, 3, 12, 0, 0, 1), BigDecimal.valueOf(3.25)),
+                copy);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                        .addRow("Alice", 5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                        .addRow("Bob",  10L, 12.34, null,                     LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5))
+                        .addRow("Carl", null, 56.78, LocalDate.of(2023, 1, 3), null,                                null),
+                anotherCopy);
+
+        Assert.assertEquals(2, anotherCopy.getColumnNamed("Count").statistics().getDistinctCountEstimate());
+    }
 }
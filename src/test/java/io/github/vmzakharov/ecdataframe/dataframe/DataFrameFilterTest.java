@@ -1,9 +1,19 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.tuple.Twin;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.sum;
+
 public class DataFrameFilterTest
 {
     private DataFrame dataFrame;
@@ -105,4 +115,205 @@ public class DataFrameFilterTest
         DataFrameUtil.assertEquals(expectedSelected, selectedAndRejected.getOne());
         DataFrameUtil.assertEquals(expectedRejected, selectedAndRejected.getTwo());
     }
+
+    @Test
+    public void selectByStringEquality()
+    {
+        this.dataFrame.addRow("Dan", null, 16L, 16.0, 12.0);
+
+        DataFrame expectedEqual = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addStringColumn("Foo").addLongColumn("Bar").addDoubleColumn("Baz").addDoubleColumn("Qux")
+                .addRow("Bob",     "Def",  13L, 13.0, 25.0)
+                .addRow("Abigail", "Def",  15L, 15.0, 11.0);
+
+        DataFrameUtil.assertEquals(expectedEqual, this.dataFrame.selectBy("Foo == \"Def\""));
+        DataFrameUtil.assertEquals(expectedEqual, this.dataFrame.selectBy("\"Def\" == Foo"));
+
+        DataFrame expectedNotEqual = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addStringColumn("Foo").addLongColumn("Bar").addDoubleColumn("Baz").addDoubleColumn("Qux")
+                .addRow("Alice",   "Pqr",  11L, 10.0, 20.0)
+                .addRow("Albert",  "Abc",  12L, 12.0, 10.0)
+                .addRow("Carol",   "Xyz",  14L, 14.0, 40.0)
+                .addRow("Dan",     null,   16L, 16.0, 12.0);
+
+        DataFrameUtil.assertEquals(expectedNotEqual, this.dataFrame.selectBy("Foo != \"Def\""));
+
+        Assert.assertEquals(0, this.dataFrame.selectBy("Foo == \"Nope\"").rowCount());
+        Assert.assertEquals(6, this.dataFrame.selectBy("Foo != \"Nope\"").rowCount());
+    }
+
+    @Test
+    public void selectionOfAllColumnTypesWithNulls()
+    {
+        DataFrame allTypes = new DataFrame("AllTypes")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                .addRow("Alice",   5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                .addRow(null,     10L,  null, LocalDate.of(2023, 1, 2), null,                                BigDecimal.valueOf(2.5))
+                .addRow("Carl",   null, 56.78, null,                    LocalDateTime.of(2023, 1, 3, 12, 0), null)
+                .addRow("Diane",  20L, 45.67, LocalDate.of(2023, 1, 4), LocalDateTime.of(2023, 1, 4, 13, 0), BigDecimal.valueOf(4.5))
+                .addLongColumn("Double Count", "Count * 2")
+                .seal();
+
+        DataFrame expected = new DataFrame("expected")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                .addRow(null,     10L,  null, LocalDate.of(2023, 1, 2), null,                                BigDecimal.valueOf(2.5))
+                .addRow("Carl",   null, 56.78, null,                    LocalDateTime.of(2023, 1, 3, 12, 0), null)
+                .addLongColumn("Double Count", "Count * 2");
+
+        DataFrameUtil.assertEquals(expected, allTypes.selectBy("Name is null or Count is null"));
+        DataFrameUtil.assertEquals(expected, allTypes.partition("Name is null or Count is null").getOne());
+
+        // gathering from the columns of a view
+        DataFrameUtil.assertEquals(expected, allTypes.slice(1, 4).selectBy("Name is null or Count is null"));
+    }
+
+    @Test
+    public void selectionOfDateTimeAndDecimalValues()
+    {
+        BigDecimal huge = new BigDecimal("123456789012345678901234567890.5");
+
+        DataFrame values = new DataFrame("Values")
+                .addLongColumn("Id").addDateTimeColumn("Time").addDecimalColumn("Amount").addDecimalColumn("Scaled")
+                .addDecimalColumn("Huge")
+                .addRow(1L, LocalDateTime.of(2023, 1, 1, 10, 0),            new BigDecimal("1.50"), new BigDecimal("1.5"),   huge)
+                .addRow(2L, LocalDateTime.of(2023, 1, 2, 10, 0, 0, 12_345), new BigDecimal("2.50"), new BigDecimal("2.50"),  null)
+                .addRow(3L, null,                                           null,                   null,                    BigDecimal.ONE)
+                .addRow(4L, LocalDateTime.of(2023, 1, 4, 13, 0, 0, 1),      new BigDecimal("4.00"), new BigDecimal("4"),     huge.negate())
+                .seal();
+
+        DataFrame expectedAll = new DataFrame("Expected")
+                .addLongColumn("Id").addDateTimeColumn("Time").addDecimalColumn("Amount").addDecimalColumn("Scaled")
+                .addDecimalColumn("Huge")
+                .addRow(1L, LocalDateTime.of(2023, 1, 1, 10, 0),            new BigDecimal("1.50"), new BigDecimal("1.5"),   huge)
+                .addRow(3L, null,                                           null,                   null,                    BigDecimal.ONE)
+                .addRow(4L, LocalDateTime.of(2023, 1, 4, 13, 0, 0, 1),      new BigDecimal("4.00"), new BigDecimal("4"),     huge.negate());
+
+        DataFrameUtil.assertEquals(expectedAll, values.selectBy("Id != 2"));
+
+        DataFrame expectedNoNanos = new DataFrame("Expected")
+                .addLongColumn("Id").addDateTimeColumn("Time").addDecimalColumn("Amount").addDecimalColumn("Scaled")
+                .addDecimalColumn("Huge")
+                .addRow(1L, LocalDateTime.of(2023, 1, 1, 10, 0), new BigDecimal("1.50"), new BigDecimal("1.5"), huge)
+                .addRow(3L, null,                                null,                   null,                  BigDecimal.ONE);
+
+        DataFrame selected = values.selectBy("Id < 4 and Id != 2");
+        DataFrameUtil.assertEquals(expectedNoNanos, selected);
+        Assert.assertEquals(new BigDecimal("1.50"), selected.getDecimal("Amount", 0));
+
+        // gathering from the columns of a copy sharing the values with the original
+        DataFrameUtil.assertEquals(expectedAll, values.copy("Copy").selectBy("Id != 2"));
+        DataFrameUtil.assertEquals(expectedNoNanos, values.copy("Copy").selectBy("Id < 4 and Id != 2"));
+    }
+
+    @Test
+    public void selectView()
+    {
+        this.dataFrame.addDoubleColumn("BazAndQux", "Baz + Qux");
+        this.dataFrame.sortBy(Lists.immutable.of("Qux"));
+
+        DataFrame view = this.dataFrame.selectViewBy("Foo == \"Def\" or Bar < 12");
+
+        Assert.assertEquals(3, view.rowCount());
+        Assert.assertEquals(Lists.immutable.of("Alice", "Bob", "Abigail"), view.getStringColumn("Name").toList());
+        Assert.assertEquals(38.0, view.getDouble("BazAndQux", 1), 0.0);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected").addLongColumn("Bar").addDoubleColumn("Baz")
+                        .addRow(39L, 38.0),
+                view.aggregate(Lists.immutable.of(sum("Bar"), sum("Baz"))));
+
+        view.sortBy(Lists.immutable.of("Name"));
+        Assert.assertEquals("Abigail", view.getString("Name", 0));
+
+        DataFrame materialized = view.copy("materialized");
+        Assert.assertTrue(materialized.getColumns().allSatisfy(DfColumn::isStored));
+        materialized.addRow("Zed", "Zzz", 1L, 1.0, 1.0);
+        Assert.assertEquals(4, materialized.rowCount());
+        Assert.assertEquals(5, this.dataFrame.rowCount());
+
+        view.unsort();
+        this.dataFrame.getColumnNamed("Bar").setObject(2, 100L);
+        Assert.assertEquals(100L, view.getLong("Bar", 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void selectViewIsReadOnly()
+    {
+        this.dataFrame.selectViewBy("Bar > 12").getColumnNamed("Bar").setObject(0, 100L);
+    }
+
+    @Test
+    public void parallelFilteringMatchesSequential()
+    {
+        DataFrame sequential = this.largeDataFrame();
+        DataFrame parallel = this.largeDataFrame();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            parallel.enableParallelFiltering(pool);
+            Assert.assertTrue(parallel.isFilteringInParallel());
+
+            // compiled, interpreted, long value and dictionary code filters
+            String[] filters = {"Value > 100.0 and Id < 35000", "abs(Id - 20000) < 1234", "Id > 29999", "Name == 'Name7'"};
+            for (String filter : filters)
+            {
+                DataFrameUtil.assertEquals(sequential.selectBy(filter), parallel.selectBy(filter));
+
+                Twin<DataFrame> sequentialPartition = sequential.partition(filter);
+                Twin<DataFrame> parallelPartition = parallel.partition(filter);
+                DataFrameUtil.assertEquals(sequentialPartition.getOne(), parallelPartition.getOne());
+                DataFrameUtil.assertEquals(sequentialPartition.getTwo(), parallelPartition.getTwo());
+
+                sequential.flagRowsBy(filter);
+                parallel.flagRowsBy(filter);
+                DataFrameUtil.assertEquals(sequential.selectFlagged(), parallel.selectFlagged());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelFilteringWithFormat()
+    {
+        DecimalFormat decimalFormat = new DecimalFormat("#,##0.000");
+        DataFrame formatted = new DataFrame("Formatted").addDoubleColumn("Value").addStringColumn("Expected");
+        for (int i = 0; i < 40_000; i++)
+        {
+            double value = i * 1234.5678;
+            formatted.addRow(value, decimalFormat.format(value));
+        }
+        formatted.seal();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            formatted.enableParallelFiltering(pool);
+
+            // the workers format values concurrently with the same function
+            for (int i = 0; i < 3; i++)
+            {
+                Assert.assertEquals(40_000, formatted.selectBy("format(Value, '#,##0.000') == Expected").rowCount());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private DataFrame largeDataFrame()
+    {
+        DataFrame largeDataFrame = new DataFrame("Large").addStringColumn("Name").addLongColumn("Id").addDoubleColumn("Value");
+        for (int i = 0; i < 40_000; i++)
+        {
+            largeDataFrame.addRow("Name" + i % 10, i, (i * 7919) % 1000 / 3.0);
+        }
+        return largeDataFrame.seal();
+    }
 }
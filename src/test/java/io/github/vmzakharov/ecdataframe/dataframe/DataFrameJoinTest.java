@@ -39,6 +39,35 @@ public class DataFrameJoinTest
         DataFrameUtil.assertEquals(expected, joined);
     }
 
+    @Test
+    public void joinOnStringKeysWithDifferentValueSets()
+    {
+        DataFrame df1 = new DataFrame("df1")
+                .addStringColumn("Ccy").addLongColumn("Amount")
+                .addRow("USD", 10)
+                .addRow("JPY", 20)
+                .addRow("EUR", 30)
+                .addRow("AUD", 40)
+                .seal();
+
+        DataFrame df2 = new DataFrame("df2")
+                .addStringColumn("Currency").addDoubleColumn("Rate")
+                .addRow("GBP", 1.25)
+                .addRow("EUR", 1.1)
+                .addRow("CHF", 1.15)
+                .addRow("USD", 1.0)
+                .addRow("AUD", 0.65)
+                .seal();
+
+        DataFrame expected = new DataFrame("expected")
+                .addStringColumn("Ccy").addLongColumn("Amount").addDoubleColumn("Rate")
+                .addRow("AUD", 40, 0.65)
+                .addRow("EUR", 30, 1.1)
+                .addRow("USD", 10, 1.0);
+
+        DataFrameUtil.assertEquals(expected, df1.join(df2, "Ccy", "Currency"));
+    }
+
     @Test
     public void duplicateMatchedKeys()
     {
@@ -0,0 +1,142 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.sum;
+
+public class DataFrameSliceTest
+{
+    private DataFrame dataFrame;
+
+    @Before
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addDateTimeColumn("Time").addDecimalColumn("Amount")
+                .addRow("Alice",   5L, 23.45, LocalDate.of(2023, 1, 1), LocalDateTime.of(2023, 1, 1, 10, 0), BigDecimal.valueOf(1.5))
+                .addRow("Bob",    10L, 12.34, LocalDate.of(2023, 1, 2), LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5))
+                .addRow("Carl",   11L, 56.78, LocalDate.of(2023, 1, 3), null,                                BigDecimal.valueOf(3.5))
+                .addRow("Diane",  null, 45.67, LocalDate.of(2023, 1, 4), LocalDateTime.of(2023, 1, 4, 13, 0), BigDecimal.valueOf(4.5))
+                .addRow("Ed",      1L, 34.56, null,                     LocalDateTime.of(2023, 1, 5, 14, 0), null)
+                .addLongColumn("Double Count", "Count * 2");
+        this.dataFrame.seal();
+    }
+
+    @Test
+    public void slice()
+    {
+        DataFrame slice = this.dataFrame.slice(1, 4);
+
+        Assert.assertEquals(3, slice.rowCount());
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addDateTimeColumn("Time").addDecimalColumn("Amount").addLongColumn("Double Count")
+                        .addRow("Bob",   10L, 12.34, LocalDate.of(2023, 1, 2), LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5), 20L)
+                        .addRow("Carl",  11L, 56.78, LocalDate.of(2023, 1, 3), null,                                BigDecimal.valueOf(3.5), 22L)
+                        .addRow("Diane", null, 45.67, LocalDate.of(2023, 1, 4), LocalDateTime.of(2023, 1, 4, 13, 0), BigDecimal.valueOf(4.5), null),
+                slice);
+    }
+
+    @Test
+    public void headAndTail()
+    {
+        Assert.assertEquals(
+                Lists.immutable.of("Alice", "Bob"),
+                this.dataFrame.head(2).getStringColumn("Name").toList());
+
+        Assert.assertEquals(
+                Lists.immutable.of("Diane", "Ed"),
+                this.dataFrame.tail(2).getStringColumn("Name").toList());
+
+        Assert.assertEquals(5, this.dataFrame.head(10).rowCount());
+        Assert.assertEquals(5, this.dataFrame.tail(10).rowCount());
+        Assert.assertEquals(0, this.dataFrame.head(0).rowCount());
+    }
+
+    @Test
+    public void sliceFollowsSortOrder()
+    {
+        this.dataFrame.sortBy(Lists.immutable.of("Value"));
+
+        DataFrame slice = this.dataFrame.head(3);
+
+        this.dataFrame.unsort();
+
+        Assert.assertEquals(Lists.immutable.of("Bob", "Alice", "Ed"), slice.getStringColumn("Name").toList());
+        Assert.assertEquals(Lists.immutable.of("Alice", "Bob", "Carl"), this.dataFrame.head(3).getStringColumn("Name").toList());
+    }
+
+    @Test
+    public void sliceOfSlice()
+    {
+        DataFrame slice = this.dataFrame.slice(1, 5).slice(1, 3);
+
+        Assert.assertEquals(Lists.immutable.of("Carl", "Diane"), slice.getStringColumn("Name").toList());
+        Assert.assertEquals(56.78, slice.getDouble("Value", 0), 0.0);
+    }
+
+    @Test
+    public void operationsOnSlice()
+    {
+        DataFrame slice = this.dataFrame.slice(0, 3);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected").addLongColumn("Count").addDoubleColumn("Value")
+                        .addRow(26L, 92.57),
+                slice.aggregate(Lists.immutable.of(sum("Count"), sum("Value"))));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addDateTimeColumn("Time").addDecimalColumn("Amount").addLongColumn("Double Count")
+                        .addRow("Bob",  10L, 12.34, LocalDate.of(2023, 1, 2), LocalDateTime.of(2023, 1, 2, 11, 0), BigDecimal.valueOf(2.5), 20L)
+                        .addRow("Carl", 11L, 56.78, LocalDate.of(2023, 1, 3), null,                                BigDecimal.valueOf(3.5), 22L),
+                slice.selectBy("Count > 5"));
+
+        slice.addLongColumn("Triple Count", "Count * 3");
+        Assert.assertEquals(33L, slice.getLong("Triple Count", 2));
+
+        DataFrame copied = slice.copy("copied");
+        copied.addRow("Zed", 1L, 1.0, null, null, null, null, null);
+        Assert.assertEquals(4, copied.rowCount());
+        Assert.assertEquals(5, this.dataFrame.rowCount());
+    }
+
+    @Test
+    public void sliceSeesChangesToParent()
+    {
+        DataFrame slice = this.dataFrame.slice(1, 3);
+
+        this.dataFrame.getColumnNamed("Count").setObject(2, 100L);
+
+        Assert.assertEquals(100L, slice.getLong("Count", 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sliceIsReadOnly()
+    {
+        this.dataFrame.slice(1, 3).getColumnNamed("Count").setObject(0, 100L);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cannotAddRowsToSlice()
+    {
+        this.dataFrame.slice(1, 3).addRow("Zed", 1L, 1.0, null, null, null, null);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void invalidRange()
+    {
+        this.dataFrame.slice(3, 6);
+    }
+}
@@ -378,6 +378,30 @@ public class DataFrameSortTest
         DataFrameUtil.assertEquals(expected, dataFrame.sortBy(Lists.immutable.of("Name", "DateTime")));
     }
 
+    @Test
+    public void sortByDateTimeWithFractionsOfSecond()
+    {
+        DataFrame dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addDateTimeColumn("DateTime")
+                .addRow("Abigail", LocalDateTime.of(2020, 9, 11, 11, 12, 13))
+                .addRow("Bob",     LocalDateTime.of(2020, 9, 11, 11, 12, 13, 500))
+                .addRow("Carol",   LocalDateTime.of(1920, 9, 11, 11, 12, 13, 100))
+                .addRow("Dan",                          null)
+                .addRow("Earl",    LocalDateTime.of(2020, 9, 11, 11, 12, 13, 400))
+                ;
+
+        DataFrame expected = new DataFrame("Expected FrameOfData")
+                .addStringColumn("Name").addDateTimeColumn("DateTime")
+                .addRow("Dan",                          null)
+                .addRow("Carol",   LocalDateTime.of(1920, 9, 11, 11, 12, 13, 100))
+                .addRow("Abigail", LocalDateTime.of(2020, 9, 11, 11, 12, 13))
+                .addRow("Earl",    LocalDateTime.of(2020, 9, 11, 11, 12, 13, 400))
+                .addRow("Bob",     LocalDateTime.of(2020, 9, 11, 11, 12, 13, 500))
+                ;
+
+        DataFrameUtil.assertEquals(expected, dataFrame.sortBy(Lists.immutable.of("DateTime")));
+    }
+
     @Test
     public void columnSortIsStable()
     {
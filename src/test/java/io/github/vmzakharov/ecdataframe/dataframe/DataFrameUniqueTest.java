@@ -74,4 +74,30 @@ public class DataFrameUniqueTest
                 this.df.unique(Lists.immutable.of("Foo", "Bar", "Baz", "Qux"))
         );
     }
+
+    @Test
+    public void stringColumnsWithNulls()
+    {
+        DataFrame dataFrame = new DataFrame("df")
+                .addStringColumn("Currency").addStringColumn("Venue")
+                .addRow("USD", "NYSE")
+                .addRow("EUR", null)
+                .addRow("USD", "NYSE")
+                .addRow(null, null)
+                .addRow("EUR", null)
+                .addRow("USD", "LSE")
+                .addRow(null, null)
+                .seal();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Currency").addStringColumn("Venue")
+                        .addRow("USD", "NYSE")
+                        .addRow("EUR", null)
+                        .addRow(null, null)
+                        .addRow("USD", "LSE")
+                ,
+                dataFrame.unique()
+        );
+    }
 }
@@ -195,4 +195,66 @@ public class DataFrameWithDecimalColumnTest
                         Lists.immutable.of("Name"))
         );
     }
+
+    @Test
+    public void valuesKeepTheirScale()
+    {
+        DfDecimalColumnStored column = (DfDecimalColumnStored) this.df.getDecimalColumn("Foo");
+
+        Assert.assertTrue(column.storesUnscaledLongs());
+        Assert.assertEquals(new BigDecimal("3.2"), column.getTypedObject(0));
+        Assert.assertEquals(new BigDecimal("123.11"), column.getTypedObject(2));
+        Assert.assertEquals(2, column.getScale(2));
+        Assert.assertEquals(12311L, column.getUnscaledLong(2));
+        Assert.assertEquals(new BigDecimal("129.71"), column.sum());
+    }
+
+    @Test
+    public void valuesNotFittingInLong()
+    {
+        BigDecimal large = new BigDecimal("123456789012345678901234567890.12");
+
+        DataFrame dataFrame = new DataFrame("Large")
+                .addStringColumn("Name").addDecimalColumn("Value")
+                .addRow("Alice", new BigDecimal("1.5"))
+                .addRow("Bob", null)
+                .addRow("Alice", large)
+                .seal();
+
+        DfDecimalColumnStored column = (DfDecimalColumnStored) dataFrame.getDecimalColumn("Value");
+
+        Assert.assertFalse(column.storesUnscaledLongs());
+        Assert.assertEquals(Lists.immutable.of(new BigDecimal("1.5"), null, large), column.toList());
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addDecimalColumn("Value")
+                        .addRow("Alice", large.add(new BigDecimal("1.5")))
+                        .addRow("Bob", null)
+                ,
+                dataFrame.aggregateBy(Lists.immutable.of(sum("Value")), Lists.immutable.of("Name"))
+        );
+    }
+
+    @Test
+    public void sumOverflowingLong()
+    {
+        BigDecimal large = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+        DataFrame dataFrame = new DataFrame("Large")
+                .addStringColumn("Name").addDecimalColumn("Value")
+                .addRow("Alice", large)
+                .addRow("Alice", large)
+                .seal();
+
+        Assert.assertEquals(large.add(large), dataFrame.getDecimalColumn("Value").sum());
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addDecimalColumn("Value")
+                        .addRow("Alice", large.add(large))
+                ,
+                dataFrame.aggregateBy(Lists.immutable.of(sum("Value")), Lists.immutable.of("Name"))
+        );
+    }
 }
@@ -0,0 +1,94 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DfBitmapTest
+{
+    @Test
+    public void setAndClear()
+    {
+        DfBitmap bitmap = new DfBitmap(130);
+
+        bitmap.set(0);
+        bitmap.set(63);
+        bitmap.set(64);
+        bitmap.set(129);
+        bitmap.clear(64);
+
+        Assert.assertEquals(130, bitmap.size());
+        Assert.assertEquals(3, bitmap.cardinality());
+        Assert.assertTrue(bitmap.get(63));
+        Assert.assertFalse(bitmap.get(64));
+        Assert.assertTrue(bitmap.get(129));
+    }
+
+    @Test
+    public void setOperations()
+    {
+        DfBitmap first = this.bitmapOf(70, 1, 2, 65, 66);
+        DfBitmap second = this.bitmapOf(70, 2, 3, 66, 69);
+
+        Assert.assertEquals(IntLists.immutable.of(2, 66), this.setBits(first.and(second)));
+        Assert.assertEquals(IntLists.immutable.of(1, 2, 3, 65, 66, 69), this.setBits(first.or(second)));
+        Assert.assertEquals(IntLists.immutable.of(1, 65), this.setBits(first.andNot(second)));
+        Assert.assertEquals(IntLists.immutable.of(1, 3, 65, 69), this.setBits(first.xor(second)));
+
+        // the operands are not changed
+        Assert.assertEquals(IntLists.immutable.of(1, 2, 65, 66), this.setBits(first));
+    }
+
+    @Test
+    public void clearBits()
+    {
+        DfBitmap bitmap = this.bitmapOf(67, 0, 1, 3, 64, 66);
+
+        MutableIntList clearBits = IntLists.mutable.of();
+        bitmap.forEachClearBit(clearBits::add);
+
+        Assert.assertEquals(67 - 5, clearBits.size());
+        Assert.assertEquals(2, clearBits.getFirst());
+        Assert.assertEquals(65, clearBits.getLast());
+        Assert.assertEquals(62, bitmap.not().cardinality());
+    }
+
+    @Test
+    public void emptyBitmap()
+    {
+        DfBitmap bitmap = new DfBitmap(0);
+
+        Assert.assertEquals(0, bitmap.cardinality());
+        Assert.assertEquals(0, bitmap.not().cardinality());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void combiningDifferentSizesFails()
+    {
+        new DfBitmap(10).or(new DfBitmap(11));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexOutOfBounds()
+    {
+        new DfBitmap(10).set(10);
+    }
+
+    private DfBitmap bitmapOf(int size, int... setBits)
+    {
+        DfBitmap bitmap = new DfBitmap(size);
+        for (int each : setBits)
+        {
+            bitmap.set(each);
+        }
+        return bitmap;
+    }
+
+    private MutableIntList setBits(DfBitmap bitmap)
+    {
+        MutableIntList setBits = IntLists.mutable.of();
+        bitmap.forEachSetBit(setBits::add);
+        return setBits;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.DESC;
+
+public class DfColumnStatisticsTest
+{
+    private DataFrame dataFrame;
+
+    @Before
+    public void initializeDataFrame()
+    {
+        this.dataFrame = new DataFrame("df")
+                .addStringColumn("Name").addLongColumn("Id").addDoubleColumn("Score").addDateColumn("Date")
+                .addRow("Carl",  1, 10.0, LocalDate.of(2024, 3, 1))
+                .addRow("Alice", 2, null, LocalDate.of(2024, 2, 1))
+                .addRow("Bob",   3, 30.0, null)
+                .addRow("Alice", 4, 20.0, LocalDate.of(2024, 1, 1))
+                .seal();
+    }
+
+    @Test
+    public void statisticsCollectedOnSeal()
+    {
+        DfColumnStatistics names = this.dataFrame.getColumnNamed("Name").statistics();
+        Assert.assertEquals(4, names.getSize());
+        Assert.assertEquals(0, names.getNullCount());
+        Assert.assertEquals("Alice", names.getMin());
+        Assert.assertEquals("Carl", names.getMax());
+        Assert.assertEquals(3, names.getDistinctCountEstimate());
+        Assert.assertFalse(names.isAscending());
+        Assert.assertFalse(names.isDescending());
+
+        DfColumnStatistics ids = this.dataFrame.getColumnNamed("Id").statistics();
+        Assert.assertEquals(1L, ids.getMin());
+        Assert.assertEquals(4L, ids.getMax());
+        Assert.assertTrue(ids.isAscending());
+        Assert.assertEquals(4, ids.getDistinctCountEstimate());
+
+        DfColumnStatistics scores = this.dataFrame.getColumnNamed("Score").statistics();
+        Assert.assertEquals(1, scores.getNullCount());
+        Assert.assertEquals(10.0, scores.getMin());
+        Assert.assertEquals(30.0, scores.getMax());
+
+        DfColumnStatistics dates = this.dataFrame.getColumnNamed("Date").statistics();
+        Assert.assertEquals(1, dates.getNullCount());
+        Assert.assertEquals(LocalDate.of(2024, 1, 1), dates.getMin());
+        Assert.assertFalse(dates.isDescending());
+    }
+
+    @Test
+    public void statisticsUpdatedAfterChanges()
+    {
+        DfLongColumnStored ids = (DfLongColumnStored) this.dataFrame.getLongColumn("Id");
+        Assert.assertSame(ids.statistics(), ids.statistics());
+
+        ids.setLong(0, 100L);
+        Assert.assertEquals(100L, ids.statistics().getMax());
+        Assert.assertFalse(ids.statistics().isAscending());
+
+        this.dataFrame.addRow("Doris", 0, 1.0, LocalDate.of(2024, 4, 1));
+        Assert.assertEquals(0L, ids.statistics().getMin());
+        Assert.assertEquals(5, ids.statistics().getSize());
+    }
+
+    @Test
+    public void distinctCountEstimate()
+    {
+        DataFrame df = new DataFrame("df").addLongColumn("Value");
+        for (int i = 0; i < 100_000; i++)
+        {
+            df.addRow(i % 20_000);
+        }
+        df.seal();
+
+        int estimate = df.getColumnNamed("Value").statistics().getDistinctCountEstimate();
+        Assert.assertTrue("Estimate " + estimate, estimate > 19_000 && estimate < 21_000);
+    }
+
+    @Test
+    public void sortAlreadySortedColumns()
+    {
+        DataFrame df = new DataFrame("df")
+                .addLongColumn("Year").addStringColumn("Name")
+                .addRow(2024, "Carl")
+                .addRow(2023, "Bob")
+                .addRow(2023, "Alice")
+                .seal();
+
+        df.sortBy(Lists.immutable.of("Year", "Name"), Lists.immutable.of(DESC, DESC));
+
+        Assert.assertEquals("Carl", df.getString("Name", 0));
+        Assert.assertEquals("Alice", df.getString("Name", 2));
+
+        df.sortBy(Lists.immutable.of("Year", "Name"));
+
+        Assert.assertEquals("Alice", df.getString("Name", 0));
+        Assert.assertEquals("Bob", df.getString("Name", 1));
+        Assert.assertEquals("Carl", df.getString("Name", 2));
+    }
+
+    @Test
+    public void selectByOutsideOfValueRange()
+    {
+        Assert.assertEquals(0, this.dataFrame.selectBy("Id == 5").rowCount());
+        Assert.assertEquals(4, this.dataFrame.selectBy("Id != 5").rowCount());
+        Assert.assertEquals(0, this.dataFrame.selectBy("Id > 4").rowCount());
+        Assert.assertEquals(4, this.dataFrame.selectBy("0 < Id").rowCount());
+        Assert.assertEquals(2, this.dataFrame.selectBy("Id >= 3").rowCount());
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
+import org.eclipse.collections.api.block.function.Function0;
+import org.eclipse.collections.api.block.function.primitive.IntToObjectFunction;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.api.factory.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+public class DfExpressionCompilerTest
+{
+    private DataFrame df;
+
+    @Before
+    public void initializeDataFrame()
+    {
+        this.df = new DataFrame("df")
+                .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                .addRow("Alice",  5, 23.45, LocalDate.of(2023, 1, 10))
+                .addRow("Bob",   10,  null, LocalDate.of(2023, 2, 10))
+                .addRow(null,  null, 56.78, null)
+                .addRow("",       0,  7.89, LocalDate.of(2023, 3, 10))
+                .addRow("Dan",   -3,  10.0, LocalDate.of(2023, 1, 10))
+                .seal();
+    }
+
+    @Test
+    public void filtersMatchEvaluation()
+    {
+        Lists.immutable.of(
+                "Count > 4",
+                "Count >= 5 and Value < 30.0",
+                "Count * 2 + 1 == 11 or Name == \"Dan\"",
+                "Count < Value",
+                "Count / 2 <= 2",
+                "-5 < Count",
+                "Value - Count > 18.0",
+                "Count != 10",
+                "Count == Count",
+                "Name > \"B\"",
+                "Name <= \"Bob\"",
+                "Name != \"Bob\" xor Count > 0",
+                "not (Value >= 10.0)",
+                "Date < Date",
+                "Date == Date",
+                "Count is null",
+                "Value is not null",
+                "Date < toDate(2023, 2, 1)",
+                "Count * (2 * 3) > 10",
+                "1 == 1 and Name > \"B\" or Count > 1",
+                "Count in (5, 10, 99)",
+                "Count not in (5, -3)",
+                "Name in (\"Bob\", \"\", \"Zed\")",
+                "Name not in (\"Bob\", \"Dan\")",
+                "Date in (toDate(2023, 1, 10), toDate(2024, 1, 1))",
+                "Date not in (toDate(2023, 1, 10), toDate(2023, 3, 10))"
+        ).forEach(this::assertCompiledFilterMatches);
+    }
+
+    @Test
+    public void valuesMatchEvaluation()
+    {
+        Lists.immutable.of(
+                "Count + 1",
+                "Count * 1.5",
+                "Count - Value",
+                "Name",
+                "Date",
+                "Count > 2"
+        ).forEach(this::assertCompiledValueMatches);
+    }
+
+    @Test
+    public void unsupportedExpressionsAreNotCompiled()
+    {
+        Assert.assertNull(this.compileFilter("Count in (1, 2.5)"));
+        Assert.assertNull(this.compileFilter("Value in (1.0, 2.0)"));
+        Assert.assertNull(this.compileFilter("Count in (1, Count)"));
+        Assert.assertNull(this.compileFilter("substr(Name, 1) == \"ob\""));
+        Assert.assertNull(this.compileFilter("Missing > 1"));
+        Assert.assertNull(this.compileFilter("-Count > 0"));
+
+        this.df.addLongColumn("Twice", "Count * 2");
+        Assert.assertNull(this.compileFilter("Twice > 1"));
+    }
+
+    @Test
+    public void sortByCompiledExpression()
+    {
+        this.df.sortByExpression("Count * -1");
+
+        Assert.assertNull(this.df.getObject("Name", 0));
+        Assert.assertEquals("Bob", this.df.getString("Name", 1));
+        Assert.assertEquals("Dan", this.df.getString("Name", 4));
+    }
+
+    @Test
+    public void blockFiltersSpanMultipleBlocks()
+    {
+        int rowCount = DfExpressionCompiler.BLOCK_SIZE * 2 + 17;
+        DataFrame large = new DataFrame("large").addLongColumn("Id").addDoubleColumn("Value");
+        int expectedCount = 0;
+        for (int i = 0; i < rowCount; i++)
+        {
+            boolean isNull = i % 10 == 0;
+            large.addRow(i, isNull ? null : i * 0.5);
+            if (!isNull && i > 2000 && i < rowCount - 1)
+            {
+                expectedCount++;
+            }
+        }
+        large.seal();
+
+        Assert.assertEquals((rowCount + 9) / 10, large.selectBy("Value is null").rowCount());
+
+        DataFrame selected = large.selectBy("Value > 1000.0 and Id < " + (rowCount - 1));
+        Assert.assertEquals(expectedCount, selected.rowCount());
+        Assert.assertEquals(2001L, selected.getLong("Id", 0));
+        Assert.assertEquals(rowCount - 2L, selected.getLong("Id", selected.rowCount() - 1));
+    }
+
+    @Test
+    public void blockFiltersDoNotDivideExcludedRows()
+    {
+        this.assertCompiledFilterMatches("Count != 0 and 10 / Count > 1");
+        this.assertCompiledFilterMatches("Count == 0 or 10 / Count < 0");
+
+        DataFrame selected = this.df.selectBy("Count != 0 and 10 / Count > 1");
+
+        Assert.assertEquals(1, selected.rowCount());
+        Assert.assertEquals("Alice", selected.getString("Name", 0));
+    }
+
+    @Test
+    public void failingOperandsAreEvaluatedWhenTheOtherOneIsNull()
+    {
+        // Bob has a null value and a count of 10, so the divisions fail even though the results are determined by the
+        // null value
+        Lists.immutable.of(
+                "Value + 10 / (Count - 10)",
+                "10 / (Count - 10) - Value",
+                "Value > 10 / (Count - 10)",
+                "10 / (Count - 10) == Value"
+        ).forEach(expressionString -> {
+            Expression expression = ExpressionParserHelper.DEFAULT.toExpression(expressionString);
+            IntToObjectFunction<Value> compiled = DfExpressionCompiler.compileValue(this.df, expression);
+            Assert.assertNotNull(expressionString, compiled);
+
+            this.assertFailsWithArithmeticException(expressionString, () -> this.df.evaluateExpression(expression, 1));
+            this.assertFailsWithArithmeticException(expressionString, () -> compiled.valueOf(1));
+        });
+    }
+
+    @Test
+    public void compiledFiltersSeeValueChanges()
+    {
+        Assert.assertEquals(2, this.df.selectBy("Count > 4").rowCount());
+
+        this.df.getColumnNamed("Count").setObject(0, null);
+        this.df.getColumnNamed("Count").setObject(3, 7L);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Name").addLongColumn("Count").addDoubleColumn("Value").addDateColumn("Date")
+                        .addRow("Bob", 10, null, LocalDate.of(2023, 2, 10))
+                        .addRow("", 7, 7.89, LocalDate.of(2023, 3, 10)),
+                this.df.selectBy("Count > 4"));
+    }
+
+    @Test
+    public void computedColumnsFollowSchemaChanges()
+    {
+        this.df
+                .addLongColumn("CountTwice", "Count * 2")
+                .addDoubleColumn("Scaled", "Value * Factor");
+
+        this.addFactorColumn(2L);
+
+        Assert.assertEquals(20L, this.df.getLong("CountTwice", 1));
+        Assert.assertTrue(this.df.isNull("CountTwice", 2));
+        Assert.assertEquals(46.9, this.df.getDouble("Scaled", 0), 0.000001);
+        Assert.assertTrue(this.df.isNull("Scaled", 1));
+
+        this.df.dropColumn("Factor");
+        this.addFactorColumn(10L);
+
+        Assert.assertEquals(234.5, this.df.getDouble("Scaled", 0), 0.000001);
+    }
+
+    private void addFactorColumn(long factor)
+    {
+        DfColumn factorColumn = this.df.newColumn("Factor", ValueType.LONG);
+        for (int i = 0; i < this.df.rowCount(); i++)
+        {
+            factorColumn.addObject(factor);
+        }
+        this.df.seal();
+    }
+
+    private void assertCompiledFilterMatches(String expressionString)
+    {
+        IntPredicate compiled = this.compileFilter(expressionString);
+        Assert.assertNotNull(expressionString, compiled);
+
+        Expression expression = ExpressionParserHelper.DEFAULT.toExpression(expressionString);
+        for (int rowIndex = 0; rowIndex < this.df.rowCount(); rowIndex++)
+        {
+            Assert.assertEquals(
+                    expressionString + " at row " + rowIndex,
+                    ((BooleanValue) this.df.evaluateExpression(expression, rowIndex)).isTrue(),
+                    compiled.accept(rowIndex));
+        }
+
+        Function0<DfExpressionCompiler.BooleanBlock> blockFactory = DfExpressionCompiler.compileBlockFilter(this.df, expression);
+        Assert.assertNotNull(expressionString, blockFactory);
+
+        // the same block evaluation is reused for all blocks, as it is by a filter
+        DfExpressionCompiler.BooleanBlock block = blockFactory.value();
+
+        // evaluate blocks starting at every row to catch values misaligned within a block
+        for (int fromRowIndex = 0; fromRowIndex < this.df.rowCount(); fromRowIndex++)
+        {
+            boolean[] results = new boolean[this.df.rowCount() - fromRowIndex];
+            block.evaluate(fromRowIndex, results.length, results);
+            for (int i = 0; i < results.length; i++)
+            {
+                Assert.assertEquals(
+                        expressionString + " in block at row " + (fromRowIndex + i),
+                        compiled.accept(fromRowIndex + i),
+                        results[i]);
+            }
+        }
+    }
+
+    private void assertCompiledValueMatches(String expressionString)
+    {
+        Expression expression = ExpressionParserHelper.DEFAULT.toExpression(expressionString);
+        IntToObjectFunction<Value> compiled = DfExpressionCompiler.compileValue(this.df, expression);
+        Assert.assertNotNull(expressionString, compiled);
+
+        for (int rowIndex = 0; rowIndex < this.df.rowCount(); rowIndex++)
+        {
+            Assert.assertEquals(
+                    expressionString + " at row " + rowIndex,
+                    this.df.evaluateExpression(expression, rowIndex).asStringLiteral(),
+                    compiled.valueOf(rowIndex).asStringLiteral());
+        }
+    }
+
+    private void assertFailsWithArithmeticException(String expressionString, Runnable evaluation)
+    {
+        try
+        {
+            evaluation.run();
+            Assert.fail(expressionString + " didn't throw");
+        }
+        catch (ArithmeticException e)
+        {
+            // expected
+        }
+    }
+
+    private IntPredicate compileFilter(String expressionString)
+    {
+        return DfExpressionCompiler.compileFilter(this.df, ExpressionParserHelper.DEFAULT.toExpression(expressionString));
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class DfLongChunkedListTest
+{
+    private static final int SIZE = DfLongChunkedList.CHUNK_SIZE * 2 + 10;
+
+    @Test
+    public void addAcrossChunks()
+    {
+        DfLongChunkedList list = this.listOfSize(SIZE);
+
+        Assert.assertEquals(SIZE, list.size());
+        Assert.assertEquals(0L, list.get(0));
+        Assert.assertEquals(DfLongChunkedList.CHUNK_SIZE, list.get(DfLongChunkedList.CHUNK_SIZE));
+        Assert.assertEquals(SIZE - 1, list.get(SIZE - 1));
+
+        list.set(DfLongChunkedList.CHUNK_SIZE - 1, -1L);
+        Assert.assertEquals(-1L, list.get(DfLongChunkedList.CHUNK_SIZE - 1));
+    }
+
+    @Test
+    public void addAll()
+    {
+        DfLongChunkedList list = this.listOfSize(5);
+        list.addAll(this.listOfSize(SIZE));
+        list.addAll(new DfLongChunkedList());
+
+        Assert.assertEquals(SIZE + 5, list.size());
+        Assert.assertEquals(4L, list.get(4));
+        Assert.assertEquals(0L, list.get(5));
+        Assert.assertEquals(SIZE - 1, list.get(SIZE + 4));
+    }
+
+    @Test
+    public void compactAndTrim()
+    {
+        DfLongChunkedList compacted = this.listOfSize(SIZE);
+        compacted.seal(true);
+
+        long[] values = compacted.toArray();
+        Assert.assertEquals(SIZE, values.length);
+        Assert.assertEquals(SIZE - 1, values[SIZE - 1]);
+        Assert.assertEquals(DfLongChunkedList.CHUNK_SIZE, compacted.get(DfLongChunkedList.CHUNK_SIZE));
+
+        compacted.add(SIZE);
+        Assert.assertEquals(SIZE, compacted.get(SIZE));
+
+        DfLongChunkedList trimmed = this.listOfSize(SIZE);
+        trimmed.seal(false);
+        trimmed.add(SIZE);
+        trimmed.add(SIZE + 1);
+
+        Assert.assertEquals(SIZE + 2, trimmed.size());
+        Assert.assertEquals(SIZE + 1, trimmed.get(SIZE + 1));
+    }
+
+    @Test
+    public void storeOffHeap()
+    {
+        int size = (1 << 20) + 10; // more than one buffer
+        DfLongChunkedList list = this.listOfSize(size);
+        list.storeOffHeap(DfDirectBufferAllocator.INSTANCE);
+        list.seal(false);
+
+        Assert.assertTrue(list.isOffHeap());
+        Assert.assertEquals(size, list.size());
+        Assert.assertEquals(1 << 20, list.get(1 << 20));
+        Assert.assertEquals(size - 1, list.get(size - 1));
+
+        list.set(size - 1, -1L);
+        Assert.assertEquals(-1L, list.get(size - 1));
+
+        list.add(size);
+        Assert.assertEquals(size + 1, list.size());
+        Assert.assertEquals(-1L, list.get(size - 1));
+        Assert.assertEquals(size, list.get(size));
+        Assert.assertEquals(size, list.toArray()[size]);
+
+        DfLongChunkedList copy = list.copy(DfDirectBufferAllocator.INSTANCE);
+        Assert.assertTrue(copy.isOffHeap());
+        Assert.assertEquals(size + 1, copy.size());
+        Assert.assertEquals(1 << 20, copy.get(1 << 20));
+        Assert.assertEquals(size, copy.get(size));
+        Assert.assertFalse(list.copy(null).isOffHeap());
+
+        list.release();
+        Assert.assertFalse(list.isOffHeap());
+        Assert.assertEquals(0, list.size());
+    }
+
+    @Test
+    public void moveValuesOffHeapAsBuffersFill()
+    {
+        CountingAllocator allocator = new CountingAllocator();
+
+        DfLongChunkedList list = new DfLongChunkedList();
+        list.storeOffHeap(allocator);
+
+        int bufferSize = 1 << 20;
+        for (int i = 0; i < bufferSize * 2 + 10; i++)
+        {
+            list.add(i);
+        }
+
+        Assert.assertEquals(2, allocator.bufferCount);
+
+        list.seal(false);
+        Assert.assertEquals(3, allocator.bufferCount);
+        Assert.assertEquals(bufferSize * 2 + 9, list.get(bufferSize * 2 + 9));
+
+        list.add(-1L);
+        Assert.assertEquals(2, allocator.bufferCount);
+        Assert.assertEquals(bufferSize * 2 + 9, list.get(bufferSize * 2 + 9));
+        Assert.assertEquals(-1L, list.get(bufferSize * 2 + 10));
+
+        list.release();
+        Assert.assertEquals(0, allocator.bufferCount);
+    }
+
+    @Test
+    public void releaseOffHeapWhenAllOwnersRelease()
+    {
+        DfLongChunkedList list = this.listOfSize(100);
+        list.storeOffHeap(DfDirectBufferAllocator.INSTANCE);
+        list.seal(false);
+        list.retain();
+
+        list.release();
+        Assert.assertTrue(list.isOffHeap());
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(99L, list.get(99));
+
+        list.release();
+        Assert.assertFalse(list.isOffHeap());
+        Assert.assertEquals(0, list.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBounds()
+    {
+        this.listOfSize(10).get(10);
+    }
+
+    private DfLongChunkedList listOfSize(int size)
+    {
+        DfLongChunkedList list = new DfLongChunkedList();
+        for (int i = 0; i < size; i++)
+        {
+            list.add(i);
+        }
+        return list;
+    }
+
+    private static class CountingAllocator
+    implements DfBufferAllocator
+    {
+        private int bufferCount = 0;
+
+        @Override
+        public DfBufferGroup newBufferGroup()
+        {
+            DfBufferGroup group = DfDirectBufferAllocator.INSTANCE.newBufferGroup();
+            return new DfBufferGroup()
+            {
+                private int groupBufferCount = 0;
+
+                @Override
+                public ByteBuffer addBuffer(int capacity)
+                {
+                    CountingAllocator.this.bufferCount++;
+                    this.groupBufferCount++;
+                    return group.addBuffer(capacity);
+                }
+
+                @Override
+                public void removeLastBuffer()
+                {
+                    CountingAllocator.this.bufferCount--;
+                    this.groupBufferCount--;
+                    group.removeLastBuffer();
+                }
+
+                @Override
+                public void release()
+                {
+                    CountingAllocator.this.bufferCount -= this.groupBufferCount;
+                    this.groupBufferCount = 0;
+                    group.release();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.max;
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.min;
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.sum;
+
+public class DfLongValuesEncoderTest
+{
+    private static final int SIZE = 1_000;
+
+    @Test
+    public void runLength()
+    {
+        DfLongValues encoded = this.encode(i -> 1_000_000_000_000L + i / 100, SIZE);
+
+        Assert.assertTrue(encoded instanceof DfRunLengthLongValues);
+        Assert.assertEquals(10, ((DfRunLengthLongValues) encoded).runCount());
+        this.assertDecodes(encoded, i -> 1_000_000_000_000L + i / 100);
+        Assert.assertEquals(1_000_000_000_000L * SIZE + 4_500, encoded.sum());
+        Assert.assertEquals(1_000_000_000_009L, encoded.max());
+        Assert.assertTrue(encoded.matching(value -> value == 1_000_000_000_001L).accept(199));
+        Assert.assertFalse(encoded.matching(value -> value == 1_000_000_000_001L).accept(200));
+
+        // the runs are looked up from the last one accessed, going backwards and skipping runs as well
+        IntPredicate matching = encoded.matching(value -> value % 2 == 0);
+        int[] indices = {0, 99, 100, 250, 999, 998, 5, 300, 199, 200, 201, 0};
+        for (int index : indices)
+        {
+            Assert.assertEquals("at " + index, 1_000_000_000_000L + index / 100, encoded.get(index));
+            Assert.assertEquals("at " + index, index / 100 % 2 == 0, matching.accept(index));
+        }
+    }
+
+    @Test
+    public void minAndMaxOfNoValues()
+    {
+        DfLongValues encoded = DfRunLengthLongValues.encode(new DfLongChunkedList(), 0);
+        this.assertThrowsNoSuchElement(encoded::min);
+        this.assertThrowsNoSuchElement(encoded::max);
+
+        DfLongValues plain = new DfLongChunkedList();
+        this.assertThrowsNoSuchElement(plain::min);
+        this.assertThrowsNoSuchElement(plain::max);
+
+        DataFrame df = new DataFrame("df").addLongColumn("Value");
+        df.seal();
+        this.assertThrowsNoSuchElement(df.getLongColumn("Value")::min);
+        this.assertThrowsNoSuchElement(df.getLongColumn("Value")::max);
+    }
+
+    @Test
+    public void frameOfReference()
+    {
+        DfLongValues encoded = this.encode(i -> 5_000_000_000L + i * 3, SIZE);
+
+        Assert.assertTrue(encoded instanceof DfFrameOfReferenceLongValues);
+        this.assertDecodes(encoded, i -> 5_000_000_000L + i * 3);
+        Assert.assertEquals(5_000_000_000L * SIZE + 3L * SIZE * (SIZE - 1) / 2, encoded.sum());
+    }
+
+    @Test
+    public void narrow()
+    {
+        DfLongValues encoded = this.encode(i -> (i * 7919) % 200 - 100, SIZE);
+
+        Assert.assertTrue(encoded instanceof DfNarrowLongValues);
+        this.assertDecodes(encoded, i -> (i * 7919) % 200 - 100);
+    }
+
+    @Test
+    public void plain()
+    {
+        DfLongValues encoded = this.encode(i -> i * 7_919_000_000_000_000L, SIZE);
+
+        Assert.assertTrue(encoded instanceof DfLongChunkedList);
+        this.assertDecodes(encoded, i -> i * 7_919_000_000_000_000L);
+    }
+
+    @Test
+    public void aggregateAndFilterEncodedColumns()
+    {
+        DataFrame df = new DataFrame("df")
+                .addStringColumn("Account").addLongColumn("Day").addLongColumn("Quantity");
+        df.enableCompactionOnSeal();
+
+        for (int i = 0; i < SIZE; i++)
+        {
+            df.addRow(i < 500 ? "A" : "B", 20_000L + i / 250, 10L);
+        }
+        df.seal();
+
+        Assert.assertEquals(4 * 20_000L * 250 + 250 * 6, df.getLongColumn("Day").sum());
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addLongColumn("Day").addLongColumn("Quantity")
+                        .addRow(20_003L, 10_000L),
+                df.aggregate(Lists.immutable.of(max("Day"), sum("Quantity")))
+        );
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("expected")
+                        .addStringColumn("Account").addLongColumn("Day").addLongColumn("Quantity")
+                        .addRow("A", 20_000L, 5_000L)
+                        .addRow("B", 20_002L, 5_000L),
+                df.aggregateBy(Lists.immutable.of(min("Day"), sum("Quantity")), Lists.immutable.of("Account"))
+        );
+
+        Assert.assertEquals(250, df.selectBy("Day == 20001").rowCount());
+        Assert.assertEquals(500, df.selectBy("20002 <= Day").rowCount());
+        Assert.assertEquals(750, df.selectBy("Day != 20003").rowCount());
+    }
+
+    private void assertThrowsNoSuchElement(LongSupplier minOrMax)
+    {
+        try
+        {
+            minOrMax.getAsLong();
+            Assert.fail("didn't throw");
+        }
+        catch (NoSuchElementException e)
+        {
+            // expected
+        }
+    }
+
+    private DfLongValues encode(IntToLongFunction valueAt, int size)
+    {
+        DfLongChunkedList values = new DfLongChunkedList();
+        DfNullMap nullMap = new DfNullMap();
+        for (int i = 0; i < size; i++)
+        {
+            values.add(valueAt.applyAsLong(i));
+            nullMap.add(false);
+        }
+
+        return DfLongValuesEncoder.encode(values, nullMap);
+    }
+
+    private void assertDecodes(DfLongValues encoded, IntToLongFunction valueAt)
+    {
+        Assert.assertEquals(SIZE, encoded.size());
+
+        long[] expected = new long[SIZE];
+        for (int i = 0; i < SIZE; i++)
+        {
+            expected[i] = valueAt.applyAsLong(i);
+            Assert.assertEquals(expected[i], encoded.get(i));
+        }
+
+        Assert.assertEquals(LongLists.immutable.with(expected), encoded.toImmutable());
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DfNullMapTest
+{
+    @Test
+    public void noNulls()
+    {
+        DfNullMap nullMap = new DfNullMap();
+        for (int i = 0; i < 100; i++)
+        {
+            nullMap.add(false);
+        }
+
+        Assert.assertEquals(100, nullMap.size());
+        Assert.assertFalse(nullMap.hasNulls());
+        Assert.assertFalse(nullMap.isNull(99));
+    }
+
+    @Test
+    public void setAndClear()
+    {
+        DfNullMap nullMap = new DfNullMap();
+        for (int i = 0; i < 130; i++)
+        {
+            nullMap.add(i % 64 == 63);
+        }
+
+        Assert.assertEquals(2, nullMap.nullCount());
+        Assert.assertTrue(nullMap.isNull(63));
+        Assert.assertTrue(nullMap.isNull(127));
+        Assert.assertFalse(nullMap.isNull(64));
+
+        nullMap.setNull(63);
+        nullMap.setNull(129);
+        Assert.assertEquals(3, nullMap.nullCount());
+
+        nullMap.clearNull(63);
+        nullMap.clearNull(64);
+        Assert.assertEquals(2, nullMap.nullCount());
+        Assert.assertFalse(nullMap.isNull(63));
+
+        nullMap.clearNull(127);
+        nullMap.clearNull(129);
+        Assert.assertFalse(nullMap.hasNulls());
+
+        nullMap.trim();
+        Assert.assertFalse(nullMap.isNull(127));
+
+        nullMap.setNull(2);
+        Assert.assertTrue(nullMap.isNull(2));
+    }
+
+    @Test
+    public void addAll()
+    {
+        DfNullMap nullMap = new DfNullMap();
+        nullMap.add(true);
+        nullMap.add(false);
+        nullMap.add(false);
+
+        DfNullMap other = new DfNullMap();
+        for (int i = 0; i < 70; i++)
+        {
+            other.add(i == 0 || i == 62 || i == 69);
+        }
+
+        nullMap.addAll(other);
+        nullMap.addAll(new DfNullMap());
+
+        Assert.assertEquals(73, nullMap.size());
+        Assert.assertEquals(4, nullMap.nullCount());
+        Assert.assertTrue(nullMap.isNull(0));
+        Assert.assertTrue(nullMap.isNull(3));
+        Assert.assertTrue(nullMap.isNull(65));
+        Assert.assertTrue(nullMap.isNull(72));
+        Assert.assertFalse(nullMap.isNull(64));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBounds()
+    {
+        DfNullMap nullMap = new DfNullMap();
+        nullMap.add(false);
+        nullMap.isNull(1);
+    }
+}
@@ -900,4 +900,35 @@ public class DataFrameLoadTest
                 , df
         );
     }
+
+    @Test
+    public void loadDecimalsInDifferentFormats()
+    {
+        CsvSchema schema = new CsvSchema()
+                .addColumn("Name", STRING)
+                .addColumn("Amount", DECIMAL)
+                ;
+
+        CsvDataSet dataSet = new StringBasedCsvDataSet("Foo", "Amounts", schema,
+                "Name,Amount\n"
+                + "\"Alice\",-12.50\n"
+                + "\"Bob\",+.5\n"
+                + "\"Carl\",\n"
+                + "\"Doris\",1.5E+3\n"
+                + "\"Evan\",12345678901234567890.5\n"
+        );
+
+        DataFrame df = dataSet.loadAsDataFrame();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Amounts")
+                        .addStringColumn("Name").addDecimalColumn("Amount")
+                        .addRow("Alice", new BigDecimal("-12.50"))
+                        .addRow("Bob", new BigDecimal("0.5"))
+                        .addRow("Carl", null)
+                        .addRow("Doris", new BigDecimal("1.5E+3"))
+                        .addRow("Evan", new BigDecimal("12345678901234567890.5"))
+                , df
+        );
+    }
 }
@@ -0,0 +1,108 @@
+package io.github.vmzakharov.ecdataframe.dsl;
+
+import io.github.vmzakharov.ecdataframe.ExpressionTestUtil;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.VectorValue;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.ExpressionOptimizingVisitor;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.PrettyPrintVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+public class ExpressionOptimizingTest
+{
+    @Test
+    public void constantArithmetic()
+    {
+        this.assertOptimizesTo("(x * 86400)", "x * (60 * 60 * 24)");
+        this.assertOptimizesTo("(x + 3)", "x + (-1 + 4)");
+        Assert.assertEquals(7L, ((LongValue) this.optimize("1 + 2 * 3")).longValue());
+    }
+
+    @Test
+    public void pureFunctionCalls()
+    {
+        Expression optimized = this.optimize("d > toDate(2021, 1, 1)");
+        Assert.assertEquals(LocalDate.of(2021, 1, 1), ((DateValue) ((BinaryExpr) optimized).getOperand2()).dateValue());
+
+        this.assertOptimizesTo("(abs(x) + 5)", "abs(x) + abs(-5)");
+        this.assertOptimizesTo("println(3)", "println(1 + 2)");
+    }
+
+    @Test
+    public void declaredFunctionsAreNotFolded()
+    {
+        String scriptText =
+                  "function abs(a)\n"
+                + "{  a * 2\n"
+                + "}";
+
+        SimpleEvalContext context = new SimpleEvalContext();
+        ExpressionTestUtil.evaluateScriptWithContext(scriptText, context);
+
+        Expression optimized = ExpressionOptimizingVisitor.optimize(ExpressionTestUtil.toExpression("abs(-5)"), context);
+        Assert.assertTrue(optimized instanceof FunctionCallExpr);
+    }
+
+    @Test
+    public void vectorLiterals()
+    {
+        Expression optimized = this.optimize("x in (1, 2 + 3, 'a')");
+        Assert.assertTrue(((BinaryExpr) optimized).getOperand2() instanceof VectorValue);
+
+        optimized = this.optimize("x in (1, y)");
+        Assert.assertTrue(((BinaryExpr) optimized).getOperand2() instanceof VectorExpr);
+    }
+
+    @Test
+    public void booleanIdentities()
+    {
+        this.assertOptimizesTo("(x > 2)", "1 == 1 and x > 2");
+        this.assertOptimizesTo("(x > 2)", "x > 2 and 1 < 2");
+        this.assertOptimizesTo("(x > 2)", "1 > 2 or x > 2");
+        this.assertOptimizesTo("(x > 2)", "x > 2 or 1 > 2");
+        this.assertOptimizesTo("(x > 2)", "not (not (x > 2))");
+
+        Assert.assertSame(BooleanValue.FALSE, this.optimize("1 > 2 and x > 2"));
+        Assert.assertSame(BooleanValue.TRUE, this.optimize("1 < 2 or x > 2"));
+    }
+
+    @Test
+    public void failingConstantsAreLeftAsIs()
+    {
+        Expression optimized = this.optimize("x > 0 and 1 / 0 > 1");
+        Assert.assertTrue(((BinaryExpr) ((BinaryExpr) optimized).getOperand2()).getOperand1() instanceof BinaryExpr);
+    }
+
+    @Test
+    public void unchangedExpressionIsReused()
+    {
+        Expression expression = ExpressionTestUtil.toExpression("x + y * abs(z) > 1");
+        Assert.assertSame(expression, ExpressionOptimizingVisitor.optimize(expression, new SimpleEvalContext()));
+    }
+
+    @Test
+    public void invariantVariables()
+    {
+        SimpleEvalContext context = new SimpleEvalContext();
+        context.setVariable("threshold", new LongValue(5));
+
+        Expression optimized = new ExpressionOptimizingVisitor(context, "threshold"::equals)
+                .optimize(ExpressionTestUtil.toExpression("x > threshold * 2"));
+
+        Assert.assertEquals("(x > 10)", PrettyPrintVisitor.exprToString(optimized));
+    }
+
+    private void assertOptimizesTo(String expected, String expressionString)
+    {
+        Assert.assertEquals(expected, PrettyPrintVisitor.exprToString(this.optimize(expressionString)));
+    }
+
+    private Expression optimize(String expressionString)
+    {
+        return ExpressionOptimizingVisitor.optimize(ExpressionTestUtil.toExpression(expressionString), new SimpleEvalContext());
+    }
+}
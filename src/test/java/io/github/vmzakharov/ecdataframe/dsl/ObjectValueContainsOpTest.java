@@ -2,9 +2,12 @@ package io.github.vmzakharov.ecdataframe.dsl;
 
 import io.github.vmzakharov.ecdataframe.ExpressionTestUtil;
 import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.VectorValue;
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.impl.utility.ArrayIterate;
 import org.junit.Assert;
 import org.junit.Test;
@@ -67,6 +70,37 @@ public class ObjectValueContainsOpTest
         Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.NOT_IN, new StringValue("Hello"), new StringValue("")));
     }
 
+    @Test
+    public void indexedVectorIn()
+    {
+        VectorValue strings = this.vectorOfStrings("Foo", "Bar", "Baz").indexed();
+        Assert.assertNotNull(strings.getStringElementSet());
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.IN, new StringValue("Bar"), strings));
+        Assert.assertFalse(ExpressionTestUtil.evaluate(ContainsOp.IN, new StringValue("Qux"), strings));
+        Assert.assertFalse(ExpressionTestUtil.evaluate(ContainsOp.IN, Value.VOID, strings));
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.NOT_IN, Value.VOID, strings));
+
+        VectorValue dates = this.vectorOfDates(LocalDate.of(2020, 8, 15), LocalDate.of(2020, 7, 15)).indexed();
+        Assert.assertNotNull(dates.getEpochDayElementSet());
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.IN, this.dateValue(2020, 7, 15), dates));
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.NOT_IN, this.dateValue(2020, 7, 16), dates));
+
+        VectorValue longs = new VectorValue(Lists.immutable.of(new LongValue(1), new LongValue(5))).indexed();
+        Assert.assertNotNull(longs.getLongElementSet());
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.IN, new LongValue(5), longs));
+        Assert.assertFalse(ExpressionTestUtil.evaluate(ContainsOp.IN, new LongValue(2), longs));
+        // a value of a different type is compared to each element
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.IN, new DoubleValue(5.0), longs));
+    }
+
+    @Test
+    public void vectorsWithNullsAreNotIndexed()
+    {
+        VectorValue strings = this.vectorOfStrings("Foo", null).indexed();
+        Assert.assertNull(strings.getStringElementSet());
+        Assert.assertTrue(ExpressionTestUtil.evaluate(ContainsOp.IN, Value.VOID, strings));
+    }
+
     public VectorValue vectorOfStrings(String... items)
     {
         return new VectorValue(ArrayIterate.collect(items, item -> item == null ? Value.VOID : new StringValue(item)));
@@ -0,0 +1,40 @@
+package io.github.vmzakharov.ecdataframe.dsl;
+
+import io.github.vmzakharov.ecdataframe.ExpressionTestUtil;
+import io.github.vmzakharov.ecdataframe.dsl.visitor.ReferencedVariablesVisitor;
+import org.eclipse.collections.impl.factory.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReferencedVariablesTest
+{
+    @Test
+    public void expression()
+    {
+        Assert.assertEquals(
+                Sets.mutable.of("a", "b", "c", "d"),
+                ReferencedVariablesVisitor.variablesReferencedIn(
+                        ExpressionTestUtil.toExpression("a + abs(b) > 0 ? c in (d, 1) : 'x'")));
+    }
+
+    @Test
+    public void constantExpression()
+    {
+        Assert.assertTrue(ReferencedVariablesVisitor.variablesReferencedIn(ExpressionTestUtil.toExpression("1 + 2")).isEmpty());
+    }
+
+    @Test
+    public void scriptWithFunctionDeclaration()
+    {
+        String scriptText =
+                  "function sum(a, b)\n"
+                + "{  a + b + c\n"
+                + "}\n"
+                + "x = 1\n"
+                + "sum(x, y)";
+
+        Assert.assertEquals(
+                Sets.mutable.of("a", "b", "c", "x", "y"),
+                ReferencedVariablesVisitor.variablesReferencedIn(ExpressionTestUtil.toScript(scriptText)));
+    }
+}
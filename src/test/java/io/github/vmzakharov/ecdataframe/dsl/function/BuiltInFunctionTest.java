@@ -102,6 +102,8 @@ public class BuiltInFunctionTest
         Assert.assertTrue(evaluateToBoolean("withinDays(toDate(2020, 11, 20), toDate(2020, 11, 22), 4)"));
         Assert.assertFalse(evaluateToBoolean("withinDays(toDate(2020, 11, 22), toDate(2020, 11, 20), 1)"));
         Assert.assertFalse(evaluateToBoolean("withinDays(toDate(2020, 11, 20), toDate(2020, 11, 24), 2)"));
+        Assert.assertTrue(evaluateToBoolean("withinDays(toDate(2020, 11, 30), toDate(2020, 12, 2), 2)"));
+        Assert.assertFalse(evaluateToBoolean("withinDays(toDate(2020, 10, 20), toDate(2020, 11, 20), 2)"));
     }
 
     @Test